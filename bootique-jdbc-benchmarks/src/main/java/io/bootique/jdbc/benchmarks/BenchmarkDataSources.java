@@ -0,0 +1,137 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.bootique.jdbc.LazyDataSource;
+import io.bootique.jdbc.LazyDataSourceFactory;
+import io.bootique.jdbc.hikaricp.HikariCPManagedDataSourceFactory;
+import io.bootique.jdbc.junit.datasource.DriverDataSource;
+import io.bootique.jdbc.junit.datasource.PoolingDataSource;
+import io.bootique.jdbc.junit.datasource.PoolingDataSourceParameters;
+import io.bootique.jdbc.pool.PoolDataSource;
+import io.bootique.jdbc.pool.PoolManagedDataSourceFactory;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates DataSources for benchmarks, all pointing to the same in-memory Derby DB.
+ */
+public class BenchmarkDataSources {
+
+    static final String DS_NAME = "bench";
+
+    private final String dbName;
+    private final int poolSize;
+
+    private AutoCloseable onClose;
+
+    public BenchmarkDataSources(String dbName, int poolSize) {
+        this.dbName = dbName;
+        this.poolSize = poolSize;
+    }
+
+    public String getUrl() {
+        return "jdbc:derby:memory:" + dbName + ";create=true";
+    }
+
+    /**
+     * Creates a raw Hikari pool, bypassing all Bootique layers.
+     */
+    public DataSource hikari() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(DS_NAME);
+        config.setJdbcUrl(getUrl());
+        config.setMinimumIdle(poolSize);
+        config.setMaximumPoolSize(poolSize);
+
+        HikariDataSource ds = new HikariDataSource(config);
+        this.onClose = ds;
+        return ds;
+    }
+
+    /**
+     * Creates a Hikari pool wrapped in a {@link LazyDataSource}.
+     */
+    public DataSource lazy() {
+        DataSource hikari = hikari();
+        return new LazyDataSource(() -> hikari);
+    }
+
+    /**
+     * Creates a {@link LazyDataSourceFactory} with a single Hikari DataSource configured the same way Bootique would
+     * configure it.
+     */
+    public LazyDataSourceFactory factory() {
+        HikariCPManagedDataSourceFactory hikariFactory = new HikariCPManagedDataSourceFactory();
+        hikariFactory.setJdbcUrl(getUrl());
+        hikariFactory.setMinimumIdle(poolSize);
+        hikariFactory.setMaximumPoolSize(poolSize);
+
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Map.of(DS_NAME, hikariFactory.create(DS_NAME)), Set.of());
+        this.onClose = factory::shutdown;
+        return factory;
+    }
+
+    /**
+     * Creates a test pool from "bootique-jdbc-junit".
+     */
+    public DataSource pooling() {
+        PoolingDataSourceParameters parameters = new PoolingDataSourceParameters();
+        parameters.setMinConnections(poolSize);
+        parameters.setMaxConnections(poolSize);
+        parameters.setMaxQueueWaitTime(30_000);
+
+        PoolingDataSource ds = new PoolingDataSource(new DriverDataSource(null, getUrl(), null, null), parameters);
+        this.onClose = ds::close;
+        return ds;
+    }
+
+    /**
+     * Creates a virtual thread-friendly pool from "bootique-jdbc-pool".
+     */
+    public DataSource pool() {
+        PoolManagedDataSourceFactory poolFactory = new PoolManagedDataSourceFactory();
+        poolFactory.setJdbcUrl(getUrl());
+        poolFactory.setMinConnections(poolSize);
+        poolFactory.setMaxConnections(poolSize);
+
+        PoolDataSource ds = (PoolDataSource) poolFactory.create(DS_NAME).start().getDataSource();
+        this.onClose = ds;
+        return ds;
+    }
+
+    public void close() throws Exception {
+        if (onClose != null) {
+            onClose.close();
+            onClose = null;
+        }
+
+        try {
+            DriverManager.getConnection("jdbc:derby:memory:" + dbName + ";drop=true");
+        } catch (SQLException e) {
+            // Derby reports a successful drop with an exception
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.benchmarks;
+
+import io.bootique.jdbc.DataSourceFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a connection checkout / return cycle through different layers of Bootique JDBC stack. "hikari"
+ * is the baseline raw pool, "lazy" adds a {@link io.bootique.jdbc.LazyDataSource} wrapper, "factory" resolves the
+ * DataSource via {@link DataSourceFactory#forName(String)} on every call, "pooling" is the test pool from
+ * "bootique-jdbc-junit" and "pool" is the pool from "bootique-jdbc-pool". Run with "java -jar target/benchmarks.jar ConnectionCheckoutBenchmark".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionCheckoutBenchmark {
+
+    @Param({"hikari", "lazy", "factory", "pooling", "pool"})
+    public String dataSource;
+
+    @Param({"8"})
+    public int poolSize;
+
+    private BenchmarkDataSources dataSources;
+    private ConnectionSource connectionSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.dataSources = new BenchmarkDataSources("checkout", poolSize);
+        this.connectionSource = createConnectionSource();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dataSources.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void checkout_1Thread(Blackhole bh) throws SQLException {
+        checkout(bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void checkout_4Threads(Blackhole bh) throws SQLException {
+        checkout(bh);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void checkout_16Threads(Blackhole bh) throws SQLException {
+        checkout(bh);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void checkout_MaxThreads(Blackhole bh) throws SQLException {
+        checkout(bh);
+    }
+
+    private void checkout(Blackhole bh) throws SQLException {
+        try (Connection c = connectionSource.getConnection()) {
+            bh.consume(c);
+        }
+    }
+
+    private ConnectionSource createConnectionSource() {
+        return switch (dataSource) {
+            case "hikari" -> dataSources.hikari()::getConnection;
+            case "lazy" -> dataSources.lazy()::getConnection;
+            case "factory" -> {
+                DataSourceFactory factory = dataSources.factory();
+                yield () -> factory.forName(BenchmarkDataSources.DS_NAME).getConnection();
+            }
+            case "pooling" -> dataSources.pooling()::getConnection;
+            case "pool" -> dataSources.pool()::getConnection;
+            default -> throw new IllegalArgumentException("Unknown DataSource type: " + dataSource);
+        };
+    }
+
+    @FunctionalInterface
+    interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.benchmarks;
+
+import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.jdbc.LazyDataSource;
+import io.bootique.jdbc.LazyDataSourceFactory;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of looking up already started DataSources by name in {@link LazyDataSourceFactory} with many named
+ * DataSources and many threads. This is the path taken by the app code that calls
+ * {@link DataSourceFactory#forName(String)} on every request instead of caching the DataSource. The DataSources are
+ * not connected to a DB, as only the lookup is measured. Run with "java -jar target/benchmarks.jar
+ * DataSourceLookupBenchmark".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSourceLookupBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int dataSourceCount;
+
+    private DataSourceFactory factory;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        this.names = new String[dataSourceCount];
+        Map<String, ManagedDataSourceStarter> starters = new HashMap<>();
+        for (int i = 0; i < dataSourceCount; i++) {
+            String name = "datasource_" + i;
+            names[i] = name;
+
+            // the DataSource is never connected
+            DataSource ds = new LazyDataSource(() -> {
+                throw new UnsupportedOperationException("Not connectable");
+            });
+
+            starters.put(name, new ManagedDataSourceStarter(() -> "jdbc:bench:" + name, () -> ds, d -> {
+            }));
+        }
+
+        this.factory = new LazyDataSourceFactory(starters, Set.of());
+        for (String n : names) {
+            factory.forName(n);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void forName_1Thread(Blackhole bh) {
+        bh.consume(factory.forName(nextName()));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void forName_16Threads(Blackhole bh) {
+        bh.consume(factory.forName(nextName()));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void forName_MaxThreads(Blackhole bh) {
+        bh.consume(factory.forName(nextName()));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void isStarted_16Threads(Blackhole bh) {
+        bh.consume(factory.isStarted(nextName()));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void forNameIfStarted_16Threads(Blackhole bh) {
+        bh.consume(factory.forNameIfStarted(nextName()));
+    }
+
+    private String nextName() {
+        return names[ThreadLocalRandom.current().nextInt(names.length)];
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes for a large number of virtual threads to each check out a connection from a small pool,
+ * do some work while holding it, and return it. Compares Hikari with the virtual thread-friendly pool from
+ * "bootique-jdbc-pool". Run with "java -jar target/benchmarks.jar VirtualThreadCheckoutBenchmark". Adding
+ * "-jvmArgsAppend -Djdk.tracePinnedThreads=short" would report any carrier thread pinning.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadCheckoutBenchmark {
+
+    @Param({"hikari", "pool"})
+    public String dataSource;
+
+    @Param({"10000"})
+    public int virtualThreads;
+
+    @Param({"8"})
+    public int poolSize;
+
+    // simulated work done while holding a connection
+    @Param({"1000"})
+    public int workTokens;
+
+    private BenchmarkDataSources dataSources;
+    private DataSource ds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.dataSources = new BenchmarkDataSources("vthreads", poolSize);
+        this.ds = switch (dataSource) {
+            case "hikari" -> dataSources.hikari();
+            case "pool" -> dataSources.pool();
+            default -> throw new IllegalArgumentException("Unknown DataSource type: " + dataSource);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dataSources.close();
+    }
+
+    @Benchmark
+    public void checkout(Blackhole bh) throws Exception {
+
+        List<Future<?>> results = new ArrayList<>(virtualThreads);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < virtualThreads; i++) {
+                results.add(executor.submit(() -> {
+                    try (Connection c = ds.getConnection()) {
+                        bh.consume(c);
+                        Blackhole.consumeCPU(workTokens);
+                    }
+                    return null;
+                }));
+            }
+
+            // propagate checkout failures, e.g. timeouts
+            for (Future<?> r : results) {
+                r.get();
+            }
+        }
+    }
+}
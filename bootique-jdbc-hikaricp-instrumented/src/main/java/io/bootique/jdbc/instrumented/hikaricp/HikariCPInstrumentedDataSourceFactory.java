@@ -19,20 +19,31 @@
 
 package io.bootique.jdbc.instrumented.hikaricp;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.zaxxer.hikari.HikariDataSource;
 import io.bootique.annotation.BQConfig;
 import io.bootique.annotation.BQConfigProperty;
 import io.bootique.jdbc.DataSourceFactory;
 import io.bootique.jdbc.hikaricp.HikariCPManagedDataSourceFactory;
 import io.bootique.jdbc.instrumented.hikaricp.healthcheck.HikariCPHealthChecksFactory;
 import io.bootique.jdbc.instrumented.hikaricp.managed.InstrumentedManagedDataSourceStarter;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HdrHistogramsFactory;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HikariMetricsBridge;
+import io.bootique.jdbc.instrumented.hikaricp.sizing.AdaptivePoolSizingFactory;
+import io.bootique.jdbc.instrumented.hikaricp.statement.SlowQueryLog;
+import io.bootique.jdbc.instrumented.hikaricp.statement.SlowQueryLogFactory;
+import io.bootique.jdbc.instrumented.hikaricp.statement.StatementMetrics;
+import io.bootique.jdbc.instrumented.hikaricp.statement.StatementMetricsDataSource;
+import io.bootique.jdbc.instrumented.hikaricp.statement.StatementMetricsFactory;
 import io.bootique.jdbc.managed.ManagedDataSourceStarter;
 import io.bootique.metrics.health.HealthCheckGroup;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -44,6 +55,10 @@ public class HikariCPInstrumentedDataSourceFactory extends HikariCPManagedDataSo
     private final Provider<DataSourceFactory> dataSourceFactory;
 
     private HikariCPHealthChecksFactory health;
+    private StatementMetricsFactory statementMetrics;
+    private SlowQueryLogFactory slowQueries;
+    private HdrHistogramsFactory hdrHistograms;
+    private AdaptivePoolSizingFactory adaptiveSizing;
 
     @Inject
     public HikariCPInstrumentedDataSourceFactory(
@@ -60,7 +75,25 @@ public class HikariCPInstrumentedDataSourceFactory extends HikariCPManagedDataSo
             Consumer<DataSource> shutdown) {
 
         HealthCheckGroup healthChecks = healthChecks(dataSourceName);
-        return new InstrumentedManagedDataSourceStarter(this::getJdbcUrl, startup, shutdown, healthChecks);
+        return new InstrumentedManagedDataSourceStarter(
+                this::getJdbcUrl,
+                withStatementInstrumentation(dataSourceName, startup),
+                shutdown,
+                healthChecks,
+                hdrHistograms,
+                adaptiveSizing);
+    }
+
+    @Override
+    protected void onWarmup(String dataSourceName, HikariDataSource dataSource, Duration duration) {
+
+        // reported in milliseconds, same as the pool usage histogram
+        String name = HikariMetricsBridge.warmupTimeMetric(dataSourceName);
+        long ms = duration.toMillis();
+
+        MetricRegistry registry = metricRegistry.get();
+        registry.remove(name);
+        registry.register(name, (Gauge<Long>) () -> ms);
     }
 
     @BQConfigProperty
@@ -68,6 +101,61 @@ public class HikariCPInstrumentedDataSourceFactory extends HikariCPManagedDataSo
         this.health = health;
     }
 
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures optional per-statement metrics.")
+    public void setStatementMetrics(StatementMetricsFactory statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures optional log of slow statements.")
+    public void setSlowQueries(SlowQueryLogFactory slowQueries) {
+        this.slowQueries = slowQueries;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures optional HdrHistogram-based pool wait, usage and connection creation metrics.")
+    public void setHdrHistograms(HdrHistogramsFactory hdrHistograms) {
+        this.hdrHistograms = hdrHistograms;
+    }
+
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures optional runtime adjustment of the pool size based on connection wait and usage " +
+            "metrics.")
+    public void setAdaptiveSizing(AdaptivePoolSizingFactory adaptiveSizing) {
+        this.adaptiveSizing = adaptiveSizing;
+    }
+
+    private Supplier<DataSource> withStatementInstrumentation(String dataSourceName, Supplier<DataSource> startup) {
+
+        boolean metricsEnabled = statementMetrics != null && statementMetrics.isEnabled();
+        boolean slowQueriesEnabled = slowQueries != null && slowQueries.isEnabled();
+
+        if (!metricsEnabled && !slowQueriesEnabled) {
+            return startup;
+        }
+
+        return () -> {
+            StatementMetrics metrics = metricsEnabled
+                    ? statementMetrics.createMetrics(dataSourceName, metricRegistry.get())
+                    : null;
+
+            SlowQueryLog slowQueryLog = slowQueriesEnabled
+                    ? slowQueries.createLog(dataSourceName, metricRegistry.get())
+                    : null;
+
+            return new StatementMetricsDataSource(startup.get(), metrics, slowQueryLog);
+        };
+    }
+
     private HealthCheckGroup healthChecks(String dataSourceName) {
 
         HikariCPHealthChecksFactory factory = this.health != null
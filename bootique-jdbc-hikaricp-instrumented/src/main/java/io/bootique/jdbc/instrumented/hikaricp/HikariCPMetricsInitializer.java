@@ -19,25 +19,49 @@
 
 package io.bootique.jdbc.instrumented.hikaricp;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.zaxxer.hikari.HikariDataSource;
+import io.bootique.jdbc.AdmissionControlDataSource;
 import io.bootique.jdbc.DataSourceListener;
 import io.bootique.jdbc.DataSourceUnwrapper;
+import io.bootique.jdbc.StatementCachingDataSource;
+import io.bootique.jdbc.instrumented.hikaricp.managed.InstrumentedManagedDataSourceStarter;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.ConnectionUsageAccumulator;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HdrHistogramsFactory;
 import io.bootique.jdbc.instrumented.hikaricp.metrics.HikariMetricsBridge;
+import io.bootique.jdbc.instrumented.hikaricp.sizing.AdaptivePoolSizer;
+import io.bootique.jdbc.instrumented.hikaricp.sizing.AdaptivePoolSizingFactory;
+import io.bootique.jdbc.instrumented.hikaricp.statement.SlowQueryLog;
+import io.bootique.jdbc.instrumented.hikaricp.statement.StatementMetricsDataSource;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HikariCPMetricsInitializer implements DataSourceListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HikariCPMetricsInitializer.class);
 
     private final MetricRegistry metricRegistry;
+    private final Map<String, ManagedDataSourceStarter> starters;
+    private final Map<String, AdaptivePoolSizer> sizers;
 
     public HikariCPMetricsInitializer(MetricRegistry metricRegistry) {
+        this(metricRegistry, Map.of());
+    }
+
+    /**
+     * @since 4.0
+     */
+    public HikariCPMetricsInitializer(MetricRegistry metricRegistry, Map<String, ManagedDataSourceStarter> starters) {
         this.metricRegistry = metricRegistry;
+        this.starters = starters;
+        this.sizers = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -50,18 +74,135 @@ public class HikariCPMetricsInitializer implements DataSourceListener {
 
         Optional<HikariDataSource> hds = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
         if (hds.isPresent()) {
-            collectPoolMetrics(hds.get());
+            ConnectionUsageAccumulator usage = adaptiveSizing(name).isPresent()
+                    ? new ConnectionUsageAccumulator()
+                    : null;
+            collectPoolMetrics(hds.get(), hdrHistograms(name), usage);
+            startAdaptiveSizing(name, hds.get(), usage);
         } else {
             LOGGER.warn("DataSource ({}) is not an instance of HikariDataSource, skipping metrics init", dataSource.getClass());
         }
+
+        // slow query log MBean is unregistered when the DataSource is closed
+        DataSourceUnwrapper.unwrap(dataSource, StatementMetricsDataSource.class)
+                .flatMap(StatementMetricsDataSource::getSlowQueryLog)
+                .ifPresent(SlowQueryLog::registerMBean);
+
+        DataSourceUnwrapper.unwrap(dataSource, AdmissionControlDataSource.class)
+                .ifPresent(ads -> collectAdmissionMetrics(name, ads));
+
+        DataSourceUnwrapper.unwrap(dataSource, StatementCachingDataSource.class)
+                .ifPresent(scds -> collectStatementCacheMetrics(name, scds));
     }
 
     @Override
     public void afterShutdown(String name, String jdbcUrl, DataSource dataSource) {
-        // do nothing
+        AdaptivePoolSizer sizer = sizers.remove(name);
+        if (sizer != null) {
+            sizer.close();
+        }
+
+        metricRegistry.remove(HikariMetricsBridge.warmupTimeMetric(name));
+        metricRegistry.remove(admissionRejectedMetric(name));
+        metricRegistry.remove(admissionWaitingMetric(name));
+        metricRegistry.remove(admissionActiveMetric(name));
+
+        metricRegistry.remove(statementCacheHitsMetric(name));
+        metricRegistry.remove(statementCacheMissesMetric(name));
+        metricRegistry.remove(statementCacheEvictionsMetric(name));
+        metricRegistry.remove(statementCacheSizeMetric(name));
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String admissionRejectedMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Admission", dataSourceName, "Rejected");
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String admissionWaitingMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Admission", dataSourceName, "Waiting");
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String admissionActiveMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Admission", dataSourceName, "Active");
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String statementCacheHitsMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("StatementCache", dataSourceName, "Hits");
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String statementCacheMissesMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("StatementCache", dataSourceName, "Misses");
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String statementCacheEvictionsMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("StatementCache", dataSourceName, "Evictions");
+    }
+
+    /**
+     * @since 4.0
+     */
+    public static String statementCacheSizeMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("StatementCache", dataSourceName, "Size");
+    }
+
+    void collectAdmissionMetrics(String dataSourceName, AdmissionControlDataSource dataSource) {
+        metricRegistry.register(admissionRejectedMetric(dataSourceName), (Gauge<Long>) dataSource::getRejected);
+        metricRegistry.register(admissionWaitingMetric(dataSourceName), (Gauge<Integer>) dataSource::getWaiting);
+        metricRegistry.register(admissionActiveMetric(dataSourceName), (Gauge<Integer>) dataSource::getActive);
+    }
+
+    void collectStatementCacheMetrics(String dataSourceName, StatementCachingDataSource dataSource) {
+        metricRegistry.register(statementCacheHitsMetric(dataSourceName), (Gauge<Long>) dataSource::getHits);
+        metricRegistry.register(statementCacheMissesMetric(dataSourceName), (Gauge<Long>) dataSource::getMisses);
+        metricRegistry.register(statementCacheEvictionsMetric(dataSourceName), (Gauge<Long>) dataSource::getEvictions);
+        metricRegistry.register(statementCacheSizeMetric(dataSourceName), (Gauge<Integer>) dataSource::getCachedStatements);
+    }
+
+    void collectPoolMetrics(
+            HikariDataSource dataSource,
+            HdrHistogramsFactory hdrHistograms,
+            ConnectionUsageAccumulator usageAccumulator) {
+
+        dataSource.setMetricsTrackerFactory((pn, ps) -> new HikariMetricsBridge(
+                pn,
+                ps,
+                metricRegistry,
+                hdrHistograms,
+                usageAccumulator));
+    }
+
+    void startAdaptiveSizing(String dataSourceName, HikariDataSource dataSource, ConnectionUsageAccumulator usage) {
+        adaptiveSizing(dataSourceName).ifPresent(f -> sizers.put(
+                dataSourceName,
+                f.startSizer(dataSourceName, dataSource.getHikariConfigMXBean(), metricRegistry, usage)));
+    }
+
+    private Optional<AdaptivePoolSizingFactory> adaptiveSizing(String dataSourceName) {
+        return starters.get(dataSourceName) instanceof InstrumentedManagedDataSourceStarter starter
+                ? starter.getAdaptiveSizing()
+                : Optional.empty();
     }
 
-    void collectPoolMetrics(HikariDataSource dataSource) {
-        dataSource.setMetricsTrackerFactory((pn, ps) -> new HikariMetricsBridge(pn, ps, metricRegistry));
+    private HdrHistogramsFactory hdrHistograms(String dataSourceName) {
+        return starters.get(dataSourceName) instanceof InstrumentedManagedDataSourceStarter starter
+                ? starter.getHdrHistograms().orElse(null)
+                : null;
     }
 }
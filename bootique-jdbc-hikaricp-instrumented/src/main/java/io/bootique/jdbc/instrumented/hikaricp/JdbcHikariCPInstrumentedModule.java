@@ -59,7 +59,9 @@ public class JdbcHikariCPInstrumentedModule implements BQModule {
 
     @Singleton
     @Provides
-    HikariCPMetricsInitializer provideMetricsInitializer(MetricRegistry metricRegistry) {
-        return new HikariCPMetricsInitializer(metricRegistry);
+    HikariCPMetricsInitializer provideMetricsInitializer(
+            MetricRegistry metricRegistry,
+            Map<String, ManagedDataSourceStarter> starters) {
+        return new HikariCPMetricsInitializer(metricRegistry, starters);
     }
 }
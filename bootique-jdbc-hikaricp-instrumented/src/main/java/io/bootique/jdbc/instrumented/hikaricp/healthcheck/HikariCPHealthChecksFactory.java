@@ -45,6 +45,7 @@ public class HikariCPHealthChecksFactory {
 
     private DurationRangeFactory connectivity;
     private DurationRangeFactory connection99Percent;
+    private DurationRangeFactory connection999Percent;
 
     @Inject
     public HikariCPHealthChecksFactory(
@@ -65,6 +66,16 @@ public class HikariCPHealthChecksFactory {
         this.connection99Percent = connection99Percent;
     }
 
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures thresholds for an optional health check verifying 99.9th percentile for checkout " +
+            "times of pooled connections. The check is only created if configured. Best used together with " +
+            "'hdrHistograms' pool metrics.")
+    public void setConnection999Percent(DurationRangeFactory connection999Percent) {
+        this.connection999Percent = connection999Percent;
+    }
+
     public HealthCheckGroup createHealthChecks(String dataSourceName) {
 
         Map<String, HealthCheck> checks = new HashMap<>(3);
@@ -75,6 +86,11 @@ public class HikariCPHealthChecksFactory {
         checks.put(Wait99PercentCheck.healthCheckName(dataSourceName),
                 new DeferredHealthCheck(createConnection99PercentCheck(dataSourceName)));
 
+        if (connection999Percent != null) {
+            checks.put(Wait999PercentCheck.healthCheckName(dataSourceName),
+                    new DeferredHealthCheck(createConnection999PercentCheck(dataSourceName)));
+        }
+
         return () -> checks;
     }
 
@@ -93,4 +109,13 @@ public class HikariCPHealthChecksFactory {
                 .flatMap(ds -> DataSourceUnwrapper.unwrap(ds, HikariDataSource.class))
                 .map(ds -> new Wait99PercentCheckFactory(connection99Percent).createHealthCheck(metricRegistry.get(), dataSourceName));
     }
-}
\ No newline at end of file
+
+    private Supplier<Optional<HealthCheck>> createConnection999PercentCheck(String dataSourceName) {
+        return () -> dataSourceFactory
+                .get()
+                .forNameIfStarted(dataSourceName)
+                .flatMap(ds -> DataSourceUnwrapper.unwrap(ds, HikariDataSource.class))
+                .map(ds -> new Wait99PercentCheckFactory(connection999Percent, 0.999, Wait999PercentCheck::new)
+                        .createHealthCheck(metricRegistry.get(), dataSourceName));
+    }
+}
@@ -29,20 +29,36 @@ import io.bootique.value.Duration;
 
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 class Wait99PercentCheckFactory {
 
     private final DurationRangeFactory thresholdsFactory;
+    private final double quantile;
+    private final BiFunction<ValueRange<Duration>, Supplier<Duration>, HealthCheck> checkMaker;
 
     public Wait99PercentCheckFactory(DurationRangeFactory thresholdsFactory) {
+        this(thresholdsFactory, 0.99, Wait99PercentCheck::new);
+    }
+
+    /**
+     * @param quantile a quantile of the "Wait" timer to check, e.g. 0.99 or 0.999
+     * @since 4.0
+     */
+    Wait99PercentCheckFactory(
+            DurationRangeFactory thresholdsFactory,
+            double quantile,
+            BiFunction<ValueRange<Duration>, Supplier<Duration>, HealthCheck> checkMaker) {
         this.thresholdsFactory = thresholdsFactory;
+        this.quantile = quantile;
+        this.checkMaker = checkMaker;
     }
 
     HealthCheck createHealthCheck(MetricRegistry registry, String dataSourceName) {
         Supplier<Duration> timerReader = getTimerReader(registry, dataSourceName);
         ValueRange<Duration> range = getRange();
-        return new Wait99PercentCheck(range, timerReader);
+        return checkMaker.apply(range, timerReader);
     }
 
     private ValueRange<Duration> getRange() {
@@ -60,11 +76,11 @@ class Wait99PercentCheckFactory {
 
     private Supplier<Duration> getTimerReader(MetricRegistry registry, String dataSourceName) {
         String metricName = HikariMetricsBridge.connectionWaitMetric(dataSourceName);
-        return () -> readConnection99Percent(registry, metricName);
+        return () -> readConnectionPercentile(registry, metricName);
     }
 
-    private Duration readConnection99Percent(MetricRegistry registry, String metricName) {
-        long nano = (long) findTimer(registry, metricName).getSnapshot().get99thPercentile();
+    private Duration readConnectionPercentile(MetricRegistry registry, String metricName) {
+        long nano = (long) findTimer(registry, metricName).getSnapshot().getValue(quantile);
 
         // intentionally losing precision here... Do we care to report nanoseconds??
         return new Duration(TimeUnit.NANOSECONDS.toMillis(nano));
@@ -19,16 +19,21 @@
 
 package io.bootique.jdbc.instrumented.hikaricp.managed;
 
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HdrHistogramsFactory;
+import io.bootique.jdbc.instrumented.hikaricp.sizing.AdaptivePoolSizingFactory;
 import io.bootique.jdbc.managed.ManagedDataSourceStarter;
 import io.bootique.metrics.health.HealthCheckGroup;
 
 import javax.sql.DataSource;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class InstrumentedManagedDataSourceStarter extends ManagedDataSourceStarter {
 
     private final HealthCheckGroup healthChecks;
+    private final HdrHistogramsFactory hdrHistograms;
+    private final AdaptivePoolSizingFactory adaptiveSizing;
 
     public InstrumentedManagedDataSourceStarter(
             Supplier<String> url,
@@ -36,11 +41,45 @@ public class InstrumentedManagedDataSourceStarter extends ManagedDataSourceStart
             Consumer<DataSource> shutdown,
             HealthCheckGroup healthChecks) {
 
+        this(url, startup, shutdown, healthChecks, null, null);
+    }
+
+    /**
+     * @since 4.0
+     */
+    public InstrumentedManagedDataSourceStarter(
+            Supplier<String> url,
+            Supplier<DataSource> startup,
+            Consumer<DataSource> shutdown,
+            HealthCheckGroup healthChecks,
+            HdrHistogramsFactory hdrHistograms,
+            AdaptivePoolSizingFactory adaptiveSizing) {
+
         super(url, startup, shutdown);
         this.healthChecks = healthChecks;
+        this.hdrHistograms = hdrHistograms;
+        this.adaptiveSizing = adaptiveSizing;
     }
 
     public HealthCheckGroup getHealthChecks() {
         return healthChecks;
     }
+
+    /**
+     * Returns a factory of HdrHistogram reservoirs for pool metrics, if those are enabled for this DataSource.
+     *
+     * @since 4.0
+     */
+    public Optional<HdrHistogramsFactory> getHdrHistograms() {
+        return hdrHistograms != null && hdrHistograms.isEnabled() ? Optional.of(hdrHistograms) : Optional.empty();
+    }
+
+    /**
+     * Returns a factory of the pool size controller, if adaptive sizing is enabled for this DataSource.
+     *
+     * @since 4.0
+     */
+    public Optional<AdaptivePoolSizingFactory> getAdaptiveSizing() {
+        return adaptiveSizing != null && adaptiveSizing.isEnabled() ? Optional.of(adaptiveSizing) : Optional.empty();
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free running total of connection checkouts and their usage time. Unlike a metrics histogram, it only grows,
+ * so any number of readers can calculate their own averages over their own intervals from the differences between
+ * successive reads, without affecting each other.
+ *
+ * @since 4.0
+ */
+public class ConnectionUsageAccumulator {
+
+    private final LongAdder count;
+    private final LongAdder totalMillis;
+
+    public ConnectionUsageAccumulator() {
+        this.count = new LongAdder();
+        this.totalMillis = new LongAdder();
+    }
+
+    public void record(long usageMillis) {
+        totalMillis.add(usageMillis);
+        count.increment();
+    }
+
+    /**
+     * Returns the total number of connection checkouts recorded so far.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the total time in milliseconds the connections were used by the callers.
+     */
+    public long getTotalMillis() {
+        return totalMillis.sum();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.metrics;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Duration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures HdrHistogram-based reservoirs for the pool "Wait", "Usage" and "ConnectionCreation" metrics.
+ *
+ * @since 4.0
+ */
+@BQConfig("Configures HdrHistogram-based pool metrics.")
+public class HdrHistogramsFactory {
+
+    private static final Duration DEFAULT_MAX_VALUE = new Duration("1h");
+    private static final Duration DEFAULT_INTERVAL = new Duration("1min");
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    private boolean enabled;
+    private Duration maxValue;
+    private int significantDigits;
+    private Duration interval;
+
+    public HdrHistogramsFactory() {
+        this.significantDigits = DEFAULT_SIGNIFICANT_DIGITS;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @BQConfigProperty("Whether to use HdrHistogram instead of the default reservoirs for pool wait, usage and " +
+            "connection creation metrics. The default is 'false'.")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @BQConfigProperty("Max tracked duration. Larger values are recorded as this value. The default is 1h.")
+    public void setMaxValue(Duration maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    @BQConfigProperty("Value precision as a number of significant decimal digits, from 0 to 5. Higher precision " +
+            "requires more memory. The default is 2.")
+    public void setSignificantDigits(int significantDigits) {
+        if (significantDigits < 0 || significantDigits > 5) {
+            throw new IllegalArgumentException("'significantDigits' must be between 0 and 5: " + significantDigits);
+        }
+
+        this.significantDigits = significantDigits;
+    }
+
+    @BQConfigProperty("Time interval covered by each metric snapshot. The default is 1min.")
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Creates a reservoir for the values in the specified units.
+     */
+    public HdrReservoir createReservoir(TimeUnit valueUnit) {
+
+        long maxNanos = (maxValue != null ? maxValue : DEFAULT_MAX_VALUE).getDuration().toNanos();
+        long intervalNanos = (interval != null ? interval : DEFAULT_INTERVAL).getDuration().toNanos();
+
+        // HdrHistogram requires the highest value to be at least twice the lowest (1)
+        long highestTrackableValue = Math.max(2, valueUnit.convert(maxNanos, TimeUnit.NANOSECONDS));
+        return new HdrReservoir(highestTrackableValue, significantDigits, intervalNanos);
+    }
+}
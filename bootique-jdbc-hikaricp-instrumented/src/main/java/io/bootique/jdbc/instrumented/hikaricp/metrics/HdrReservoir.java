@@ -0,0 +1,120 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A Dropwizard metrics {@link Reservoir} backed by an HdrHistogram {@link Recorder}. Unlike the default decaying
+ * reservoir, it uses fixed memory, is accurate at the far tail of the distribution, and doesn't allocate on
+ * {@link #update(long)}. Snapshots are taken over fixed wall-clock intervals: a snapshot reflects the values recorded
+ * during the last complete interval (or during the current interval, until the first one is complete). Taking a
+ * snapshot has no side effects, so any number of readers (reporters, health checks, pool sizers) see the same data.
+ *
+ * @since 4.0
+ */
+public class HdrReservoir implements Reservoir {
+
+    private final Recorder recorder;
+    private final long highestTrackableValue;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+
+    private final Histogram current;
+    private final Histogram lastInterval;
+    private Histogram recycled;
+    private boolean hasLastInterval;
+    private long intervalStart;
+    private volatile long nextRollover;
+
+    public HdrReservoir(long highestTrackableValue, int significantDigits, long intervalNanos) {
+        this(highestTrackableValue, significantDigits, intervalNanos, System::nanoTime);
+    }
+
+    protected HdrReservoir(long highestTrackableValue, int significantDigits, long intervalNanos, LongSupplier nanoClock) {
+        this.recorder = new Recorder(highestTrackableValue, significantDigits);
+        this.highestTrackableValue = highestTrackableValue;
+        this.intervalNanos = intervalNanos;
+        this.nanoClock = nanoClock;
+        this.current = new Histogram(highestTrackableValue, significantDigits);
+        this.lastInterval = new Histogram(highestTrackableValue, significantDigits);
+        this.intervalStart = nanoClock.getAsLong();
+        this.nextRollover = rolloverTime(intervalStart);
+    }
+
+    @Override
+    public synchronized int size() {
+        rollover(nanoClock.getAsLong());
+        return (int) (hasLastInterval ? lastInterval.getTotalCount() : current.getTotalCount());
+    }
+
+    @Override
+    public void update(long value) {
+
+        // roll over before recording, so that the value is not attributed to the interval that is already over
+        if (nanoClock.getAsLong() >= nextRollover) {
+            synchronized (this) {
+                rollover(nanoClock.getAsLong());
+            }
+        }
+
+        // out of range values would throw, so clamp them instead
+        recorder.recordValue(Math.min(Math.max(value, 0), highestTrackableValue));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        rollover(nanoClock.getAsLong());
+        return new HdrSnapshot(hasLastInterval ? lastInterval.copy() : current.copy());
+    }
+
+    // must be called while holding the lock
+    private void rollover(long now) {
+
+        recycled = recorder.getIntervalHistogram(recycled);
+        current.add(recycled);
+
+        if (now < nextRollover) {
+            return;
+        }
+
+        // intervals are aligned to the reservoir creation time. If more than one interval has passed since the last
+        // rollover, the last complete interval had no values
+        long intervals = (now - intervalStart) / intervalNanos;
+        lastInterval.reset();
+        if (intervals == 1) {
+            lastInterval.add(current);
+        }
+
+        current.reset();
+        hasLastInterval = true;
+        intervalStart += intervals * intervalNanos;
+        nextRollover = rolloverTime(intervalStart);
+    }
+
+    private long rolloverTime(long intervalStart) {
+        // an "infinite" interval must not overflow
+        return intervalStart + intervalNanos < intervalStart ? Long.MAX_VALUE : intervalStart + intervalNanos;
+    }
+}
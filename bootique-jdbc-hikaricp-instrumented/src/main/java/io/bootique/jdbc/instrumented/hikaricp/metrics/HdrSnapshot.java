@@ -0,0 +1,93 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Dropwizard metrics {@link Snapshot} over an HdrHistogram.
+ *
+ * @since 4.0
+ */
+public class HdrSnapshot extends Snapshot {
+
+    private final Histogram histogram;
+
+    public HdrSnapshot(Histogram histogram) {
+        this.histogram = histogram;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+        return histogram.getValueAtPercentile(quantile * 100.);
+    }
+
+    @Override
+    public long[] getValues() {
+        long[] values = new long[size()];
+        int i = 0;
+        for (HistogramIterationValue v : histogram.recordedValues()) {
+            long value = v.getValueIteratedTo();
+            for (long j = 0; j < v.getCountAddedInThisIterationStep() && i < values.length; j++) {
+                values[i++] = value;
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+        return histogram.getTotalCount() > 0 ? histogram.getMaxValue() : 0;
+    }
+
+    @Override
+    public double getMean() {
+        return histogram.getTotalCount() > 0 ? histogram.getMean() : 0.;
+    }
+
+    @Override
+    public long getMin() {
+        return histogram.getTotalCount() > 0 ? histogram.getMinValue() : 0;
+    }
+
+    @Override
+    public double getStdDev() {
+        return histogram.getTotalCount() > 0 ? histogram.getStdDeviation() : 0.;
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+        try (PrintWriter out = new PrintWriter(output, false, StandardCharsets.UTF_8)) {
+            for (long value : getValues()) {
+                out.println(value);
+            }
+        }
+    }
+}
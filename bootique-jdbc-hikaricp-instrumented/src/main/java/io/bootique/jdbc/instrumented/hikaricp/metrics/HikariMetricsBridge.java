@@ -37,15 +37,45 @@ public class HikariMetricsBridge implements IMetricsTracker {
     private final Histogram connectionUsage;
     private final Histogram connectionCreation;
     private final Meter connectionTimeoutMeter;
+    private final ConnectionUsageAccumulator usageAccumulator;
     private final MetricRegistry registry;
 
     public HikariMetricsBridge(String dataSourceName, PoolStats poolStats, MetricRegistry registry) {
+        this(dataSourceName, poolStats, registry, null, null);
+    }
+
+    /**
+     * @param hdrHistograms    optional factory of HdrHistogram reservoirs. If null, default reservoirs are used.
+     * @param usageAccumulator optional accumulator of connection usage in addition to the usage histogram
+     * @since 4.0
+     */
+    public HikariMetricsBridge(
+            String dataSourceName,
+            PoolStats poolStats,
+            MetricRegistry registry,
+            HdrHistogramsFactory hdrHistograms,
+            ConnectionUsageAccumulator usageAccumulator) {
+
         this.dataSourceName = dataSourceName;
         this.registry = registry;
+        this.usageAccumulator = usageAccumulator;
+
+        if (hdrHistograms != null) {
+            this.connectionWaitTimer = registry.timer(
+                    connectionWaitMetric(dataSourceName),
+                    () -> new Timer(hdrHistograms.createReservoir(TimeUnit.NANOSECONDS)));
+            this.connectionUsage = registry.histogram(
+                    connectionUsageMetric(dataSourceName),
+                    () -> new Histogram(hdrHistograms.createReservoir(TimeUnit.MILLISECONDS)));
+            this.connectionCreation = registry.histogram(
+                    connectionCreationMetric(dataSourceName),
+                    () -> new Histogram(hdrHistograms.createReservoir(TimeUnit.MILLISECONDS)));
+        } else {
+            this.connectionWaitTimer = registry.timer(connectionWaitMetric(dataSourceName));
+            this.connectionUsage = registry.histogram(connectionUsageMetric(dataSourceName));
+            this.connectionCreation = registry.histogram(connectionCreationMetric(dataSourceName));
+        }
 
-        this.connectionWaitTimer = registry.timer(connectionWaitMetric(dataSourceName));
-        this.connectionUsage = registry.histogram(connectionUsageMetric(dataSourceName));
-        this.connectionCreation = registry.histogram(connectionCreationMetric(dataSourceName));
         this.connectionTimeoutMeter = registry.meter(connectionTimeoutRateMetric(dataSourceName));
 
         registry.register(totalConnectionsMetric(dataSourceName), (Gauge<Integer>) poolStats::getTotalConnections);
@@ -86,6 +116,13 @@ public class HikariMetricsBridge implements IMetricsTracker {
         return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Pool", dataSourceName, "PendingConnections");
     }
 
+    /**
+     * @since 4.0
+     */
+    public static String warmupTimeMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Pool", dataSourceName, "WarmupTime");
+    }
+
     @Override
     public void close() {
         registry.remove(connectionWaitMetric(dataSourceName));
@@ -106,6 +143,9 @@ public class HikariMetricsBridge implements IMetricsTracker {
     @Override
     public void recordConnectionUsageMillis(final long elapsedBorrowedMillis) {
         connectionUsage.update(elapsedBorrowedMillis);
+        if (usageAccumulator != null) {
+            usageAccumulator.record(elapsedBorrowedMillis);
+        }
     }
 
     @Override
@@ -0,0 +1,201 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.sizing;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.ConnectionUsageAccumulator;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HikariMetricsBridge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically adjusts the size of a Hikari pool based on the observed connection checkout rate and usage time.
+ * Per Little's law, the number of connections in use on average is the checkout rate multiplied by the mean usage
+ * time. The pool is sized so that this number is at the configured target utilization. The pool grows immediately
+ * when callers are waiting for connections and shrinks gradually.
+ *
+ * @since 4.0
+ */
+public class AdaptivePoolSizer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    // max fraction of the pool that can be removed in a single step
+    private static final double MAX_SHRINK_RATIO = 0.25;
+
+    private final String dataSourceName;
+    private final HikariConfigMXBean poolConfig;
+    private final MetricRegistry metricRegistry;
+    private final ConnectionUsageAccumulator usage;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final double targetUtilization;
+    private final int configuredMinimumIdle;
+
+    private ScheduledExecutorService executor;
+
+    // usage totals as of the previous "resize" call
+    private long lastUsageCount;
+    private long lastUsageMillis;
+    private double meanUsageMs;
+
+    public AdaptivePoolSizer(
+            String dataSourceName,
+            HikariConfigMXBean poolConfig,
+            MetricRegistry metricRegistry,
+            ConnectionUsageAccumulator usage,
+            int minPoolSize,
+            int maxPoolSize,
+            double targetUtilization) {
+
+        this.dataSourceName = dataSourceName;
+        this.poolConfig = poolConfig;
+        this.metricRegistry = metricRegistry;
+        this.usage = usage;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.targetUtilization = targetUtilization;
+        this.configuredMinimumIdle = poolConfig.getMinimumIdle();
+    }
+
+    /**
+     * Calculates a new pool size.
+     *
+     * @param checkoutRate      connection checkouts per second
+     * @param meanUsageMs       mean time a connection is held by the caller, in milliseconds
+     * @param pending           number of callers currently waiting for a connection
+     * @param currentSize       current max pool size
+     * @param minSize           lower bound of the pool size
+     * @param maxSize           upper bound of the pool size
+     * @param targetUtilization target fraction of the pool in use on average
+     */
+    static int targetSize(
+            double checkoutRate,
+            double meanUsageMs,
+            int pending,
+            int currentSize,
+            int minSize,
+            int maxSize,
+            double targetUtilization) {
+
+        double inUse = checkoutRate * meanUsageMs / 1000.;
+        int target = (int) Math.ceil(inUse / targetUtilization);
+
+        if (pending > 0) {
+            target = Math.max(target, currentSize + pending);
+        } else if (target < currentSize) {
+            int maxShrink = Math.max(1, (int) Math.ceil(currentSize * MAX_SHRINK_RATIO));
+            target = Math.max(target, currentSize - maxShrink);
+        }
+
+        return Math.min(maxSize, Math.max(minSize, target));
+    }
+
+    public void start(long intervalMs) {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bootique-jdbc-sizer-" + dataSourceName);
+            t.setDaemon(true);
+            return t;
+        });
+
+        executor.scheduleWithFixedDelay(this::resizeSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Recalculates and applies a new pool size, returning the resulting max pool size.
+     */
+    int resize() {
+
+        int current = poolConfig.getMaximumPoolSize();
+
+        Timer wait = metricRegistry.getTimers().get(HikariMetricsBridge.connectionWaitMetric(dataSourceName));
+        Gauge<?> pending = metricRegistry.getGauges().get(HikariMetricsBridge.pendingConnectionsMetric(dataSourceName));
+
+        // metrics are not initialized yet
+        if (wait == null || pending == null) {
+            return current;
+        }
+
+        int target = targetSize(
+                wait.getOneMinuteRate(),
+                meanUsageMs(),
+                ((Number) pending.getValue()).intValue(),
+                current,
+                minPoolSize,
+                maxPoolSize,
+                targetUtilization);
+
+        if (target != current) {
+            LOGGER.info("Resizing DataSource '{}' pool from {} to {}", dataSourceName, current, target);
+
+            // shrink min idle first to never have it exceed the max
+            int minimumIdle = Math.min(configuredMinimumIdle, target);
+            if (target < current) {
+                poolConfig.setMinimumIdle(minimumIdle);
+                poolConfig.setMaximumPoolSize(target);
+            } else {
+                poolConfig.setMaximumPoolSize(target);
+                poolConfig.setMinimumIdle(minimumIdle);
+            }
+        }
+
+        return target;
+    }
+
+    // Mean usage of the connections returned since the previous call. Calculated from the dedicated accumulator
+    // instead of the usage histogram, as reading a histogram snapshot may have side effects on the other readers
+    private double meanUsageMs() {
+
+        // reading the count first, so that the total includes at least all the counted checkouts
+        long count = usage.getCount();
+        long totalMillis = usage.getTotalMillis();
+
+        // if no connections were returned since the last call, keep the previous mean
+        if (count > lastUsageCount) {
+            meanUsageMs = (double) (totalMillis - lastUsageMillis) / (count - lastUsageCount);
+            lastUsageCount = count;
+            lastUsageMillis = totalMillis;
+        }
+
+        return meanUsageMs;
+    }
+
+    private void resizeSafely() {
+        try {
+            resize();
+        } catch (RuntimeException e) {
+            // an exception would cancel the scheduled task, so catching it
+            LOGGER.warn("Error resizing DataSource '{}' pool", dataSourceName, e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.sizing;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.ConnectionUsageAccumulator;
+import io.bootique.value.Duration;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Adjusts Hikari pool size at runtime based on the observed connection wait and usage metrics.")
+public class AdaptivePoolSizingFactory {
+
+    private static final Duration DEFAULT_INTERVAL = new Duration("30s");
+    private static final double DEFAULT_TARGET_UTILIZATION = 0.75;
+
+    private boolean enabled;
+    private int minPoolSize;
+    private int maxPoolSize;
+    private Duration interval;
+    private double targetUtilization;
+
+    public AdaptivePoolSizingFactory() {
+        this.minPoolSize = 1;
+        this.targetUtilization = DEFAULT_TARGET_UTILIZATION;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @BQConfigProperty("Whether to resize the pool at runtime. The default is 'false'.")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @BQConfigProperty("The smallest pool size the pool can shrink to. The default is 1.")
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    @BQConfigProperty("The largest pool size the pool can grow to. If not set, the configured 'maximumPoolSize' is used.")
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    @BQConfigProperty("How often the pool size is recalculated. The default is 30s.")
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    @BQConfigProperty("Target fraction of the pool connections in use on average, between 0 and 1. The lower the value, " +
+            "the more spare connections the pool keeps. The default is 0.75.")
+    public void setTargetUtilization(double targetUtilization) {
+        this.targetUtilization = targetUtilization;
+    }
+
+    public AdaptivePoolSizer createSizer(
+            String dataSourceName,
+            HikariConfigMXBean poolConfig,
+            MetricRegistry metricRegistry,
+            ConnectionUsageAccumulator usage) {
+
+        int max = maxPoolSize > 0 ? maxPoolSize : poolConfig.getMaximumPoolSize();
+        if (minPoolSize < 1 || minPoolSize > max) {
+            throw new IllegalStateException("Invalid pool size bounds for DataSource '" + dataSourceName + "': "
+                    + minPoolSize + ".." + max);
+        }
+
+        if (targetUtilization <= 0 || targetUtilization > 1) {
+            throw new IllegalStateException("'targetUtilization' must be in the (0, 1] range: " + targetUtilization);
+        }
+
+        return new AdaptivePoolSizer(
+                dataSourceName,
+                poolConfig,
+                metricRegistry,
+                usage,
+                minPoolSize,
+                max,
+                targetUtilization);
+    }
+
+    /**
+     * Creates and starts a sizer.
+     */
+    public AdaptivePoolSizer startSizer(
+            String dataSourceName,
+            HikariConfigMXBean poolConfig,
+            MetricRegistry metricRegistry,
+            ConnectionUsageAccumulator usage) {
+
+        AdaptivePoolSizer sizer = createSizer(dataSourceName, poolConfig, metricRegistry, usage);
+        sizer.start((interval != null ? interval : DEFAULT_INTERVAL).getDuration().toMillis());
+        return sizer;
+    }
+}
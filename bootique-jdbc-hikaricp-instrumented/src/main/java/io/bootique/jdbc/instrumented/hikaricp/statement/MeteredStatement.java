@@ -0,0 +1,538 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * A JDBC {@link Statement} wrapper that records statement executions with a {@link StatementRecorder}.
+ *
+ * @since 4.0
+ */
+class MeteredStatement<S extends Statement> implements Statement {
+
+    protected final S delegate;
+    private final Connection connection;
+    private final StatementRecorder recorder;
+
+    private String sql;
+    private QueryMetrics queryMetrics;
+
+    MeteredStatement(S delegate, Connection connection, StatementRecorder recorder, String sql) {
+        this.delegate = delegate;
+        this.connection = connection;
+        this.recorder = recorder;
+        setSql(sql);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        ResultSet result;
+        try {
+            result = delegate.executeQuery(sql);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0);
+        return resultSet(result);
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        int result;
+        try {
+            result = delegate.executeUpdate(sql);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        delegate.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        delegate.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        delegate.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        delegate.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        delegate.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        delegate.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        boolean result;
+        try {
+            result = delegate.execute(sql);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0);
+        return result;
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return resultSet(delegate.getResultSet());
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        delegate.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        delegate.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        if (this.sql == null) {
+            setSql(sql);
+        }
+
+        delegate.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        long t0 = System.nanoTime();
+        int[] result;
+        try {
+            result = delegate.executeBatch();
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, batchRows(result));
+        return result;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return delegate.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        int result;
+        try {
+            result = delegate.executeUpdate(sql, autoGeneratedKeys);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        int result;
+        try {
+            result = delegate.executeUpdate(sql, columnIndexes);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        int result;
+        try {
+            result = delegate.executeUpdate(sql, columnNames);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        boolean result;
+        try {
+            result = delegate.execute(sql, autoGeneratedKeys);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0);
+        return result;
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        boolean result;
+        try {
+            result = delegate.execute(sql, columnIndexes);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0);
+        return result;
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        boolean result;
+        try {
+            result = delegate.execute(sql, columnNames);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0);
+        return result;
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        delegate.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        delegate.setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        long t0 = System.nanoTime();
+        long[] result;
+        try {
+            result = delegate.executeLargeBatch();
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, batchRows(result));
+        return result;
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        long result;
+        try {
+            result = delegate.executeLargeUpdate(sql);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        long result;
+        try {
+            result = delegate.executeLargeUpdate(sql, autoGeneratedKeys);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        long result;
+        try {
+            result = delegate.executeLargeUpdate(sql, columnIndexes);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        setSql(sql);
+        long t0 = System.nanoTime();
+        long result;
+        try {
+            result = delegate.executeLargeUpdate(sql, columnNames);
+        } catch (SQLException | RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        executed(t0, result);
+        return result;
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return delegate.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return delegate.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return delegate.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return delegate.enquoteNCharLiteral(val);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    // for PreparedStatements the SQL is known upfront, for Statements it is taken from the executed SQL
+    protected void setSql(String sql) {
+        this.sql = sql;
+        this.queryMetrics = recorder.queryMetrics(sql);
+    }
+
+    protected void executed(long t0) {
+        recorder.executed(sql, queryMetrics, System.nanoTime() - t0);
+    }
+
+    protected void executed(long t0, long rows) {
+        executed(t0);
+        if (queryMetrics != null) {
+            queryMetrics.recordRows(rows);
+        }
+    }
+
+    protected void failed() {
+        recorder.failed(queryMetrics);
+    }
+
+    protected ResultSet resultSet(ResultSet resultSet) {
+        return resultSet != null && queryMetrics != null
+                ? new MeteredResultSet(resultSet, this, queryMetrics)
+                : resultSet;
+    }
+
+    private static long batchRows(int[] counts) {
+        long rows = 0;
+        for (int c : counts) {
+            rows += Math.max(c, 0);
+        }
+        return rows;
+    }
+
+    private static long batchRows(long[] counts) {
+        long rows = 0;
+        for (long c : counts) {
+            rows += Math.max(c, 0);
+        }
+        return rows;
+    }
+}
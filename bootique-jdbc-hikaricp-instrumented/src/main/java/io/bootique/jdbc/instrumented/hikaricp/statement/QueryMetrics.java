@@ -0,0 +1,76 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a single SQL "shape" (fingerprint) within a DataSource.
+ *
+ * @since 4.0
+ */
+public class QueryMetrics {
+
+    private final String fingerprint;
+    private final Timer time;
+    private final Histogram rows;
+    private final Meter errors;
+
+    public QueryMetrics(String fingerprint, Timer time, Histogram rows, Meter errors) {
+        this.fingerprint = fingerprint;
+        this.time = time;
+        this.rows = rows;
+        this.errors = errors;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Timer getTime() {
+        return time;
+    }
+
+    public Histogram getRows() {
+        return rows;
+    }
+
+    public Meter getErrors() {
+        return errors;
+    }
+
+    void recordTime(long nanos) {
+        time.update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordRows(long count) {
+        // drivers may return negative counts, e.g. Statement.SUCCESS_NO_INFO
+        if (count >= 0) {
+            rows.update(count);
+        }
+    }
+
+    void recordError() {
+        errors.mark();
+    }
+}
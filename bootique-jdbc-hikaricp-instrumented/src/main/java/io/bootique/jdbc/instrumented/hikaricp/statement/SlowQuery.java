@@ -0,0 +1,43 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An entry in the {@link SlowQueryLog}.
+ *
+ * @param sequence  the position of the entry in the log, counting from the log creation
+ * @param timestamp statement completion time in milliseconds since epoch
+ * @param sql       executed SQL
+ * @param nanos     statement execution time
+ * @param slow      true if the statement exceeded the threshold, false if it was randomly sampled
+ * @since 4.0
+ */
+public record SlowQuery(long sequence, long timestamp, String sql, long nanos, boolean slow) {
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp)
+                + " " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms"
+                + (slow ? "" : " (sampled)")
+                + " " + sql;
+    }
+}
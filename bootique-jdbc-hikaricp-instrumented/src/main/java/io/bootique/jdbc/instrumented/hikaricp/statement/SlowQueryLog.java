@@ -0,0 +1,188 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.bootique.jdbc.instrumented.hikaricp.JdbcHikariCPInstrumentedModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A log of a single DataSource statements that took longer than a threshold, plus an optional random sample of all
+ * statements. Stored in a fixed-size lock-free ring buffer, so the newest entries overwrite the oldest ones. Statements
+ * that are neither slow nor sampled are not allocating anything.
+ *
+ * @since 4.0
+ */
+public class SlowQueryLog implements SlowQueryLogMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final String dataSourceName;
+    private final long thresholdNanos;
+    private final int sampleOneIn;
+    private final AtomicReferenceArray<SlowQuery> buffer;
+    private final int mask;
+    private final AtomicLong sequence;
+    private final MetricRegistry metricRegistry;
+    private final Meter slowQueries;
+    private volatile boolean registered;
+
+    /**
+     * @param thresholdNanos statements that took this long or longer are logged
+     * @param sampleOneIn    if positive, one in this many statements is logged regardless of its execution time
+     * @param capacity       max number of entries in the log. Rounded up to the nearest power of 2.
+     */
+    public SlowQueryLog(
+            String dataSourceName,
+            long thresholdNanos,
+            int sampleOneIn,
+            int capacity,
+            MetricRegistry metricRegistry) {
+
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.dataSourceName = dataSourceName;
+        this.thresholdNanos = thresholdNanos;
+        this.sampleOneIn = sampleOneIn;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.sequence = new AtomicLong();
+        this.metricRegistry = metricRegistry;
+        this.slowQueries = metricRegistry.meter(slowQueriesMetric(dataSourceName));
+    }
+
+    public static String slowQueriesMetric(String dataSourceName) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Query", dataSourceName, "SlowQueries");
+    }
+
+    public static ObjectName objectName(String dataSourceName) {
+        try {
+            return new ObjectName("io.bootique.jdbc:type=SlowQueryLog,name=" + ObjectName.quote(dataSourceName));
+        } catch (JMException e) {
+            throw new RuntimeException("Invalid JMX name for DataSource '" + dataSourceName + "'", e);
+        }
+    }
+
+    public void record(String sql, long nanos) {
+
+        boolean slow = nanos >= thresholdNanos;
+        if (!slow && (sampleOneIn <= 0 || ThreadLocalRandom.current().nextInt(sampleOneIn) != 0)) {
+            return;
+        }
+
+        if (slow) {
+            slowQueries.mark();
+        }
+
+        long seq = sequence.getAndIncrement();
+        buffer.set((int) (seq & mask), new SlowQuery(seq, System.currentTimeMillis(), sql, nanos, slow));
+    }
+
+    /**
+     * Returns a snapshot of the log contents, oldest entries first.
+     */
+    public List<SlowQuery> getEntries() {
+        int len = buffer.length();
+        List<SlowQuery> entries = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            SlowQuery q = buffer.get(i);
+            if (q != null) {
+                entries.add(q);
+            }
+        }
+
+        entries.sort(Comparator.comparingLong(SlowQuery::sequence));
+        return entries;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    @Override
+    public long getThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    @Override
+    public String[] getQueries() {
+        return getEntries().stream().map(SlowQuery::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+
+    public void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = objectName(dataSourceName);
+        try {
+            server.registerMBean(this, name);
+            registered = true;
+        } catch (InstanceAlreadyExistsException e) {
+            LOGGER.warn("Slow query log MBean '{}' is already registered, likely by another app in the same JVM. "
+                    + "The log for DataSource '{}' will not be available via JMX", name, dataSourceName);
+        } catch (JMException e) {
+            throw new RuntimeException("Error registering slow query log MBean for DataSource '" + dataSourceName + "'", e);
+        }
+    }
+
+    public void unregisterMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = objectName(dataSourceName);
+        try {
+            // do not unregister someone else's MBean that took the name first
+            if (registered && server.isRegistered(name)) {
+                server.unregisterMBean(name);
+                registered = false;
+            }
+        } catch (JMException e) {
+            // ignore, as this is called on shutdown
+        }
+    }
+
+    void close() {
+        unregisterMBean();
+        metricRegistry.remove(slowQueriesMetric(dataSourceName));
+    }
+}
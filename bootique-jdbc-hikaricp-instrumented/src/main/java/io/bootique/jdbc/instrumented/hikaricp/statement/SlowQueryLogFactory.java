@@ -0,0 +1,82 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.MetricRegistry;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Duration;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Configures a log of slow statements of a DataSource.")
+public class SlowQueryLogFactory {
+
+    private static final Duration DEFAULT_THRESHOLD = new Duration("1s");
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private boolean enabled;
+    private Duration threshold;
+    private int sampleOneIn;
+    private int capacity;
+
+    public SlowQueryLogFactory() {
+        this.capacity = DEFAULT_CAPACITY;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @BQConfigProperty("Whether to keep a log of slow statements. The default is 'false'.")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @BQConfigProperty("Statements that take this long or longer are added to the log. The default is 1s.")
+    public void setThreshold(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @BQConfigProperty("If set to a positive N, one in N statements is added to the log regardless of its execution " +
+            "time. The default is 0, i.e. no sampling.")
+    public void setSampleOneIn(int sampleOneIn) {
+        if (sampleOneIn < 0) {
+            throw new IllegalArgumentException("Negative 'sampleOneIn': " + sampleOneIn);
+        }
+
+        this.sampleOneIn = sampleOneIn;
+    }
+
+    @BQConfigProperty("Max number of statements kept in the log. The oldest entries are overwritten by the new ones. " +
+            "The default is 128.")
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("'capacity' must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+    }
+
+    public SlowQueryLog createLog(String dataSourceName, MetricRegistry metricRegistry) {
+        long thresholdNanos = (threshold != null ? threshold : DEFAULT_THRESHOLD).getDuration().toNanos();
+        return new SlowQueryLog(dataSourceName, thresholdNanos, sampleOneIn, capacity, metricRegistry);
+    }
+}
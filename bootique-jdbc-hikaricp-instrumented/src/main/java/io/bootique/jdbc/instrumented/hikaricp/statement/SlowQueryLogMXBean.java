@@ -0,0 +1,47 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+/**
+ * JMX view of a {@link SlowQueryLog}.
+ *
+ * @since 4.0
+ */
+public interface SlowQueryLogMXBean {
+
+    String getDataSourceName();
+
+    long getThresholdMs();
+
+    /**
+     * Returns the queries currently in the log, oldest first, as strings.
+     */
+    String[] getQueries();
+
+    /**
+     * Returns the total number of queries added to the log since it was created, including those that were already
+     * overwritten or cleared.
+     */
+    long getRecordedCount();
+
+    /**
+     * Removes all the queries from the log. Does not reset the {@link #getRecordedCount() recorded count}.
+     */
+    void clear();
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes SQL text into a "shape" that doesn't depend on literal values, so that statements differing only in
+ * parameters are counted together. Literals are replaced with "?", comments are stripped, whitespace is collapsed,
+ * the text is converted to lowercase, and the lists of placeholders are collapsed to a single one.
+ *
+ * @since 4.0
+ */
+class SqlFingerprint {
+
+    // "(?, ?, ?)" -> "(?)"
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+
+    // "(?), (?), (?)" -> "(?)"
+    private static final Pattern VALUES_LIST = Pattern.compile("\\(\\?\\)(?:, ?\\(\\?\\))+");
+
+    static String normalize(String sql) {
+
+        int len = sql.length();
+        StringBuilder out = new StringBuilder(len);
+
+        int i = 0;
+        while (i < len) {
+            char c = sql.charAt(i);
+
+            // line comment
+            if (c == '-' && i + 1 < len && sql.charAt(i + 1) == '-') {
+                i = skipTo(sql, i + 2, "\n");
+                space(out);
+                continue;
+            }
+
+            // block comment
+            if (c == '/' && i + 1 < len && sql.charAt(i + 1) == '*') {
+                i = skipTo(sql, i + 2, "*/");
+                space(out);
+                continue;
+            }
+
+            // string literal, with '' as an escaped quote
+            if (c == '\'') {
+                i++;
+                while (i < len) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < len && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+                continue;
+            }
+
+            // quoted identifier, preserved as is
+            if (c == '"' || c == '`') {
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? len : end + 1;
+                out.append(sql, i, end);
+                i = end;
+                continue;
+            }
+
+            // numeric literal, unless it is a part of an identifier
+            if (Character.isDigit(c) && !isIdentifierChar(last(out))) {
+                while (i < len && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+                continue;
+            }
+
+            if (Character.isWhitespace(c)) {
+                space(out);
+                i++;
+                continue;
+            }
+
+            // no space between the punctuation and the following token
+            if ((c == ',' || c == ')') && last(out) == ' ') {
+                out.setLength(out.length() - 1);
+            }
+
+            out.append(Character.toLowerCase(c));
+            if (c == '(') {
+                i = skipWhitespace(sql, i + 1);
+                continue;
+            }
+
+            i++;
+        }
+
+        String normalized = out.toString().trim();
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?)");
+        return VALUES_LIST.matcher(normalized).replaceAll("(?)");
+    }
+
+    private static int skipTo(String sql, int from, String terminator) {
+        int end = sql.indexOf(terminator, from);
+        return end < 0 ? sql.length() : end + terminator.length();
+    }
+
+    private static int skipWhitespace(String sql, int from) {
+        int i = from;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void space(StringBuilder out) {
+        char last = last(out);
+        if (last != ' ' && last != '(' && last != 0) {
+            out.append(' ');
+        }
+    }
+
+    private static char last(StringBuilder out) {
+        return out.isEmpty() ? 0 : out.charAt(out.length() - 1);
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.bootique.jdbc.instrumented.hikaricp.JdbcHikariCPInstrumentedModule;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-DataSource registry of statement metrics, grouped by SQL fingerprint. The number of fingerprints is bounded.
+ * Once the limit is reached, all new SQL shapes are counted under a single "other" fingerprint.
+ *
+ * @since 4.0
+ */
+public class StatementMetrics {
+
+    public static final String OTHER_FINGERPRINT = "other";
+
+    private final String dataSourceName;
+    private final MetricRegistry registry;
+    private final int maxFingerprints;
+
+    // caches raw SQL to avoid normalizing the same statement text over and over
+    private final ConcurrentMap<String, QueryMetrics> bySql;
+    private final ConcurrentMap<String, QueryMetrics> byFingerprint;
+    private final QueryMetrics other;
+
+    public StatementMetrics(String dataSourceName, MetricRegistry registry, int maxFingerprints) {
+        this.dataSourceName = dataSourceName;
+        this.registry = registry;
+        this.maxFingerprints = maxFingerprints;
+        this.bySql = new ConcurrentHashMap<>();
+        this.byFingerprint = new ConcurrentHashMap<>();
+        this.other = createMetrics(OTHER_FINGERPRINT, OTHER_FINGERPRINT);
+    }
+
+    public static String timeMetric(String dataSourceName, String fingerprintId) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Query", dataSourceName, fingerprintId, "Time");
+    }
+
+    public static String rowsMetric(String dataSourceName, String fingerprintId) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Query", dataSourceName, fingerprintId, "Rows");
+    }
+
+    public static String errorsMetric(String dataSourceName, String fingerprintId) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Query", dataSourceName, fingerprintId, "Errors");
+    }
+
+    public static String sqlMetric(String dataSourceName, String fingerprintId) {
+        return JdbcHikariCPInstrumentedModule.METRIC_NAMING.name("Query", dataSourceName, fingerprintId, "Sql");
+    }
+
+    /**
+     * Returns a short stable id of the fingerprint used in the metric names instead of the full SQL text.
+     */
+    public static String fingerprintId(String fingerprint) {
+
+        if (OTHER_FINGERPRINT.equals(fingerprint)) {
+            return OTHER_FINGERPRINT;
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-1 is not supported", e);
+        }
+    }
+
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    public QueryMetrics forSql(String sql) {
+
+        QueryMetrics metrics = bySql.get(sql);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        metrics = forFingerprint(SqlFingerprint.normalize(sql));
+
+        // many distinct SQL strings may map to the same fingerprint, so bound the cache separately
+        if (bySql.size() < maxFingerprints * 4) {
+            bySql.putIfAbsent(sql, metrics);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Unregisters all metrics of this DataSource.
+     */
+    public void close() {
+        bySql.clear();
+        byFingerprint.values().forEach(this::removeMetrics);
+        byFingerprint.clear();
+        removeMetrics(other);
+    }
+
+    private QueryMetrics forFingerprint(String fingerprint) {
+
+        QueryMetrics metrics = byFingerprint.get(fingerprint);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        // the bound is approximate, as a few concurrent callers may go over it
+        if (byFingerprint.size() >= maxFingerprints) {
+            return other;
+        }
+
+        return byFingerprint.computeIfAbsent(fingerprint, fp -> createMetrics(fp, fingerprintId(fp)));
+    }
+
+    private QueryMetrics createMetrics(String fingerprint, String id) {
+        registry.gauge(sqlMetric(dataSourceName, id), () -> (Gauge<String>) () -> fingerprint);
+        return new QueryMetrics(
+                fingerprint,
+                registry.timer(timeMetric(dataSourceName, id)),
+                registry.histogram(rowsMetric(dataSourceName, id)),
+                registry.meter(errorsMetric(dataSourceName, id)));
+    }
+
+    private void removeMetrics(QueryMetrics metrics) {
+        String id = fingerprintId(metrics.getFingerprint());
+        registry.remove(timeMetric(dataSourceName, id));
+        registry.remove(rowsMetric(dataSourceName, id));
+        registry.remove(errorsMetric(dataSourceName, id));
+        registry.remove(sqlMetric(dataSourceName, id));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * A DataSource wrapper that collects per-statement metrics and/or a slow query log for all the connections it returns.
+ *
+ * @since 4.0
+ */
+public class StatementMetricsDataSource implements DataSource, AutoCloseable {
+
+    private final DataSource delegate;
+    private final StatementMetrics metrics;
+    private final SlowQueryLog slowQueryLog;
+    private final StatementRecorder recorder;
+
+    /**
+     * @param delegate     wrapped DataSource
+     * @param metrics      per-statement metrics. May be null.
+     * @param slowQueryLog slow query log. May be null.
+     */
+    public StatementMetricsDataSource(DataSource delegate, StatementMetrics metrics, SlowQueryLog slowQueryLog) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.slowQueryLog = slowQueryLog;
+        this.recorder = new StatementRecorder(metrics, slowQueryLog);
+    }
+
+    public Optional<StatementMetrics> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    public Optional<SlowQueryLog> getSlowQueryLog() {
+        return Optional.ofNullable(slowQueryLog);
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (delegate instanceof AutoCloseable ac) {
+                ac.close();
+            }
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new MeteredConnection(delegate.getConnection(), recorder);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return new MeteredConnection(delegate.getConnection(username, password), recorder);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.MetricRegistry;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Configures per-statement metrics of a DataSource.")
+public class StatementMetricsFactory {
+
+    private static final int DEFAULT_MAX_FINGERPRINTS = 100;
+
+    private boolean enabled;
+    private int maxFingerprints;
+
+    public StatementMetricsFactory() {
+        this.maxFingerprints = DEFAULT_MAX_FINGERPRINTS;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @BQConfigProperty("Whether to collect execution time, row count and error metrics for each distinct SQL " +
+            "statement shape. The default is 'false'.")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @BQConfigProperty("Max number of distinct SQL statement shapes to track per DataSource. Statements beyond this " +
+            "limit are counted under the 'other' shape. The default is 100.")
+    public void setMaxFingerprints(int maxFingerprints) {
+        if (maxFingerprints < 1) {
+            throw new IllegalArgumentException("'maxFingerprints' must be positive: " + maxFingerprints);
+        }
+
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    public StatementMetrics createMetrics(String dataSourceName, MetricRegistry metricRegistry) {
+        return new StatementMetrics(dataSourceName, metricRegistry, maxFingerprints);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+/**
+ * Dispatches statement execution events from JDBC wrappers to the enabled collectors. Either of the collectors may be
+ * null.
+ *
+ * @since 4.0
+ */
+class StatementRecorder {
+
+    private final StatementMetrics metrics;
+    private final SlowQueryLog slowQueryLog;
+
+    StatementRecorder(StatementMetrics metrics, SlowQueryLog slowQueryLog) {
+        this.metrics = metrics;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    QueryMetrics queryMetrics(String sql) {
+        return metrics != null && sql != null ? metrics.forSql(sql) : null;
+    }
+
+    void executed(String sql, QueryMetrics queryMetrics, long nanos) {
+        if (queryMetrics != null) {
+            queryMetrics.recordTime(nanos);
+        }
+
+        if (slowQueryLog != null && sql != null) {
+            slowQueryLog.record(sql, nanos);
+        }
+    }
+
+    void failed(QueryMetrics queryMetrics) {
+        if (queryMetrics != null) {
+            queryMetrics.recordError();
+        }
+    }
+
+    void close() {
+        if (metrics != null) {
+            metrics.close();
+        }
+
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+    }
+}
@@ -22,8 +22,11 @@ package io.bootique.jdbc.instrumented.hikaricp;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariDataSource;
 import io.bootique.BQRuntime;
+import io.bootique.jdbc.AdmissionRejectedException;
 import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HdrSnapshot;
 import io.bootique.jdbc.instrumented.hikaricp.metrics.HikariMetricsBridge;
 import io.bootique.junit.BQTest;
 import io.bootique.junit.BQTestFactory;
@@ -32,6 +35,8 @@ import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.concurrent.TimeUnit;
 
@@ -106,5 +111,135 @@ public class MetricsIT {
                 .until(() -> usage.getSnapshot().getMax() > 0);
     }
 
+    @Test
+    public void usageMetric_HdrHistograms() throws SQLException, InterruptedException {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/MetricsIT_hdr.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        String dsName = "db";
+
+        MetricRegistry registry = runtime.getInstance(MetricRegistry.class);
+        DataSource ds = runtime.getInstance(DataSourceFactory.class).forName(dsName);
+
+        Histogram usage = registry.getHistograms().get(HikariMetricsBridge.connectionUsageMetric(dsName));
+        assertNotNull(usage);
+        assertInstanceOf(HdrSnapshot.class, usage.getSnapshot());
+        assertInstanceOf(HdrSnapshot.class, registry.getTimers().get(HikariMetricsBridge.connectionWaitMetric(dsName)).getSnapshot());
+
+        for (int i = 0; i < 10; i++) {
+            try (Connection c = ds.getConnection()) {
+                Thread.sleep(2);
+            }
+        }
+
+        await("usage")
+                .atMost(1200, TimeUnit.MILLISECONDS)
+                .until(() -> usage.getSnapshot().getMax() > 0);
+    }
+
+    @Test
+    public void admissionMetrics() throws SQLException {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/MetricsIT_admission.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        String dsName = "db";
+
+        MetricRegistry registry = runtime.getInstance(MetricRegistry.class);
+        DataSource ds = runtime.getInstance(DataSourceFactory.class).forName(dsName);
+
+        Gauge<Long> rejected = registry.getGauges().get(HikariCPMetricsInitializer.admissionRejectedMetric(dsName));
+        Gauge<Integer> active = registry.getGauges().get(HikariCPMetricsInitializer.admissionActiveMetric(dsName));
+        assertNotNull(rejected);
+        assertNotNull(active);
+
+        try (Connection c = ds.getConnection()) {
+            assertEquals(1, active.getValue());
+            assertThrows(AdmissionRejectedException.class, ds::getConnection);
+        }
+
+        assertEquals(0, active.getValue());
+        assertEquals(1L, rejected.getValue());
+    }
+
+    @Test
+    public void statementCacheMetrics() throws SQLException {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/MetricsIT_statementcache.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        String dsName = "db";
+
+        MetricRegistry registry = runtime.getInstance(MetricRegistry.class);
+        DataSource ds = runtime.getInstance(DataSourceFactory.class).forName(dsName);
+
+        Gauge<Long> hits = registry.getGauges().get(HikariCPMetricsInitializer.statementCacheHitsMetric(dsName));
+        Gauge<Long> misses = registry.getGauges().get(HikariCPMetricsInitializer.statementCacheMissesMetric(dsName));
+        assertNotNull(hits);
+        assertNotNull(misses);
+
+        // the statement must be reused across pool checkouts of the same physical connection
+        for (int i = 0; i < 3; i++) {
+            try (Connection c = ds.getConnection();
+                 PreparedStatement st = c.prepareStatement("VALUES 1");
+                 ResultSet rs = st.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+        }
+
+        assertEquals(1L, misses.getValue());
+        assertEquals(2L, hits.getValue());
+    }
+
+    @Test
+    public void warmupMetric() {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/MetricsIT_warmup.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        String dsName = "db";
+
+        MetricRegistry registry = runtime.getInstance(MetricRegistry.class);
+        assertNull(registry.getGauges().get(HikariMetricsBridge.warmupTimeMetric(dsName)));
+
+        runtime.getInstance(DataSourceFactory.class).forName(dsName);
+
+        Gauge<Long> warmupTime = registry.getGauges().get(HikariMetricsBridge.warmupTimeMetric(dsName));
+        assertNotNull(warmupTime);
+        assertTrue(warmupTime.getValue() >= 0);
+
+        runtime.shutdown();
+        assertNull(registry.getGauges().get(HikariMetricsBridge.warmupTimeMetric(dsName)));
+    }
+
+    @Test
+    public void adaptiveSizing() {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/MetricsIT_sizing.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        DataSource ds = runtime.getInstance(DataSourceFactory.class).forName("db");
+        HikariDataSource hds = assertInstanceOf(HikariDataSource.class, ds);
+        assertEquals(10, hds.getHikariConfigMXBean().getMaximumPoolSize());
+
+        // an idle pool is expected to shrink to the min size
+        await("shrink")
+                .atMost(5, TimeUnit.SECONDS)
+                .until(() -> hds.getHikariConfigMXBean().getMaximumPoolSize(), equalTo(2));
+        assertEquals(2, hds.getHikariConfigMXBean().getMinimumIdle());
+    }
+
     // TODO: we can't effectively check "wait" metric? Checkout time is normally < 1ms and Hikari uses millisecond clock on MacOS.
 }
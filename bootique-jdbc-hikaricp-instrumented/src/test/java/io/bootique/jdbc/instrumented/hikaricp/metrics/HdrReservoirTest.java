@@ -0,0 +1,114 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HdrReservoirTest {
+
+    @Test
+    public void getSnapshot() {
+        HdrReservoir reservoir = new HdrReservoir(1_000_000, 3, Long.MAX_VALUE);
+
+        for (int i = 1; i <= 1000; i++) {
+            reservoir.update(i);
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(1000, snapshot.size());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500, snapshot.getMedian(), 1.);
+        assertEquals(990, snapshot.get99thPercentile(), 1.);
+        assertEquals(999, snapshot.get999thPercentile(), 1.);
+        assertEquals(1000, snapshot.getValues().length);
+    }
+
+    @Test
+    public void update_OutOfRange() {
+        HdrReservoir reservoir = new HdrReservoir(1000, 2, Long.MAX_VALUE);
+
+        reservoir.update(-5);
+        reservoir.update(1_000_000);
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(1000, snapshot.getMax(), 10);
+    }
+
+    @Test
+    public void getSnapshot_Interval() {
+        AtomicLong clock = new AtomicLong();
+        HdrReservoir reservoir = new HdrReservoir(1000, 2, 100, clock::get);
+
+        reservoir.update(10);
+        assertEquals(10, reservoir.getSnapshot().getMax());
+
+        reservoir.update(20);
+        clock.set(100);
+
+        // the first interval is complete
+        Snapshot s1 = reservoir.getSnapshot();
+        assertEquals(2, s1.size());
+        assertEquals(20, s1.getMax());
+
+        // the values from the current interval are not visible until it is complete
+        reservoir.update(30);
+        assertEquals(20, reservoir.getSnapshot().getMax());
+
+        clock.set(200);
+        Snapshot s2 = reservoir.getSnapshot();
+        assertEquals(1, s2.size());
+        assertEquals(30, s2.getMax());
+    }
+
+    @Test
+    public void getSnapshot_NoSideEffects() {
+        AtomicLong clock = new AtomicLong();
+        HdrReservoir reservoir = new HdrReservoir(1000, 2, 100, clock::get);
+
+        reservoir.update(10);
+        clock.set(150);
+
+        // the value recorded after the interval end belongs to the next interval, even if nobody read the reservoir
+        reservoir.update(20);
+
+        // repeated reads within the same interval must all see the same data
+        for (int i = 0; i < 3; i++) {
+            Snapshot s = reservoir.getSnapshot();
+            assertEquals(1, s.size());
+            assertEquals(10, s.getMax());
+            assertEquals(1, reservoir.size());
+        }
+
+        // intervals are aligned to the wall clock, so the next one ends at 200, not at 250
+        clock.set(200);
+        assertEquals(20, reservoir.getSnapshot().getMax());
+
+        // no values were recorded during the last complete interval
+        clock.set(400);
+        assertEquals(0, reservoir.getSnapshot().size());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.sizing;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.zaxxer.hikari.HikariConfig;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.ConnectionUsageAccumulator;
+import io.bootique.jdbc.instrumented.hikaricp.metrics.HikariMetricsBridge;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptivePoolSizerTest {
+
+    @Test
+    public void targetSize() {
+
+        // 200 checkouts/s * 30 ms = 6 connections in use on average; 6 / 0.75 = 8
+        assertEquals(8, AdaptivePoolSizer.targetSize(200, 30, 0, 8, 1, 100, 0.75));
+        assertEquals(8, AdaptivePoolSizer.targetSize(200, 30, 0, 5, 1, 100, 0.75));
+
+        // bounds
+        assertEquals(6, AdaptivePoolSizer.targetSize(200, 30, 0, 5, 1, 6, 0.75));
+        assertEquals(2, AdaptivePoolSizer.targetSize(0, 0, 0, 2, 2, 100, 0.75));
+    }
+
+    @Test
+    public void targetSize_Pending() {
+        assertEquals(13, AdaptivePoolSizer.targetSize(200, 30, 5, 8, 1, 100, 0.75));
+    }
+
+    @Test
+    public void targetSize_ShrinkGradually() {
+        assertEquals(75, AdaptivePoolSizer.targetSize(0, 0, 0, 100, 1, 100, 0.75));
+        assertEquals(1, AdaptivePoolSizer.targetSize(0, 0, 0, 2, 1, 100, 0.75));
+    }
+
+    @Test
+    public void resize() {
+        MetricRegistry registry = new MetricRegistry();
+
+        HikariConfig config = new HikariConfig();
+        config.setMaximumPoolSize(20);
+        config.setMinimumIdle(10);
+
+        ConnectionUsageAccumulator usage = new ConnectionUsageAccumulator();
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer("db", config, registry, usage, 2, 50, 0.5);
+
+        // no metrics yet
+        assertEquals(20, sizer.resize());
+
+        AtomicInteger pending = new AtomicInteger();
+        registry.register(HikariMetricsBridge.connectionWaitMetric("db"), new Timer() {
+            @Override
+            public double getOneMinuteRate() {
+                return 100;
+            }
+        });
+
+        usage.record(20);
+        registry.register(HikariMetricsBridge.pendingConnectionsMetric("db"), (Gauge<Integer>) pending::get);
+
+        // 100/s * 20ms = 2 in use, 2 / 0.5 = 4; shrinking by max 25% per step
+        assertEquals(15, sizer.resize());
+        assertEquals(15, config.getMaximumPoolSize());
+        assertEquals(10, config.getMinimumIdle());
+
+        // no new checkouts, so the previous mean usage is kept
+        assertEquals(11, sizer.resize());
+        assertEquals(8, sizer.resize());
+        assertEquals(8, config.getMinimumIdle());
+        assertEquals(6, sizer.resize());
+        assertEquals(4, sizer.resize());
+        assertEquals(4, sizer.resize());
+
+        // 100/s * 40ms = 4 in use, 4 / 0.5 = 8
+        usage.record(30);
+        usage.record(50);
+        assertEquals(8, sizer.resize());
+
+        pending.set(10);
+        assertEquals(18, sizer.resize());
+        assertEquals(18, config.getMaximumPoolSize());
+        assertEquals(10, config.getMinimumIdle());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import io.bootique.BQRuntime;
+import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.jdbc.DataSourceUnwrapper;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestFactory;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@BQTest
+public class SlowQueryLogIT {
+
+    @BQTestTool
+    final BQTestFactory testFactory = new BQTestFactory();
+
+    @Test
+    public void slowQueries() throws SQLException, JMException {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/statement/SlowQueryLogIT.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        DataSource ds = runtime.getInstance(DataSourceFactory.class).forName("db");
+        try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+            try (ResultSet rs = st.executeQuery("VALUES 1")) {
+                // with no statement metrics, ResultSets are not wrapped
+                assertFalse(rs instanceof MeteredResultSet);
+            }
+            st.executeQuery("VALUES 2").close();
+        }
+
+        SlowQueryLog log = DataSourceUnwrapper.unwrap(ds, StatementMetricsDataSource.class)
+                .flatMap(StatementMetricsDataSource::getSlowQueryLog)
+                .orElseThrow();
+
+        assertEquals(2, log.getEntries().size());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String[] queries = (String[]) server.getAttribute(SlowQueryLog.objectName("db"), "Queries");
+        assertEquals(2, queries.length);
+        assertTrue(queries[0].contains("VALUES 1"), queries[0]);
+        assertTrue(queries[1].contains("VALUES 2"), queries[1]);
+
+        runtime.shutdown();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(SlowQueryLog.objectName("db")));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    @Test
+    public void record_Threshold() {
+        MetricRegistry registry = new MetricRegistry();
+        SlowQueryLog log = new SlowQueryLog("db", 100, 0, 8, registry);
+
+        log.record("fast", 99);
+        log.record("slow", 100);
+        log.record("slower", 1000);
+
+        List<SlowQuery> entries = log.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("slow", entries.get(0).sql());
+        assertEquals("slower", entries.get(1).sql());
+        assertTrue(entries.get(0).slow());
+        assertEquals(2, registry.meter(SlowQueryLog.slowQueriesMetric("db")).getCount());
+    }
+
+    @Test
+    public void record_Sampled() {
+        SlowQueryLog log = new SlowQueryLog("db", 100, 1, 8, new MetricRegistry());
+
+        log.record("fast", 1);
+
+        List<SlowQuery> entries = log.getEntries();
+        assertEquals(1, entries.size());
+        assertFalse(entries.get(0).slow());
+    }
+
+    @Test
+    public void record_Overwrite() {
+        SlowQueryLog log = new SlowQueryLog("db", 0, 0, 3, new MetricRegistry());
+
+        // capacity is rounded up to 4
+        for (int i = 0; i < 6; i++) {
+            log.record("q" + i, 1);
+        }
+
+        assertEquals(List.of("q2", "q3", "q4", "q5"), log.getEntries().stream().map(SlowQuery::sql).toList());
+        assertEquals(6, log.getRecordedCount());
+
+        log.clear();
+        assertEquals(0, log.getEntries().size());
+        assertEquals(6, log.getRecordedCount());
+    }
+
+    @Test
+    public void registerMBean_NameTaken() {
+        SlowQueryLog log1 = new SlowQueryLog("registerMBean_NameTaken", 0, 0, 2, new MetricRegistry());
+        SlowQueryLog log2 = new SlowQueryLog("registerMBean_NameTaken", 0, 0, 2, new MetricRegistry());
+        ObjectName name = SlowQueryLog.objectName("registerMBean_NameTaken");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        log1.registerMBean();
+        try {
+            // must not fail, and must not take over or remove someone else's MBean
+            log2.registerMBean();
+            log2.unregisterMBean();
+            assertTrue(server.isRegistered(name));
+        } finally {
+            log1.unregisterMBean();
+        }
+
+        assertFalse(server.isRegistered(name));
+    }
+}
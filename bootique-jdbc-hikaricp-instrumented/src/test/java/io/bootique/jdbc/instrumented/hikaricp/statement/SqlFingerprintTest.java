@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlFingerprintTest {
+
+    @Test
+    public void normalize_Literals() {
+        assertEquals("select * from t1 where id = ? and name = ?",
+                SqlFingerprint.normalize("SELECT * FROM t1 WHERE id = 15 AND name = 'it''s'"));
+    }
+
+    @Test
+    public void normalize_Whitespace() {
+        assertEquals("select a, b from t where c = ?",
+                SqlFingerprint.normalize("  select a ,\n\tb  from t\nwhere c = ?  "));
+    }
+
+    @Test
+    public void normalize_Comments() {
+        assertEquals("select a from t where c = ?",
+                SqlFingerprint.normalize("select /* hint */ a -- comment\nfrom t where c = ?"));
+    }
+
+    @Test
+    public void normalize_Lists() {
+        assertEquals("select a from t where c in (?)",
+                SqlFingerprint.normalize("select a from t where c in (1, 2, 3)"));
+        assertEquals("select a from t where c in (?)",
+                SqlFingerprint.normalize("select a from t where c in ( ?,?, ? )"));
+        assertEquals("insert into t (a, b) values (?)",
+                SqlFingerprint.normalize("insert into t (a, b) values (1, 'x'), (2, 'y')"));
+    }
+
+    @Test
+    public void normalize_QuotedIdentifiers() {
+        assertEquals("select \"A 1\" from \"T\"",
+                SqlFingerprint.normalize("SELECT \"A 1\" FROM \"T\""));
+    }
+}
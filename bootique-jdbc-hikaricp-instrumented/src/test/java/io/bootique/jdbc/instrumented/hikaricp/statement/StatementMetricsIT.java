@@ -0,0 +1,148 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.instrumented.hikaricp.statement;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import io.bootique.BQRuntime;
+import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.jdbc.DataSourceUnwrapper;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestFactory;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@BQTest
+public class StatementMetricsIT {
+
+    @BQTestTool
+    final BQTestFactory testFactory = new BQTestFactory();
+
+    private MetricRegistry registry;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void createDataSource() throws SQLException {
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/instrumented/hikaricp/statement/StatementMetricsIT.yml")
+                .autoLoadModules()
+                .createRuntime();
+
+        this.registry = runtime.getInstance(MetricRegistry.class);
+        this.dataSource = runtime.getInstance(DataSourceFactory.class).forName("db");
+
+        // in-memory DB outlives the runtime, so the table may already exist
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            if (c.getMetaData().getTables(null, null, "T1", null).next()) {
+                st.executeUpdate("DELETE FROM T1");
+            } else {
+                st.execute("CREATE TABLE T1 (ID INT, NAME VARCHAR(10))");
+            }
+        }
+    }
+
+    @Test
+    public void preparedStatements() throws SQLException {
+
+        try (Connection c = dataSource.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement st = c.prepareStatement("INSERT INTO T1 (ID, NAME) VALUES (?, ?)")) {
+                    st.setInt(1, i);
+                    st.setString(2, "n" + i);
+                    assertEquals(1, st.executeUpdate());
+                }
+            }
+
+            try (PreparedStatement st = c.prepareStatement("SELECT * FROM T1 WHERE ID < ?")) {
+                st.setInt(1, 2);
+                try (ResultSet rs = st.executeQuery()) {
+                    while (rs.next()) {
+                        // just iterate
+                    }
+                }
+            }
+        }
+
+        String insertId = StatementMetrics.fingerprintId("insert into t1 (id, name) values (?)");
+        assertEquals(3, registry.timer(StatementMetrics.timeMetric("db", insertId)).getCount());
+        assertEquals(3, registry.histogram(StatementMetrics.rowsMetric("db", insertId)).getCount());
+
+        String selectId = StatementMetrics.fingerprintId("select * from t1 where id < ?");
+        assertEquals(1, registry.timer(StatementMetrics.timeMetric("db", selectId)).getCount());
+        assertEquals(2, registry.histogram(StatementMetrics.rowsMetric("db", selectId)).getSnapshot().getMax());
+    }
+
+    @Test
+    public void statements_Literals() throws SQLException {
+
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("INSERT INTO T1 (ID, NAME) VALUES (1, 'a')");
+            st.executeUpdate("INSERT INTO T1 (ID, NAME) VALUES (2, 'b')");
+
+            assertThrows(SQLException.class, () -> st.executeUpdate("INSERT INTO T1 (ID, NAME) VALUES (3, 'too long a name')"));
+        }
+
+        // all three statements have the same shape
+        String id = StatementMetrics.fingerprintId("insert into t1 (id, name) values (?)");
+        assertEquals(2, registry.timer(StatementMetrics.timeMetric("db", id)).getCount());
+        assertEquals(1, registry.meter(StatementMetrics.errorsMetric("db", id)).getCount());
+    }
+
+    @Test
+    public void batch() throws SQLException {
+
+        try (Connection c = dataSource.getConnection()) {
+            try (PreparedStatement st = c.prepareStatement("INSERT INTO T1 (ID, NAME) VALUES (?, ?)")) {
+                assertSame(c, st.getConnection());
+
+                for (int i = 0; i < 3; i++) {
+                    st.setInt(1, i);
+                    st.setString(2, "n" + i);
+                    st.addBatch();
+                }
+
+                st.executeBatch();
+            }
+
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT * FROM T1")) {
+                assertSame(st, rs.getStatement());
+            }
+        }
+
+        String insertId = StatementMetrics.fingerprintId("insert into t1 (id, name) values (?)");
+        assertEquals(1, registry.timer(StatementMetrics.timeMetric("db", insertId)).getCount());
+        assertEquals(3, registry.histogram(StatementMetrics.rowsMetric("db", insertId)).getSnapshot().getMax());
+    }
+
+    @Test
+    public void unwrap() {
+        assertTrue(DataSourceUnwrapper.unwrap(dataSource, StatementMetricsDataSource.class).isPresent());
+        assertTrue(DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class).isPresent());
+    }
+}
@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ThreadFactory;
@@ -53,6 +54,7 @@ public class HikariCPManagedDataSourceFactory implements ManagedDataSourceFactor
     private static final long MAX_LIFETIME = MINUTES.toMillis(30);
 
     private boolean lazy;
+    private HikariCPWarmupFactory warmup;
     private boolean allowPoolSuspension;
     private boolean autoCommit;
     private String catalog;
@@ -112,7 +114,31 @@ public class HikariCPManagedDataSourceFactory implements ManagedDataSourceFactor
     protected DataSource createDataSource(String dataSourceName) {
         validate();
         LOGGER.info("Starting Hikari DataSource '{}' pointing to {}", dataSourceName, jdbcUrl);
-        return new HikariDataSource(toConfiguration(dataSourceName));
+        HikariDataSource dataSource = new HikariDataSource(toConfiguration(dataSourceName));
+
+        if (warmup != null && warmup.isEnabled()) {
+            long t0 = System.nanoTime();
+            int warm = warmup.createWarmup(minimumIdle, maximumPoolSize).warmUp(dataSourceName, dataSource);
+            Duration duration = Duration.ofNanos(System.nanoTime() - t0);
+
+            LOGGER.info("Warmed up {} connection(s) of DataSource '{}' in {} ms",
+                    warm,
+                    dataSourceName,
+                    duration.toMillis());
+            onWarmup(dataSourceName, dataSource, duration);
+        }
+
+        return dataSource;
+    }
+
+    /**
+     * Called after the DataSource warmup is finished or timed out. Does nothing by default. Subclasses may override it
+     * to record the warmup duration.
+     *
+     * @since 4.0
+     */
+    protected void onWarmup(String dataSourceName, HikariDataSource dataSource, Duration duration) {
+        // do nothing
     }
 
     protected void closeDataSource(DataSource dataSource) {
@@ -139,6 +165,14 @@ public class HikariCPManagedDataSourceFactory implements ManagedDataSourceFactor
         Objects.requireNonNull(jdbcUrl, "'jdbcUrl' property should not be null");
     }
 
+    /**
+     * @since 4.0
+     */
+    @BQConfigProperty("Configures an optional warmup of the pool connections on DataSource startup.")
+    public void setWarmup(HikariCPWarmupFactory warmup) {
+        this.warmup = warmup;
+    }
+
     @BQConfigProperty("If true, the returned DataSource is initialized lazily. This allows to avoid database connection" +
             " attempts in certain scenarios. E.g. when reading metadata of some objects.")
     public void setLazy(boolean lazy) {
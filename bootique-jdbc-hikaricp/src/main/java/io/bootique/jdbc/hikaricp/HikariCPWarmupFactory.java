@@ -0,0 +1,95 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.hikaricp;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.ConnectionWarmup;
+import io.bootique.value.Duration;
+
+import java.util.List;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Opens and pre-validates pool connections when a Hikari DataSource is started.")
+public class HikariCPWarmupFactory {
+
+    private static final Duration DEFAULT_TIMEOUT = new Duration("30s");
+
+    private boolean enabled;
+    private int connections;
+    private int threads;
+    private List<String> statements;
+    private Duration timeout;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @BQConfigProperty("Whether to warm up the pool on startup. The default is 'false'.")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @BQConfigProperty("The number of connections to open during warmup. If not set, the pool 'minimumIdle' is used.")
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    @BQConfigProperty("Max number of threads used to open warmup connections. The default is the smaller of the " +
+            "number of connections and the number of CPUs.")
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    @BQConfigProperty("SQL statements to run on each warmup connection, e.g. to prime the server-side plan caches " +
+            "for the most common queries.")
+    public void setStatements(List<String> statements) {
+        this.statements = statements;
+    }
+
+    @BQConfigProperty("Max time the DataSource startup would wait for the warmup to finish. The warmup continues in " +
+            "the background after the timeout. The default is 30s.")
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public ConnectionWarmup createWarmup(int minimumIdle, int maximumPoolSize) {
+
+        if (connections < 0) {
+            throw new IllegalStateException("'connections' must not be negative: " + connections);
+        }
+
+        if (threads < 0) {
+            throw new IllegalStateException("'threads' must not be negative: " + threads);
+        }
+
+        int connections = Math.min(this.connections > 0 ? this.connections : minimumIdle, maximumPoolSize);
+        int threads = this.threads > 0
+                ? this.threads
+                : Math.max(1, Math.min(connections, Runtime.getRuntime().availableProcessors()));
+
+        return new ConnectionWarmup(
+                connections,
+                statements != null ? statements : List.of(),
+                threads,
+                (timeout != null ? timeout : DEFAULT_TIMEOUT).getDuration());
+    }
+}
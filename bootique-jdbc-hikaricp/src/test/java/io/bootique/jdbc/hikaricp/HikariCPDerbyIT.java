@@ -113,6 +113,17 @@ public class HikariCPDerbyIT {
         }
     }
 
+    @Test
+    public void warmup() {
+        BQRuntime runtime = testFactory.app("-c", "classpath:HikariCPDerbyIT_warmup.yml").createRuntime();
+
+        HikariDataSource ds = (HikariDataSource) runtime.getInstance(DataSourceFactory.class).forName("warmup");
+
+        // all "minimumIdle" connections must be open by the time the DataSource is returned. The pool may open an
+        // extra connection while the warmup holds all the others
+        assertTrue(ds.getHikariPoolMXBean().getIdleConnections() >= 3);
+    }
+
     @Test
     public void lazy() throws SQLException {
         BQRuntime runtime = testFactory.app("-c", "classpath:HikariCPDerby_LazyIT.yml").createRuntime();
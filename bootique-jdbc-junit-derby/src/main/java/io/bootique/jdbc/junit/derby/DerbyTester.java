@@ -19,6 +19,7 @@
 package io.bootique.jdbc.junit.derby;
 
 import io.bootique.jdbc.junit.DbTester;
+import io.bootique.jdbc.junit.JdbcOp;
 import io.bootique.jdbc.junit.datasource.DriverDataSource;
 import io.bootique.junit.BQTestScope;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -29,9 +30,15 @@ import java.io.File;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.CallableStatement;
+import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,9 +69,20 @@ public class DerbyTester extends DbTester<DerbyTester> {
         }
     }
 
+    // DB snapshots shared by all the testers in the JVM, keyed by the init steps signature
+    private static final Map<String, File> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static File snapshotsFolder;
+
     private final File derbyFolder;
+    private final boolean tempFolder;
+    private final File dbFolder;
     private final String dbUrl;
 
+    private boolean snapshot;
+    private boolean restoreSnapshotBeforeEachTest;
+    private boolean restoredFromSnapshot;
+    private boolean pristine;
+
     /**
      * Creates a tester that will use in-memory Derby DB, with DB files stored in a unique temporary directory.
      *
@@ -77,7 +95,7 @@ public class DerbyTester extends DbTester<DerbyTester> {
             tempFir[0] = Files.createTempDirectory("io.bootique.jdbc.test.derby-db");
         });
 
-        return db(tempFir[0].toFile());
+        return new DerbyTester(tempFir[0].toFile(), true);
     }
 
     /**
@@ -88,7 +106,7 @@ public class DerbyTester extends DbTester<DerbyTester> {
      * @since 3.0
      */
     public static DerbyTester db(String derbyFolder) {
-        return new DerbyTester(new File(derbyFolder));
+        return new DerbyTester(new File(derbyFolder), false);
     }
 
     /**
@@ -99,33 +117,170 @@ public class DerbyTester extends DbTester<DerbyTester> {
      * @since 3.0
      */
     public static DerbyTester db(File derbyFolder) {
-        return new DerbyTester(derbyFolder);
+        return new DerbyTester(derbyFolder, false);
     }
 
-    private DerbyTester(File derbyFolder) {
+    private DerbyTester(File derbyFolder, boolean tempFolder) {
         this.derbyFolder = Objects.requireNonNull(derbyFolder);
+        this.tempFolder = tempFolder;
 
         // placing Derby in subfolder, so that the presence of the parent folder is not in the way of starting the DB
+        this.dbFolder = new File(derbyFolder, "derby");
         this.dbUrl = String.format("jdbc:derby:%s/derby;create=true", derbyFolder);
 
         sendDerbyLogsToDevNull();
     }
 
+    /**
+     * Configures the tester to keep the database between the test runs and to skip the init steps if it was already
+     * initialized with the same steps. Requires an explicit DB folder (see {@link #db(File)}), as the temporary
+     * folder is unique per tester and is deleted on shutdown.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    @Override
+    public DerbyTester reuseInitializedDB() {
+        if (tempFolder) {
+            throw new IllegalStateException("'reuseInitializedDB' requires an explicit Derby folder. "
+                    + "Use 'DerbyTester.db(folder)' to create the tester");
+        }
+
+        return super.reuseInitializedDB();
+    }
+
+    /**
+     * Configures the tester to take a snapshot of the database after running the init scripts, functions and
+     * changelogs, and to restore it instead of running them again in each subsequent scope. Snapshots are shared by
+     * all the testers in the JVM that have the same init steps in the same order, so the cost of the schema setup is
+     * paid once per JVM. Init functions are identified by their ids (see {@link #initDBWithFunction(String, JdbcOp)}),
+     * or, if added without an id, by the function instance. So the testers whose functions capture different state
+     * do not share snapshots.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public DerbyTester snapshot() {
+        this.snapshot = true;
+        return this;
+    }
+
+    /**
+     * Configures the tester to take a snapshot of the database after the init steps (same as {@link #snapshot()}),
+     * and also to restore the database from the snapshot before each test. This resets both the schema and the data,
+     * but requires a restart of the database, so it is slower than deleting the data from a few tables.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public DerbyTester restoreSnapshotBeforeEachTest() {
+        this.snapshot = true;
+        this.restoreSnapshotBeforeEachTest = true;
+        return this;
+    }
+
     @Override
     protected DriverDataSource createNonPoolingDataSource(BQTestScope scope) {
         prepareForDerbyStartup();
+
+        // a DB preserved from the previous run takes precedence over the snapshot
+        this.restoredFromSnapshot = snapshot && !dbFolder.exists() && restoreSnapshot();
         return new DriverDataSource(null, dbUrl, null, null);
     }
 
     @Override
     public void afterScope(BQTestScope scope, ExtensionContext context) {
+        closeTruncateDataManagers();
+        closeWorkerSchemas();
         performDerbyShutdown();
     }
 
+    @Override
+    public void beforeMethod(BQTestScope scope, ExtensionContext context) {
+
+        if (restoreSnapshotBeforeEachTest) {
+
+            // no need to restore the DB that was just created
+            if (!pristine) {
+                dataSourceHolder.restartPool(() -> {
+                    performDbShutdown();
+                    deleteDir(dbFolder);
+                    restoreSnapshot();
+                });
+            }
+
+            pristine = false;
+        }
+
+        super.beforeMethod(scope, context);
+    }
+
+    @Override
+    protected void initDB() {
+
+        if (restoredFromSnapshot) {
+            LOGGER.info("Derby DB is restored from a snapshot, skipping init steps");
+        } else {
+            super.initDB();
+
+            if (snapshot) {
+                createSnapshot();
+            }
+        }
+
+        this.pristine = true;
+    }
+
+    protected void createSnapshot() {
+
+        String signature = initializer.getSignature();
+        if (SNAPSHOTS.containsKey(signature)) {
+            return;
+        }
+
+        Path[] tempDir = new Path[1];
+        assertDoesNotThrow(() -> {
+            tempDir[0] = Files.createTempDirectory(snapshotsFolder().toPath(), "snapshot");
+        });
+
+        File backupFolder = tempDir[0].toFile();
+        LOGGER.info("Creating Derby DB snapshot at '{}'...", backupFolder);
+
+        try (Connection c = dataSourceHolder.getConnection()) {
+            try (CallableStatement st = c.prepareCall("CALL SYSCS_UTIL.SYSCS_BACKUP_DATABASE(?)")) {
+                st.setString(1, backupFolder.getAbsolutePath());
+                st.execute();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error creating Derby DB snapshot", e);
+        }
+
+        // the backup is placed in a subfolder named after the DB folder
+        if (SNAPSHOTS.putIfAbsent(signature, new File(backupFolder, dbFolder.getName())) != null) {
+            deleteDir(backupFolder);
+        }
+    }
+
+    protected boolean restoreSnapshot() {
+
+        File snapshotFolder = SNAPSHOTS.get(initializer.getSignature());
+        if (snapshotFolder == null) {
+            return false;
+        }
+
+        LOGGER.info("Restoring Derby DB from snapshot at '{}'...", snapshotFolder);
+        copyDir(snapshotFolder, dbFolder);
+        return true;
+    }
+
     protected void prepareForDerbyStartup() {
 
         LOGGER.info("Preparing Derby server at '{}'...", derbyFolder);
-        deleteDirContents(derbyFolder);
+
+        // keeping the DB from the previous run, if it is to be reused
+        if (!reuseInitializedDB) {
+            deleteDirContents(derbyFolder);
+        }
 
         // Need to reload the driver if there was a previous shutdown
         // see https://db.apache.org/derby/docs/10.5/devguide/tdevdvlp20349.html
@@ -145,7 +300,57 @@ public class DerbyTester extends DbTester<DerbyTester> {
             // the exception is actually expected on shutdown... go figure...
         }
 
-        deleteDir(derbyFolder);
+        if (!reuseInitializedDB) {
+            deleteDir(derbyFolder);
+        }
+    }
+
+    protected void performDbShutdown() {
+        LOGGER.info("Stopping Derby DB at '{}'...", dbFolder);
+
+        try {
+            DriverManager.getConnection(String.format("jdbc:derby:%s;shutdown=true", dbFolder));
+        } catch (SQLException e) {
+            // the exception is actually expected on shutdown
+        }
+    }
+
+    private static synchronized File snapshotsFolder() {
+
+        if (snapshotsFolder == null) {
+
+            Path[] tempDir = new Path[1];
+            assertDoesNotThrow(() -> {
+                tempDir[0] = Files.createTempDirectory("io.bootique.jdbc.test.derby-snapshots");
+            });
+
+            File folder = tempDir[0].toFile();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteDir(folder)));
+            snapshotsFolder = folder;
+        }
+
+        return snapshotsFolder;
+    }
+
+    protected static void copyDir(File from, File to) {
+        Path fromPath = from.toPath();
+        Path toPath = to.toPath();
+
+        assertDoesNotThrow(() -> {
+            try (Stream<Path> paths = Files.walk(fromPath)) {
+                Iterator<Path> it = paths.iterator();
+                while (it.hasNext()) {
+                    Path source = it.next();
+                    Path target = toPath.resolve(fromPath.relativize(source));
+
+                    if (Files.isDirectory(source)) {
+                        Files.createDirectories(target);
+                    } else {
+                        Files.copy(source, target);
+                    }
+                }
+            }
+        });
     }
 
     protected static void deleteDirContents(File dir) {
@@ -0,0 +1,101 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.junit.derby;
+
+import io.bootique.jdbc.junit.JdbcOp;
+import io.bootique.jdbc.junit.init.DbInitializer;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@BQTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DerbyTester_ReuseInitializedDBIT {
+
+    static int initCalls;
+
+    static final JdbcOp INIT_FUNCTION = c -> initCalls++;
+
+    @TempDir
+    static File tempDir;
+
+    // a new tester (and a new DB startup) for each test method, all sharing the same folder
+    @BQTestTool
+    final DerbyTester db = DerbyTester
+            .db(tempDir)
+            .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql")
+            .initDBWithFunction("initCalls", INIT_FUNCTION)
+            .reuseInitializedDB();
+
+    @Test
+    @Order(0)
+    @DisplayName("DB must be initialized on first startup")
+    public void firstStartup() throws SQLException {
+        assertEquals(1, initCalls);
+        assertTrue(new File(tempDir, "derby").isDirectory());
+
+        // the marker table name is unquoted, so using plain SQL to read it
+        try (Connection c = db.getConnection(); Statement st = c.createStatement()) {
+            try (ResultSet rs = st.executeQuery("select fingerprint from " + DbInitializer.FINGERPRINT_TABLE)) {
+                assertTrue(rs.next());
+                assertEquals(64, rs.getString(1).length());
+            }
+        }
+
+        db.getTable("a").matcher().assertOneMatch();
+        db.getTable("a").insert(20, "x");
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Init steps must be skipped on the next startup with the same init steps")
+    public void nextStartup() {
+        assertEquals(1, initCalls);
+
+        // the data from the previous run must be preserved
+        db.getTable("a").matcher().assertMatches(2);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("DB initialized with different init steps must not be reused")
+    public void changedSteps() {
+        DbInitializer changed = new DbInitializer();
+        changed.addScript("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql", null);
+        changed.addFunction("initCalls-v2", INIT_FUNCTION);
+
+        assertThrows(IllegalStateException.class, () -> changed.execIfChanged(db.getDataSource()));
+        assertEquals(1, initCalls);
+    }
+}
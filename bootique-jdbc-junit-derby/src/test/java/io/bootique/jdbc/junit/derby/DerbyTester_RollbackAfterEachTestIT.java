@@ -0,0 +1,155 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.junit.derby;
+
+import io.bootique.BQRuntime;
+import io.bootique.Bootique;
+import io.bootique.jdbc.junit.Table;
+import io.bootique.junit.BQApp;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@BQTest
+public class DerbyTester_RollbackAfterEachTestIT extends BaseDerbyTesterTest {
+
+    @BQTestTool
+    static final DerbyTester db = DerbyTester
+            .db()
+            .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql")
+            .rollbackAfterEachTest();
+
+    @BQApp(skipRun = true)
+    static final BQRuntime app = Bootique.app()
+            .autoLoadModules()
+            .module(db.moduleWithTestDataSource("myDS"))
+            .createRuntime();
+
+    @Test
+    @DisplayName("Check tables only contain the initial data, insert data for next test")
+    public void test1() {
+        checkInitialData();
+        insertTestData();
+    }
+
+    @Test
+    @DisplayName("Check tables only contain the initial data, insert data for next test")
+    public void test2() {
+        checkInitialData();
+        insertTestData();
+    }
+
+    @Test
+    @DisplayName("Commits and rollbacks in the test must be emulated")
+    public void commitRollback() {
+        Table a = db.getTable("a");
+
+        run(app, c -> {
+            c.setAutoCommit(false);
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (20, 'committed')");
+                c.commit();
+
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (21, 'rolled back')");
+                c.rollback();
+            }
+        });
+
+        a.matcher().assertMatches(2);
+        a.matcher().eq("id", 20).assertOneMatch();
+        a.matcher().eq("id", 21).assertNoMatches();
+    }
+
+    @Test
+    @DisplayName("Auto-commit must be emulated per statement")
+    public void autoCommit() {
+        Table a = db.getTable("a");
+
+        run(app, c -> {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (20, 'auto-committed')");
+
+                // a failed statement must not affect the statements before or after it
+                assertThrows(SQLException.class,
+                        () -> s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (20, 'duplicate')"));
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (21, 'auto-committed')");
+
+                // switching auto-commit off must not make the auto-committed changes revertible
+                c.setAutoCommit(false);
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (22, 'rolled back')");
+                c.rollback();
+
+                assertSame(c, s.getConnection());
+            }
+        });
+
+        a.matcher().assertMatches(3);
+        a.matcher().eq("id", 20).andEq("name", "auto-committed").assertOneMatch();
+        a.matcher().eq("id", 21).assertOneMatch();
+        a.matcher().eq("id", 22).assertNoMatches();
+    }
+
+    @Test
+    @DisplayName("Streaming select must not revert changes pending in another connection")
+    public void stream() {
+        Table a = db.getTable("a");
+
+        run(app, c -> {
+            c.setAutoCommit(false);
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (20, 'pending')");
+            }
+
+            try (Stream<Object[]> rows = a.selectColumns("id").stream()) {
+                assertEquals(2, rows.count());
+            }
+
+            c.commit();
+        });
+
+        a.matcher().assertMatches(2);
+        a.matcher().eq("id", 20).assertOneMatch();
+    }
+
+    protected void checkInitialData() {
+        db.getTable("a").matcher().assertOneMatch();
+        db.getTable("b").matcher().assertOneMatch();
+    }
+
+    protected void insertTestData() {
+        run(app, c -> {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (12, 'myname')");
+                s.executeUpdate("insert into \"b\" (\"id\", \"name\", \"a_id\") values (13, 'myname', 12)");
+            }
+        });
+
+        db.getTable("a").insert(14, "myname");
+        db.getTable("a").matcher().assertMatches(3);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.junit.derby;
+
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@BQTest
+public class DerbyTester_SchemaPerWorkerIT {
+
+    @BQTestTool
+    static final DerbyTester db = DerbyTester
+            .db()
+            .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql")
+            .schemaPerWorker()
+            .truncateBeforeEachTest("a", "b");
+
+    @Test
+    @DisplayName("Each worker thread must get its own initialized schema")
+    public void schemaPerWorker() throws Exception {
+
+        // the data from the init script was removed before the test
+        db.getTable("a").insert(20, "x");
+        db.getTable("a").matcher().eq("id", 20).assertOneMatch();
+
+        String schema = currentSchema();
+        assertTrue(schema.startsWith("bq_worker_"), schema);
+        assertEquals(1, countA());
+
+        // emulating another test worker that doesn't inherit anything from this thread
+        FutureTask<String> otherWorker = new FutureTask<>(() -> {
+            db.beforeMethod(null, null);
+
+            // the other worker schema was initialized separately, and is not affected by the changes above
+            assertEquals(0, countA());
+            db.getTable("a").insert(10, "y");
+            db.getTable("a").matcher().eq("id", 10).assertOneMatch();
+            return currentSchema();
+        });
+        new Thread(null, otherWorker, "other-worker", 0, false).start();
+
+        assertNotEquals(schema, otherWorker.get());
+        assertEquals(schema, currentSchema());
+        assertEquals(1, countA());
+    }
+
+    @Test
+    @DisplayName("Threads started by the test must use the test schema")
+    public void childThread() throws Exception {
+        db.getTable("a").insert(20, "x");
+
+        String schema = currentSchema();
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            assertEquals(schema, executor.submit(DerbyTester_SchemaPerWorkerIT::currentSchema).get());
+            assertEquals(1, executor.submit(DerbyTester_SchemaPerWorkerIT::countA).get());
+        }
+    }
+
+    @Test
+    @DisplayName("Threads unrelated to the test workers must not get a connection")
+    public void unrelatedThread() throws Exception {
+        FutureTask<Integer> unrelated = new FutureTask<>(DerbyTester_SchemaPerWorkerIT::countA);
+        new Thread(null, unrelated, "unrelated", 0, false).start();
+
+        ExecutionException e = assertThrows(ExecutionException.class, unrelated::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Table metadata must be resolved in the thread schema")
+    public void tableMetadata() {
+        assertEquals(currentSchema(), db.getTable("a").getMetadata().getName().schema());
+    }
+
+    static String currentSchema() {
+        try (Connection c = db.getConnection()) {
+            return c.getSchema();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static int countA() throws SQLException {
+        try (Connection c = db.getConnection(); Statement s = c.createStatement()) {
+            try (ResultSet rs = s.executeQuery("select count(*) from \"a\"")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.junit.derby;
+
+import io.bootique.jdbc.junit.JdbcOp;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@BQTest
+public class DerbyTester_SnapshotIT {
+
+    static int initCalls;
+
+    static final JdbcOp INIT_FUNCTION = c -> {
+        initCalls++;
+        try (Statement s = c.createStatement()) {
+            s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (2, 'from_function')");
+        }
+    };
+
+    @BQTestTool
+    static final DerbyTester db1 = DerbyTester
+            .db()
+            .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql")
+            .initDB(INIT_FUNCTION)
+            .restoreSnapshotBeforeEachTest();
+
+    @BQTestTool
+    static final DerbyTester db2 = DerbyTester
+            .db()
+            .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql")
+            .initDB(INIT_FUNCTION)
+            .snapshot();
+
+    @Test
+    @DisplayName("Second tester with the same init steps must be restored from the snapshot of the first one")
+    public void sharedSnapshot() {
+        assertEquals(1, initCalls);
+        checkInitialData(db2);
+    }
+
+    @Test
+    @DisplayName("Check tables only contain the initial data, change data for next test")
+    public void test1() {
+        checkInitialData(db1);
+        changeData();
+    }
+
+    @Test
+    @DisplayName("Check tables only contain the initial data, change data for next test")
+    public void test2() {
+        checkInitialData(db1);
+        changeData();
+    }
+
+    protected void checkInitialData(DerbyTester db) {
+        db.getTable("a").matcher().assertMatches(2);
+        db.getTable("a").matcher().eq("name", "from_function").assertOneMatch();
+        db.getTable("b").matcher().assertOneMatch();
+    }
+
+    protected void changeData() {
+        db1.getTable("a").insert(14, "myname");
+        db1.getTable("a").matcher().assertMatches(3);
+
+        db1.execStatement().exec("drop table \"b\"");
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.derby;
+
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+@BQTest
+public class DerbyTester_Snapshot_CapturingFunctionIT {
+
+    @BQTestTool
+    static final DerbyTester db1 = createTester("x");
+
+    @BQTestTool
+    static final DerbyTester db2 = createTester("y");
+
+    // the init functions of both testers are the instances of the same lambda class
+    static DerbyTester createTester(String name) {
+        return DerbyTester
+                .db()
+                .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_DeleteBeforeEachTestIT.sql")
+                .initDB(c -> {
+                    try (Statement s = c.createStatement()) {
+                        s.executeUpdate("insert into \"a\" (\"id\", \"name\") values (2, '" + name + "')");
+                    }
+                })
+                .snapshot();
+    }
+
+    @Test
+    @DisplayName("Testers with functions capturing different state must not share snapshots")
+    public void separateSnapshots() {
+        db1.getTable("a").matcher().eq("name", "x").assertOneMatch();
+        db1.getTable("a").matcher().eq("name", "y").assertNoMatches();
+
+        db2.getTable("a").matcher().eq("name", "y").assertOneMatch();
+        db2.getTable("a").matcher().eq("name", "x").assertNoMatches();
+    }
+}
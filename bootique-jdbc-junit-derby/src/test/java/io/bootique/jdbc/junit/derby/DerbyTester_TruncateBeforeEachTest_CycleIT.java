@@ -0,0 +1,86 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.derby;
+
+import io.bootique.BQRuntime;
+import io.bootique.Bootique;
+import io.bootique.junit.BQApp;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@BQTest
+public class DerbyTester_TruncateBeforeEachTest_CycleIT extends BaseDerbyTesterTest {
+
+    @BQTestTool
+    static final DerbyTester db = DerbyTester
+            .db()
+            .initDB("classpath:io/bootique/jdbc/junit/derby/DerbyTester_TruncateBeforeEachTest_CycleIT.sql")
+            // "x" and "y" reference each other, so the cleanup must fall back to the reverse insert order
+            .truncateBeforeEachTest("x", "y");
+
+    @BQApp(skipRun = true)
+    static final BQRuntime app = Bootique.app()
+            .autoLoadModules()
+            .module(db.moduleWithTestDataSource("myDS"))
+            .createRuntime();
+
+    @Test
+    @DisplayName("Check tables are clean, insert data for next test")
+    public void test1() {
+        checkNoData();
+        insertTestData();
+    }
+
+    @Test
+    @DisplayName("Check tables are clean, insert data for next test")
+    public void test2() {
+        checkNoData();
+        insertTestData();
+    }
+
+    protected void checkNoData() {
+        run(app, c -> {
+            try (Statement s = c.createStatement()) {
+                for (String table : new String[]{"x", "y"}) {
+                    try (ResultSet rs = s.executeQuery("select count(1) from \"" + table + "\"")) {
+                        rs.next();
+                        assertEquals(0, rs.getInt(1), () -> "Data left in table " + table);
+                    }
+                }
+            }
+        });
+    }
+
+    protected void insertTestData() {
+        run(app, c -> {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into \"x\" (\"id\", \"y_id\") values (1, null)");
+                s.executeUpdate("insert into \"y\" (\"id\", \"x_id\") values (2, 1)");
+            }
+        });
+    }
+}
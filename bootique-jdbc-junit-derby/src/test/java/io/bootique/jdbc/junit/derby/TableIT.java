@@ -21,6 +21,7 @@ package io.bootique.jdbc.junit.derby;
 
 import io.bootique.jdbc.junit.Table;
 import io.bootique.jdbc.junit.derby.DerbyTester;
+import io.bootique.jdbc.junit.sql.InsertBuilder;
 import io.bootique.junit.BQTest;
 import io.bootique.junit.BQTestTool;
 import org.junit.jupiter.api.BeforeAll;
@@ -30,10 +31,14 @@ import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @BQTest
 public class TableIT {
@@ -41,11 +46,12 @@ public class TableIT {
     @BQTestTool
     static final DerbyTester db = DerbyTester
             .db()
-            .deleteBeforeEachTest("t1", "t2", "t3");
+            .deleteBeforeEachTest("t1", "t2", "t3", "t4");
 
     private static Table T1;
     private static Table T2;
     private static Table T3;
+    private static Table T4;
 
     @BeforeAll
     public static void setupDB() {
@@ -53,10 +59,12 @@ public class TableIT {
         db.execStatement().exec("CREATE TABLE \"t1\" (\"c1\" INT, \"c2\" VARCHAR(10), \"c3\" VARCHAR(10))");
         db.execStatement().exec("CREATE TABLE \"t2\" (\"c1\" INT, \"c2\" INT, \"c3\" DATE, \"c4\" TIMESTAMP)");
         db.execStatement().exec("CREATE TABLE \"t3\" (\"c1\" INT, \"c2\" BIGINT, \"c3\" DECIMAL(10, 3))");
+        db.execStatement().exec("CREATE TABLE \"t4\" (\"c1\" INT PRIMARY KEY, \"c2\" VARCHAR(10), \"c3\" VARCHAR(10))");
 
         T1 = db.getTable("t1");
         T2 = db.getTable("t2");
         T3 = db.getTable("t3");
+        T4 = db.getTable("t4");
     }
 
     @Test
@@ -77,6 +85,66 @@ public class TableIT {
         T1.matcher().assertMatches(2);
     }
 
+    @Test
+    public void insertColumns_Batch() {
+        InsertBuilder insert = T1.insertColumns("c1", "c2").batch(7);
+        for (int i = 0; i < 100; i++) {
+            insert.values(i, i % 2 == 0 ? "v" + i : null);
+        }
+
+        insert.exec();
+        T1.matcher().assertMatches(100);
+        T1.matcher().eq("c1", 99).andEq("c2", null).assertOneMatch();
+        T1.matcher().eq("c1", 98).andEq("c2", "v98").assertOneMatch();
+    }
+
+    @Test
+    public void insertColumns_LargerThanParamLimit() {
+
+        // 40000 parameters, more than Derby can handle in a single statement
+        InsertBuilder insert = T1.insertColumns("c1", "c2").split();
+        for (int i = 0; i < 20_000; i++) {
+            insert.values(i, "v");
+        }
+
+        insert.exec();
+        T1.matcher().assertMatches(20_000);
+    }
+
+    @Test
+    public void insertColumns_Atomic() {
+
+        // 2100 parameters in a single statement, with the last row failing on a duplicate key
+        InsertBuilder insert = T4.insertColumns("c1", "c2", "c3");
+        for (int i = 0; i < 699; i++) {
+            insert.values(i, "v", "v");
+        }
+        insert.values(0, "v", "v");
+
+        assertThrows(RuntimeException.class, insert::exec);
+        T4.matcher().assertNoMatches();
+    }
+
+    @Test
+    public void insertColumns_Split_NotAtomic() {
+
+        // same as above, but split in statements of 666 rows, so the first statement succeeds
+        InsertBuilder insert = T4.insertColumns("c1", "c2", "c3").split();
+        for (int i = 0; i < 699; i++) {
+            insert.values(i, "v", "v");
+        }
+        insert.values(0, "v", "v");
+
+        assertThrows(RuntimeException.class, insert::exec);
+        T4.matcher().assertMatches(666);
+    }
+
+    @Test
+    public void insertColumns_NoValues() {
+        assertThrows(RuntimeException.class, () -> T1.insertColumns("c1", "c2").exec());
+        assertThrows(RuntimeException.class, () -> T1.insertColumns("c1", "c2").batch().exec());
+    }
+
     @Test
     public void insertDateTimeColumns() {
         T2.insertColumns("c1", "c2", "c3", "c4")
@@ -225,6 +293,38 @@ public class TableIT {
         assertEquals("y", dto.c3);
     }
 
+    @Test
+    public void selectColumns_Stream() {
+
+        InsertBuilder insert = T1.insertColumns("c1", "c2").batch();
+        for (int i = 0; i < 2500; i++) {
+            insert.values(i, "v" + i);
+        }
+        insert.exec();
+
+        try (Stream<Object[]> rows = T1.selectColumns("c1", "c2").fetchSize(100).stream()) {
+            assertEquals(2500, rows.count());
+        }
+
+        try (Stream<String> rows = T1.selectColumns("c1", "c2")
+                .converter(a -> (String) a[1])
+                .where("c1", 7)
+                .stream()) {
+            assertEquals(List.of("v7"), rows.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void selectColumns_ForEach() {
+        T1.insertColumns("c1", "c2", "c3").values(1, "a", "b").values(2, "c", "d").exec();
+
+        List<Integer> ids = new ArrayList<>();
+        T1.selectColumns("c1").forEach(r -> ids.add((Integer) r[0]));
+
+        ids.sort(Integer::compareTo);
+        assertEquals(List.of(1, 2), ids);
+    }
+
     private static class DTO {
         final String c2;
         final String c3;
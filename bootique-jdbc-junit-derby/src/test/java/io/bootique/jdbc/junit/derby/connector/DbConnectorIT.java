@@ -27,7 +27,13 @@ import io.bootique.junit.BQTestTool;
 import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @BQTest
@@ -42,4 +48,29 @@ public class DbConnectorIT {
         DbConnector connector = new DbConnector(dataSource, DbMetadata.create(dataSource));
         assertEquals("\"a\"", connector.getIdentifierQuoter().quoted("a"));
     }
+
+    @Test
+    public void selectStatement_ColumnTypes() {
+
+        derbyTester.execStatement().exec("CREATE TABLE \"types\" (\"id\" INT, \"c1\" BIGINT, \"c2\" DOUBLE, " +
+                "\"c3\" SMALLINT, \"c4\" TIMESTAMP, \"c5\" TIME, \"c6\" VARCHAR(10))");
+
+        Timestamp ts = Timestamp.valueOf(LocalDateTime.of(2018, 1, 10, 4, 0, 1));
+        Time t = Time.valueOf(LocalTime.of(4, 0, 1));
+        derbyTester.getTable("types").insertColumns("id", "c1", "c2", "c3", "c4", "c5", "c6")
+                .values(1, Long.MAX_VALUE - 1, 2.5, 3, ts, t, "x")
+                .values(2, null, null, null, null, null, null)
+                .exec();
+
+        DataSource dataSource = derbyTester.getDataSource();
+        DbConnector connector = new DbConnector(dataSource, DbMetadata.create(dataSource));
+
+        List<Object[]> rows = connector.selectStatement()
+                .append("SELECT * FROM \"types\" ORDER BY \"id\"")
+                .select();
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{1, Long.MAX_VALUE - 1, 2.5, 3, ts, t, "x"}, rows.get(0));
+        assertArrayEquals(new Object[]{2, null, null, null, null, null, null}, rows.get(1));
+    }
 }
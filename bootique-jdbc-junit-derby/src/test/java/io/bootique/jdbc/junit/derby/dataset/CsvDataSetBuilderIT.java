@@ -23,6 +23,7 @@ import io.bootique.jdbc.junit.Table;
 import io.bootique.jdbc.junit.derby.DerbyTester;
 import io.bootique.junit.BQTest;
 import io.bootique.junit.BQTestTool;
+import io.bootique.resource.ResourceFactory;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -162,4 +163,48 @@ public class CsvDataSetBuilderIT {
         assertNull(row3[1]);
     }
 
+    @Test
+    public void persist_Empty() {
+        T1.csvDataSet().persist("classpath:io/bootique/jdbc/junit/derby/dataset/empty.csv");
+        T1.matcher().assertNoMatches();
+    }
+
+    @Test
+    public void persist_Nulls_Dates() {
+
+        // batch size smaller than the number of rows to check that all batches are flushed
+        T2.csvDataSet().persist(new ResourceFactory("classpath:io/bootique/jdbc/junit/derby/dataset/t2.csv"), 2);
+
+        List<Object[]> data = T2.selectAllColumns().select();
+        assertEquals(3, data.size());
+
+        // sort in memory, as there's no guarantee that DB will return data in insertion order
+        data.sort(Comparator.comparing(r -> (Integer) r[0]));
+
+        Object[] row1 = data.get(0);
+        assertEquals(1, row1[0]);
+        assertNull(row1[1]);
+        assertEquals(Date.valueOf(LocalDate.of(2016, 1, 9)), row1[2]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2016, 1, 10, 10, 0, 0)), row1[3]);
+
+        Object[] row3 = data.get(2);
+        assertNull(row3[1]);
+        assertEquals(Date.valueOf(LocalDate.of(2018, 1, 9)), row3[2]);
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2018, 1, 10, 14, 0, 1)), row3[3]);
+    }
+
+    @Test
+    public void persist_Binary() {
+        T3.csvDataSet().persist("classpath:io/bootique/jdbc/junit/derby/dataset/t3.csv");
+
+        List<Object[]> data = T3.selectAllColumns().select();
+        assertEquals(3, data.size());
+
+        // sort in memory, as there's no guarantee that DB will return data in insertion order
+        data.sort(Comparator.comparing(r -> (Integer) r[0]));
+
+        assertArrayEquals("abcd".getBytes(), (byte[]) data.get(0)[1]);
+        assertArrayEquals("kmln".getBytes(), (byte[]) data.get(1)[1]);
+        assertNull(data.get(2)[1]);
+    }
 }
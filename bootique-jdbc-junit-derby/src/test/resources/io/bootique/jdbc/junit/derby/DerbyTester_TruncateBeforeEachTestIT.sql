@@ -0,0 +1,26 @@
+create table "a" (
+    "id" integer not null primary key,
+    "name" varchar(20)
+);
+
+create table "b" (
+    "id" integer not null primary key,
+    "name" varchar(20),
+    "a_id" integer references "a" ("id")
+);
+
+create table "c" (
+    "id" integer not null primary key,
+    "name" varchar(20)
+);
+
+create table "d" (
+    "id" integer not null primary key,
+    "b_id" integer references "b" ("id"),
+    "d_id" integer references "d" ("id")
+);
+
+insert into "a" ("id", "name") values (10, 'myname');
+insert into "b" ("id", "name", "a_id") values (11, 'myname', 10);
+insert into "c" ("id", "name") values (12, 'myname');
+insert into "d" ("id", "b_id", "d_id") values (13, 11, null);
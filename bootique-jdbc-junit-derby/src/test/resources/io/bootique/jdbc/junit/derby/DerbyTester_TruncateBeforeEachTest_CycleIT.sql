@@ -0,0 +1,3 @@
+create table "x" ("id" int not null primary key, "y_id" int);
+create table "y" ("id" int not null primary key, "x_id" int, foreign key ("x_id") references "x" ("id"));
+alter table "x" add foreign key ("y_id") references "y" ("id");
@@ -0,0 +1,264 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.tc;
+
+import io.bootique.jdbc.junit.datasource.DriverDataSource;
+import io.bootique.jdbc.junit.init.DbInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates PostgreSQL databases from the templates initialized once per JVM. The templates are dropped on JVM shutdown,
+ * so that they don't pile up in the reusable containers.
+ *
+ * @since 4.0
+ */
+class PostgresTemplates {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresTemplates.class);
+
+    private static final Pattern URL_PATTERN = Pattern.compile("^(jdbc:postgresql://[^/]*/)([^?]*)(.*)$");
+
+    // templates shared by all the testers in the JVM, keyed by the server instance and the init steps signature
+    private static final Map<String, Template> TEMPLATES = new HashMap<>();
+    private static boolean cleanupRegistered;
+
+    private final Connection adminConnection;
+    private final String serverId;
+    private final String urlPrefix;
+    private final String adminDatabase;
+    private final String urlSuffix;
+    private final String userName;
+    private final String password;
+
+    protected PostgresTemplates(
+            Connection adminConnection,
+            String serverId,
+            String urlPrefix,
+            String adminDatabase,
+            String urlSuffix,
+            String userName,
+            String password) {
+
+        this.adminConnection = adminConnection;
+        this.serverId = serverId;
+        this.urlPrefix = urlPrefix;
+        this.adminDatabase = adminDatabase;
+        this.urlSuffix = urlSuffix;
+        this.userName = userName;
+        this.password = password;
+    }
+
+    /**
+     * Creates a template manager for the PostgreSQL server behind the provided DataSource. Since the DataSource URL
+     * may be a Testcontainers URL, the actual server URL is taken from the connection metadata. A connection to the
+     * original DB is kept open until {@link #close()}, as Testcontainers stops the container when all the connections
+     * opened via its URL are closed.
+     */
+    static PostgresTemplates create(DataSource adminDataSource, String userName, String password) {
+
+        Connection c;
+        try {
+            c = adminDataSource.getConnection();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error connecting to PostgreSQL", e);
+        }
+
+        try {
+            DatabaseMetaData md = c.getMetaData();
+
+            if (!"PostgreSQL".equals(md.getDatabaseProductName())) {
+                throw new IllegalStateException("Template databases are only supported for PostgreSQL. Got: "
+                        + md.getDatabaseProductName());
+            }
+
+            Matcher m = URL_PATTERN.matcher(md.getURL());
+            if (!m.matches()) {
+                throw new IllegalStateException("Unexpected PostgreSQL URL: " + md.getURL());
+            }
+
+            return new PostgresTemplates(
+                    c,
+                    serverId(c, m.group(1)),
+                    m.group(1),
+                    m.group(2),
+                    m.group(3),
+                    userName != null ? userName : md.getUserName(),
+                    password);
+
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw new RuntimeException("Error reading PostgreSQL metadata", e);
+        } catch (RuntimeException e) {
+            closeQuietly(c);
+            throw e;
+        }
+    }
+
+    // A new container may reuse the host and port of an old one, so the server is identified by its start time as well
+    private static String serverId(Connection c, String urlPrefix) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("select pg_postmaster_start_time()")) {
+            rs.next();
+            return urlPrefix + "@" + rs.getString(1);
+        }
+    }
+
+    /**
+     * Returns the name of a template database initialized with the provided initializer, creating it if needed.
+     */
+    String template(DbInitializer initializer) {
+
+        String key = serverId + "|" + initializer.getSignature();
+
+        synchronized (TEMPLATES) {
+
+            Template template = TEMPLATES.get(key);
+            if (template != null && !exists(template.name())) {
+                LOGGER.info("Template database '{}' no longer exists, will recreate it", template.name());
+                TEMPLATES.remove(key);
+                template = null;
+            }
+
+            if (template == null) {
+                String name = uniqueName("bq_template_");
+
+                LOGGER.info("Creating template database '{}'...", name);
+                exec("create database " + name);
+
+                try {
+                    initializer.exec(dataSource(name));
+                } catch (RuntimeException e) {
+                    drop(name);
+                    throw e;
+                }
+
+                template = new Template(name, urlPrefix + adminDatabase + urlSuffix, userName, password);
+                TEMPLATES.put(key, template);
+                registerCleanup();
+            }
+
+            return template.name();
+        }
+    }
+
+    /**
+     * Creates a new database as a copy of the template, returning its name.
+     */
+    String createClone(String template) {
+        String clone = uniqueName("bq_clone_");
+
+        LOGGER.info("Creating database '{}' from template '{}'...", clone, template);
+        exec("create database " + clone + " template " + template);
+        return clone;
+    }
+
+    void drop(String database) {
+        LOGGER.info("Dropping database '{}'...", database);
+        exec("drop database if exists " + database);
+    }
+
+    DriverDataSource dataSource(String database) {
+        return new DriverDataSource(null, urlPrefix + database + urlSuffix, userName, password);
+    }
+
+    void close() {
+        try {
+            adminConnection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Error closing admin connection", e);
+        }
+    }
+
+    private boolean exists(String database) {
+        try (PreparedStatement st = adminConnection.prepareStatement("select 1 from pg_database where datname = ?")) {
+            st.setString(1, database);
+            try (ResultSet rs = st.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error checking database '" + database + "': " + e.getMessage(), e);
+        }
+    }
+
+    // must be called while holding the TEMPLATES lock
+    private static void registerCleanup() {
+        if (!cleanupRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(PostgresTemplates::dropAll, "bootique-jdbc-pg-templates"));
+            cleanupRegistered = true;
+        }
+    }
+
+    private static void dropAll() {
+
+        List<Template> templates;
+        synchronized (TEMPLATES) {
+            templates = new ArrayList<>(TEMPLATES.values());
+            TEMPLATES.clear();
+        }
+
+        for (Template t : templates) {
+            DriverDataSource admin = new DriverDataSource(null, t.adminUrl(), t.userName(), t.password());
+            try (Connection c = admin.getConnection(); Statement st = c.createStatement()) {
+                st.execute("drop database if exists " + t.name());
+            } catch (SQLException e) {
+                // the container may already be stopped, which removes the template anyway
+                LOGGER.debug("Error dropping template database '{}': {}", t.name(), e.getMessage());
+            }
+        }
+    }
+
+    protected void exec(String sql) {
+        try (Statement st = adminConnection.createStatement()) {
+            st.execute(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error running '" + sql + "': " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static String uniqueName(String prefix) {
+        // a random part protects from collisions in the reusable containers shared between JVMs
+        return prefix + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private record Template(String name, String adminUrl, String userName, String password) {
+    }
+}
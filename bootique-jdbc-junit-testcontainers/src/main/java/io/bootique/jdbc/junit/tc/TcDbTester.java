@@ -22,6 +22,9 @@ import io.bootique.jdbc.junit.DbTester;
 import io.bootique.jdbc.junit.datasource.DriverDataSource;
 import io.bootique.junit.BQTestTool;
 import io.bootique.junit.BQTestScope;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.JdbcDatabaseContainer;
 
 /**
@@ -31,6 +34,16 @@ import org.testcontainers.containers.JdbcDatabaseContainer;
  */
 public abstract class TcDbTester extends DbTester<TcDbTester> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TcDbTester.class);
+
+    private boolean cloneFromTemplate;
+    private boolean cloneFromTemplateBeforeEachTest;
+
+    private PostgresTemplates templates;
+    private String template;
+    private String clone;
+    private boolean pristine;
+
     /**
      * Creates a tester that will bootstrap a DB using Docker/Testcontainers. If the tester is executed in the "global"
      * scope (per {@link BQTestTool} annotation), the tester will alter "containerDbUrl" internally
@@ -53,9 +66,114 @@ public abstract class TcDbTester extends DbTester<TcDbTester> {
         return new ContainerTcDbTester(container, userName, password);
     }
 
+    /**
+     * Configures the tester to run the init scripts, functions and changelogs once per JVM in a separate "template"
+     * database, and to give each test scope its own database created as a copy of the template via
+     * "CREATE DATABASE ... TEMPLATE". The copy is dropped at the end of the scope. Testers in the same JVM that have
+     * the same init steps in the same order share the template, so the test classes can run in parallel, each against
+     * its own database, without paying for the schema setup. Init functions added without an id are identified by
+     * their instance, so only the testers that share the same function object share the template. To share a
+     * template between the testers with different function objects, add the functions with explicit ids via
+     * {@link #initDBWithFunction(String, io.bootique.jdbc.junit.JdbcOp)}. Templates are dropped on JVM shutdown.
+     * Only supported for PostgreSQL.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public TcDbTester cloneFromTemplate() {
+        this.cloneFromTemplate = true;
+        return this;
+    }
+
+    /**
+     * Same as {@link #cloneFromTemplate()}, but replaces the database with a fresh copy of the template before each
+     * test, resetting both the schema and the data. Only supported for PostgreSQL.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public TcDbTester cloneFromTemplateBeforeEachTest() {
+        this.cloneFromTemplate = true;
+        this.cloneFromTemplateBeforeEachTest = true;
+        return this;
+    }
+
     @Override
     protected DriverDataSource createNonPoolingDataSource(BQTestScope scope) {
-        return new DriverDataSource(null, dbUrl(scope), dbUser(), dbPassword());
+        DriverDataSource dataSource = new DriverDataSource(null, dbUrl(scope), dbUser(), dbPassword());
+        if (!cloneFromTemplate) {
+            return dataSource;
+        }
+
+        // the original DB is only used to create and drop the template copies
+        this.templates = PostgresTemplates.create(dataSource, directDbUser(), directDbPassword());
+        this.template = templates.template(initializer);
+        this.clone = templates.createClone(template);
+        return templates.dataSource(clone);
+    }
+
+    @Override
+    public void afterScope(BQTestScope scope, ExtensionContext context) {
+        super.afterScope(scope, context);
+
+        if (templates != null) {
+            try {
+                templates.drop(clone);
+            } finally {
+                templates.close();
+                this.templates = null;
+                this.clone = null;
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(BQTestScope scope, ExtensionContext context) {
+
+        if (cloneFromTemplateBeforeEachTest) {
+
+            // no need to replace the DB that was just created
+            if (!pristine) {
+                String oldClone = clone;
+                this.clone = templates.createClone(template);
+                dataSourceHolder.restartPool(templates.dataSource(clone));
+                templates.drop(oldClone);
+            }
+
+            pristine = false;
+        }
+
+        super.beforeMethod(scope, context);
+    }
+
+    @Override
+    protected void initDB() {
+
+        if (cloneFromTemplate) {
+            LOGGER.info("The DB is a copy of the initialized template '{}', skipping init steps", template);
+        } else {
+            super.initDB();
+        }
+
+        this.pristine = true;
+    }
+
+    /**
+     * Returns a user name to connect to the DB server directly, bypassing Testcontainers URL.
+     *
+     * @since 4.0
+     */
+    protected String directDbUser() {
+        return dbUser();
+    }
+
+    /**
+     * Returns a password to connect to the DB server directly, bypassing Testcontainers URL.
+     *
+     * @since 4.0
+     */
+    protected String directDbPassword() {
+        return dbPassword();
     }
 
     protected abstract String dbUser();
@@ -32,6 +32,10 @@ public class UrlTcDbTester extends TcDbTester {
 
     private static final Pattern TC_REUSABLE_PATTERN = Pattern.compile("&?TC_REUSABLE=([^\\?&]+)");
 
+    // the same defaults that Testcontainers uses when creating a DB container from URL
+    private static final String TC_DEFAULT_USER = "test";
+    private static final String TC_DEFAULT_PASSWORD = "test";
+
     private final String containerDbUrl;
 
     protected UrlTcDbTester(String containerDbUrl) {
@@ -48,6 +52,18 @@ public class UrlTcDbTester extends TcDbTester {
         return null;
     }
 
+    @Override
+    protected String directDbUser() {
+        String user = urlParameter(containerDbUrl, "user");
+        return user != null ? user : TC_DEFAULT_USER;
+    }
+
+    @Override
+    protected String directDbPassword() {
+        String password = urlParameter(containerDbUrl, "password");
+        return password != null ? password : TC_DEFAULT_PASSWORD;
+    }
+
     @Override
     protected String dbUrl(BQTestScope scope) {
 
@@ -97,4 +113,21 @@ public class UrlTcDbTester extends TcDbTester {
 
         return out.toString();
     }
+
+    protected static String urlParameter(String url, String name) {
+
+        int q = url.indexOf('?');
+        if (q < 0) {
+            return null;
+        }
+
+        for (String pair : url.substring(q + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && name.equals(pair.substring(0, eq))) {
+                return pair.substring(eq + 1);
+            }
+        }
+
+        return null;
+    }
 }
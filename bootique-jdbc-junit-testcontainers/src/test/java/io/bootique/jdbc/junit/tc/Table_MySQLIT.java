@@ -25,14 +25,18 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class Table_MySQLIT extends BaseMySQLTest {
 
     static final Table t1 = db.getTable("t1");
     static final Table t5 = db.getTable("t5");
+    static final Table t6 = db.getTable("t6");
 
     @Test
     public void dateTime_ViaSelect() {
@@ -93,4 +97,66 @@ public class Table_MySQLIT extends BaseMySQLTest {
         t5.matcher().assertOneMatch();
         t5.matcher().eq("id", 2).andEq("c1", 1234567890L).andEq("c2", new BigDecimal("2.345")).assertOneMatch();
     }
+
+    @Test
+    public void persistDataSet_Bulk() throws SQLException {
+        t5.csvDataSet()
+                .columns("id,c1,c2")
+                .rows("1,,")
+                .rows("2,9223372036854775802,2.345")
+                .rows("3,0,0")
+                .build()
+                .persistBulk();
+        t5.matcher().assertMatches(3);
+
+        try (Connection c = db.getConnection()) {
+            try (Statement s = c.createStatement()) {
+                try (ResultSet rs = s.executeQuery("select `id`, `c1`, `c2` from `t5` order by `id`")) {
+                    rs.next();
+                    assertEquals(1, rs.getInt(1));
+                    assertEquals(null, rs.getObject(2));
+                    assertEquals(null, rs.getObject(3));
+
+                    rs.next();
+                    assertEquals(2, rs.getInt(1));
+                    assertEquals(Long.MAX_VALUE - 5, rs.getLong(2));
+                    assertEquals(new BigDecimal("2.345"), rs.getBigDecimal(3));
+
+                    rs.next();
+                    assertEquals(3, rs.getInt(1));
+                    assertEquals(0L, rs.getLong(2));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void insertColumns_Bulk_Types() throws SQLException {
+        LocalDateTime ldt = LocalDateTime.of(2018, 1, 10, 4, 0, 1, 5_000_000);
+        java.util.Date utilDate = java.util.Date.from(ldt.atZone(ZoneId.systemDefault()).toInstant());
+
+        t6.insertColumns("id", "c_date", "c_ts", "c_bool", "c_bit", "c_bin")
+                .bulk()
+                .values(1, utilDate, utilDate, true, true, new byte[]{1, (byte) 0xAB})
+                .values(2, LocalDate.of(2018, 1, 10), ldt, false, false, new byte[0])
+                .exec();
+        t6.matcher().assertMatches(2);
+
+        String sql = "select `c_date`, `c_ts`, `c_bool`, `c_bit`, `c_bin`"
+                + " from `t6` order by `id`";
+        try (Connection c = db.getConnection()) {
+            try (Statement s = c.createStatement()) {
+                try (ResultSet rs = s.executeQuery(sql)) {
+                    for (int i = 0; i < 2; i++) {
+                        rs.next();
+                        assertEquals(Date.valueOf("2018-01-10"), rs.getDate(1));
+                        assertEquals(Timestamp.valueOf(ldt), rs.getTimestamp(2));
+                        assertEquals(i == 0, rs.getBoolean(3));
+                        assertEquals(i == 0, rs.getBoolean(4));
+                        assertArrayEquals(i == 0 ? new byte[]{1, (byte) 0xAB} : new byte[0], rs.getBytes(5));
+                    }
+                }
+            }
+        }
+    }
 }
@@ -22,6 +22,7 @@ import io.bootique.jdbc.junit.tc.UrlTcDbTester;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class UrlTcDbTesterTest {
 
@@ -52,4 +53,13 @@ public class UrlTcDbTesterTest {
         assertEquals("jdbc:tc:postgresql:11:///?TC_REUSABLE=true&TC_INITSCRIPT=file:/abc&TC_REUSABLE=true&TC_BLA=xyz",
                 tester.reusableContainerDbUrl("jdbc:tc:postgresql:11:///?TC_REUSABLE=true&TC_INITSCRIPT=file:/abc&TC_REUSABLE=false&TC_BLA=xyz"));
     }
+
+    @Test
+    public void urlParameter() {
+        assertNull(UrlTcDbTester.urlParameter("jdbc:tc:postgresql:11:///", "user"));
+        assertNull(UrlTcDbTester.urlParameter("jdbc:tc:postgresql:11:///?", "user"));
+        assertNull(UrlTcDbTester.urlParameter("jdbc:tc:postgresql:11:///?username=u1", "user"));
+        assertEquals("u1", UrlTcDbTester.urlParameter("jdbc:tc:postgresql:11:///?user=u1", "user"));
+        assertEquals("p1", UrlTcDbTester.urlParameter("jdbc:tc:postgresql:11:///?user=u1&password=p1", "password"));
+    }
 }
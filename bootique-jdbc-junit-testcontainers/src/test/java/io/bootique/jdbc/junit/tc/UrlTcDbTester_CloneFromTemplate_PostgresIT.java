@@ -0,0 +1,78 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.junit.tc;
+
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@BQTest
+public class UrlTcDbTester_CloneFromTemplate_PostgresIT {
+
+    @BQTestTool
+    static final TcDbTester db1 = TcDbTester
+            .db("jdbc:tc:postgresql:11:///mydb")
+            .initDB("classpath:io/bootique/jdbc/junit/tc/unit/BasePostgresTest.sql")
+            .cloneFromTemplateBeforeEachTest();
+
+    @BQTestTool
+    static final TcDbTester db2 = TcDbTester
+            .db("jdbc:tc:postgresql:11:///mydb")
+            .initDB("classpath:io/bootique/jdbc/junit/tc/unit/BasePostgresTest.sql")
+            .cloneFromTemplate();
+
+    @Test
+    @DisplayName("Testers with the same init steps must get separate copies of the same template")
+    public void sharedTemplate() {
+        assertTrue(db1.getDbUrl().startsWith("jdbc:postgresql:"), db1.getDbUrl());
+        assertNotEquals(db1.getDbUrl(), db2.getDbUrl());
+
+        checkInitialData(db2);
+    }
+
+    @Test
+    @DisplayName("Check tables only contain the initial data, change data for next test")
+    public void test1() {
+        checkInitialData(db1);
+        changeData();
+    }
+
+    @Test
+    @DisplayName("Check tables only contain the initial data, change data for next test")
+    public void test2() {
+        checkInitialData(db1);
+        changeData();
+    }
+
+    protected void checkInitialData(TcDbTester db) {
+        db.getTable("t2").matcher().assertOneMatch();
+        db.getTable("t3").matcher().assertOneMatch();
+    }
+
+    protected void changeData() {
+        db1.getTable("t3").insert(14, "myname");
+        db1.getTable("t3").matcher().assertMatches(2);
+
+        db1.execStatement().exec("drop table t2");
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.tc;
+
+import io.bootique.jdbc.junit.Table;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@BQTest
+public class UrlTcDbTester_RollbackAfterEachTest_PostgresIT {
+
+    @BQTestTool
+    static final TcDbTester db = TcDbTester
+            .db("jdbc:tc:postgresql:11:///mydb")
+            .initDB("classpath:io/bootique/jdbc/junit/tc/unit/BasePostgresTest.sql")
+            .rollbackAfterEachTest();
+
+    @RepeatedTest(2)
+    @DisplayName("Check tables only contain the initial data, insert data for next test")
+    public void test() throws SQLException {
+        Table t3 = db.getTable("t3");
+        t3.matcher().assertOneMatch();
+
+        try (Connection c = db.getConnection()) {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into t3 (id, name) values (20, 'myname')");
+            }
+        }
+
+        t3.matcher().assertMatches(2);
+    }
+
+    @Test
+    @DisplayName("An expected failure in the auto-commit mode must not abort the transaction")
+    public void failureThenContinue() throws SQLException {
+        Table t3 = db.getTable("t3");
+
+        try (Connection c = db.getConnection()) {
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("insert into t3 (id, name) values (20, 'first')");
+                assertThrows(SQLException.class,
+                        () -> s.executeUpdate("insert into t3 (id, name) values (20, 'duplicate')"));
+
+                // without a per-statement savepoint, PostgreSQL would fail this with "current transaction is aborted"
+                s.executeUpdate("insert into t3 (id, name) values (21, 'second')");
+            }
+        }
+
+        t3.matcher().assertMatches(3);
+        t3.matcher().eq("id", 20).andEq("name", "first").assertOneMatch();
+        t3.matcher().eq("id", 21).assertOneMatch();
+    }
+}
@@ -29,7 +29,7 @@ public abstract class BaseMySQLTest {
     @BQTestTool(BQTestScope.GLOBAL)
     protected static final TcDbTester db = TcDbTester
             .db("jdbc:tc:mysql:8.0.20:///db")
-            .deleteBeforeEachTest("t1", "t5")
+            .deleteBeforeEachTest("t1", "t5", "t6")
             .initDB("classpath:io/bootique/jdbc/junit/tc/unit/BaseMySQLTest.sql");
 
 }
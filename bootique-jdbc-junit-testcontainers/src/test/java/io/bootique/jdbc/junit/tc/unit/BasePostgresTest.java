@@ -30,6 +30,6 @@ public abstract class BasePostgresTest {
     protected static final TcDbTester db = TcDbTester
             .db("jdbc:tc:postgresql:11:///mydb")
             // do not delete "t2", only "t1", "t3" and "t4"... this allows to assert the delete behavior in subclasses
-            .deleteBeforeEachTest("t1", "t3", "t4", "t5")
+            .deleteBeforeEachTest("t1", "t3", "t4", "t5", "t6")
             .initDB("classpath:io/bootique/jdbc/junit/tc/unit/BasePostgresTest.sql");
 }
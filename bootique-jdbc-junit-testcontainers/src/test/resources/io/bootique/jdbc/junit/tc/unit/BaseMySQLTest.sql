@@ -11,6 +11,15 @@ create table `t5` (
     `c2` decimal(10,3)
 );
 
+create table `t6` (
+    `id` integer not null primary key,
+    `c_date` date,
+    `c_ts` datetime(3),
+    `c_bool` boolean,
+    `c_bit` bit(1),
+    `c_bin` varbinary(16)
+);
+
 insert into t2 values (
   12, 'myname'
 );
@@ -27,6 +27,15 @@ create table t5 (
     c2 decimal(10,3)
 );
 
+create table t6 (
+    id integer not null primary key,
+    c_date date,
+    c_ts timestamp,
+    c_bool boolean,
+    c_int integer,
+    c_bin bytea
+);
+
 insert into t3 (id, name) values (
   10, 'myname'
 );
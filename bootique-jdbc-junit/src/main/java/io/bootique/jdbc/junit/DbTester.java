@@ -30,7 +30,9 @@ import io.bootique.jdbc.junit.metadata.DbMetadata;
 import io.bootique.jdbc.junit.script.SqlScriptRunner;
 import io.bootique.jdbc.junit.tester.DataManager;
 import io.bootique.jdbc.junit.tester.DataSourcePropertyBuilder;
+import io.bootique.jdbc.junit.tester.WorkerSchemas;
 import io.bootique.junit.BQTestScope;
+import io.bootique.junit.scope.BQAfterMethodCallback;
 import io.bootique.junit.scope.BQAfterScopeCallback;
 import io.bootique.junit.scope.BQBeforeMethodCallback;
 import io.bootique.junit.scope.BQBeforeScopeCallback;
@@ -38,7 +40,9 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A JUnit 5 extension that manages a single test database. DbTester is declared in a unit test and handles database
@@ -48,10 +52,17 @@ import java.util.Objects;
  *
  * @since 2.0
  */
-public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCallback, BQAfterScopeCallback, BQBeforeMethodCallback {
+public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCallback, BQAfterScopeCallback, BQBeforeMethodCallback,
+        BQAfterMethodCallback {
 
     protected final DbInitializer initializer;
     protected String[] deleteTablesInInsertOrder;
+    protected final Map<DbConnector, DataManager> truncateDataManagers;
+    protected String[] truncateTables;
+    protected boolean rollbackAfterEachTest;
+    protected boolean schemaPerWorker;
+    protected boolean reuseInitializedDB;
+    protected WorkerSchemas workerSchemas;
 
     protected final DataSourceHolder dataSourceHolder;
     protected DbConnector connector;
@@ -59,6 +70,7 @@ public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCa
     public DbTester() {
         this.dataSourceHolder = new DataSourceHolder();
         this.initializer = new DbInitializer();
+        this.truncateDataManagers = new ConcurrentHashMap<>();
     }
 
     public DataSource getDataSource() {
@@ -77,7 +89,10 @@ public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCa
      * @since 2.0
      */
     public DbConnector getConnector() {
-        return Objects.requireNonNull(connector, "'connector' not initialized. Called outside of JUnit lifecycle?");
+        WorkerSchemas workerSchemas = this.workerSchemas;
+        return workerSchemas != null
+                ? workerSchemas.getConnector()
+                : Objects.requireNonNull(connector, "'connector' not initialized. Called outside of JUnit lifecycle?");
     }
 
     public DbMetadata getMetadata() {
@@ -139,6 +154,38 @@ public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCa
         return (SELF) this;
     }
 
+    /**
+     * Executes provided function after the DB startup. The id identifies the function in the init steps fingerprint
+     * (see {@link #reuseInitializedDB()}), so it must change whenever the function changes in a way that affects
+     * the DB.
+     *
+     * @param id           a unique id of the function, e.g. "createUsers" or "createUsers-v2"
+     * @param initFunction a function that initializes the DB
+     * @return this tester
+     * @since 4.0
+     */
+    public SELF initDBWithFunction(String id, JdbcOp initFunction) {
+        initializer.addFunction(id, initFunction);
+        return (SELF) this;
+    }
+
+    /**
+     * Configures the Tester to skip the init scripts, functions and changelogs if the database was already initialized
+     * with the same init steps. This is only useful with the databases that survive between test runs, such as
+     * reusable Testcontainers or Derby with an explicit folder. A fingerprint of the init steps (including the contents
+     * of the scripts and changelogs and the ids of the functions) is stored in the "bq_init_fingerprint" table after
+     * the init and compared on the next startup. If it doesn't match, the startup fails, and the DB must be dropped
+     * to be reinitialized. Init functions must be added with explicit ids via
+     * {@link #initDBWithFunction(String, JdbcOp)}.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public SELF reuseInitializedDB() {
+        this.reuseInitializedDB = true;
+        return (SELF) this;
+    }
+
     /**
      * Schedules execution of a Liquibase changelog file after DB startup.
      *
@@ -201,6 +248,57 @@ public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCa
         return (SELF) this;
     }
 
+    /**
+     * Configures the Tester to remove data from the specified tables before each test, using the fastest method
+     * available for the DB. Unlike {@link #deleteBeforeEachTest(String...)}, uses "truncate" where possible, and
+     * the order of tables doesn't matter. It is calculated from the foreign keys metadata on the first cleanup, and
+     * the tables that do not depend on each other are cleaned up in parallel.
+     *
+     * @param tables a list of table names in any order.
+     * @return this tester
+     * @since 4.0
+     */
+    public SELF truncateBeforeEachTest(String... tables) {
+        this.truncateTables = tables;
+        closeTruncateDataManagers();
+        return (SELF) this;
+    }
+
+    /**
+     * Configures the Tester to run each test in a transaction that is rolled back after the test. All the connections
+     * obtained from the tester DataSource during the test (by the tester itself, as well as by the test BQRuntimes)
+     * share a single physical connection. Commits, rollbacks and auto-commit are emulated with savepoints, so that the
+     * code under test sees the expected transaction boundaries, and a failed statement doesn't abort the enclosing
+     * transaction. Unlike deleting or truncating the data, this makes the cleanup cost independent of the data volume.
+     * Since the connection is shared, this mode is only suitable for tests that access the DB from a single thread.
+     * Also, it won't isolate statements that commit implicitly (e.g. DDL on some DBs).
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public SELF rollbackAfterEachTest() {
+        this.rollbackAfterEachTest = true;
+        return (SELF) this;
+    }
+
+    /**
+     * Configures the Tester to give each test thread its own schema, so that the tests can run in parallel
+     * against a single database without seeing each other's data. A schema is created and initialized with the
+     * tester init scripts, functions and changelogs before the first test on each test thread. Schema names
+     * include the process id, so multiple test JVMs may share the same DB as well. Unqualified table names in the
+     * init scripts and in the SQL run by the code under test are resolved in the thread schema, so the code under test
+     * must access the DB on the test thread or on the threads started by it. Accessing the DB from other threads
+     * (e.g. thread pools created before the test) fails. The schemas are dropped at the end of the tester scope, if
+     * the DB allows it. This mode can't be combined with {@link #rollbackAfterEachTest()}.
+     *
+     * @return this tester
+     * @since 4.0
+     */
+    public SELF schemaPerWorker() {
+        this.schemaPerWorker = true;
+        return (SELF) this;
+    }
+
     /**
      * Returns a Bootique module that can be used to configure a test DataSource in test {@link io.bootique.BQRuntime}.
      * This method can be used to initialize one or more BQRuntimes in a test class, so that they can share the database
@@ -226,19 +324,53 @@ public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCa
 
     @Override
     public void afterScope(BQTestScope scope, ExtensionContext context) {
+        closeTruncateDataManagers();
+        closeWorkerSchemas();
         dataSourceHolder.close();
     }
 
     @Override
     public void beforeMethod(BQTestScope scope, ExtensionContext context) {
+        if (workerSchemas != null) {
+            workerSchemas.bindWorker();
+        }
+
         if (deleteTablesInInsertOrder != null && deleteTablesInInsertOrder.length > 0) {
             new DataManager(getConnector(), deleteTablesInInsertOrder).deleteData();
         }
+
+        if (truncateTables != null && truncateTables.length > 0) {
+
+            // reusing the manager to avoid reading foreign keys metadata before each test. With schema per worker,
+            // the tests are already running in parallel, so not cleaning up the tables in parallel
+            truncateDataManagers
+                    .computeIfAbsent(getConnector(), c -> new DataManager(c, truncateTables, workerSchemas == null))
+                    .truncateData();
+        }
+
+        if (rollbackAfterEachTest) {
+            dataSourceHolder.pinConnection();
+        }
+    }
+
+    @Override
+    public void afterMethod(BQTestScope scope, ExtensionContext context) {
+        dataSourceHolder.unpinConnection();
+    }
+
+    protected void closeTruncateDataManagers() {
+        truncateDataManagers.values().forEach(DataManager::close);
+        truncateDataManagers.clear();
     }
 
     protected void afterDataSourceInit() {
         initConnector();
-        initDB();
+
+        if (schemaPerWorker) {
+            initWorkerSchemas();
+        } else {
+            initDB();
+        }
     }
 
     protected void initConnector() {
@@ -246,6 +378,31 @@ public abstract class DbTester<SELF extends DbTester> implements BQBeforeScopeCa
     }
 
     protected void initDB() {
-        initializer.exec(dataSourceHolder);
+        if (reuseInitializedDB) {
+            initializer.execIfChanged(dataSourceHolder);
+        } else {
+            initializer.exec(dataSourceHolder);
+        }
+    }
+
+    protected void initWorkerSchemas() {
+
+        if (rollbackAfterEachTest) {
+            throw new IllegalStateException("'rollbackAfterEachTest' can't be combined with 'schemaPerWorker'");
+        }
+
+        // init steps will run for each worker schema on first access
+        this.workerSchemas = new WorkerSchemas(dataSourceHolder, connector, initializer);
+        dataSourceHolder.onCheckout(workerSchemas::prepareConnection);
+    }
+
+    protected void closeWorkerSchemas() {
+
+        WorkerSchemas workerSchemas = this.workerSchemas;
+        if (workerSchemas != null) {
+            this.workerSchemas = null;
+            dataSourceHolder.onCheckout(null);
+            workerSchemas.close();
+        }
     }
 }
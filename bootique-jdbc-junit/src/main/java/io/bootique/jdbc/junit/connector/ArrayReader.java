@@ -36,18 +36,21 @@ public abstract class ArrayReader implements RowReader {
     public static RowReader create(DbColumnMetadata... columns) {
 
         if (columns.length == 0) {
-            return ResultSetRowReader.instance;
+            return new ResultSetRowReader();
         }
 
+        // a single calendar shared by all TIME / TIMESTAMP readers of the row
+        Calendar calendar = Calendar.getInstance();
+
         ColumnReader[] columnReaders = new ColumnReader[columns.length];
         for (int i = 0; i < columnReaders.length; i++) {
-            columnReaders[i] = forJdbcType(columns[i].getType(), i + 1);
+            columnReaders[i] = forJdbcType(columns[i].getType(), i + 1, calendar);
         }
 
         return new PrecompiledRowReader(columnReaders);
     }
 
-    static ColumnReader forJdbcType(int type, int pos) {
+    static ColumnReader forJdbcType(int type, int pos, Calendar calendar) {
         // TODO: add conversions to java.time types?
 
         return switch (type) {
@@ -55,14 +58,42 @@ public abstract class ArrayReader implements RowReader {
 
             // MySQL 8 requires a Calendar instance to save local time without undesired TZ conversion.
             // Other DBs work fine with or without the calendar
-            case Types.TIME -> rs -> rs.getTime(pos, Calendar.getInstance());
+            case Types.TIME -> rs -> rs.getTime(pos, calendar);
             // MySQL 8 requires a Calendar instance to save local time without undesired TZ conversion.
             // Other DBs work fine with or without the calendar
-            case Types.TIMESTAMP -> rs -> rs.getTimestamp(pos, Calendar.getInstance());
+            case Types.TIMESTAMP -> rs -> rs.getTimestamp(pos, calendar);
             default -> rs -> rs.getObject(pos);
         };
     }
 
+    /**
+     * Returns a reader for the column of a known Java class, reading numbers via primitive getters to avoid the
+     * driver "getObject" overhead. The class must be taken from the ResultSet metadata, as the JDBC type alone is not
+     * enough to tell how the driver maps a column (e.g. MySQL "INT UNSIGNED" is reported as INTEGER, but read as Long).
+     */
+    static ColumnReader forJavaClass(String className, int type, int pos, Calendar calendar) {
+
+        if (className == null) {
+            return forJdbcType(type, pos, calendar);
+        }
+
+        return switch (className) {
+            case "java.lang.Integer" -> rs -> {
+                int i = rs.getInt(pos);
+                return rs.wasNull() ? null : i;
+            };
+            case "java.lang.Long" -> rs -> {
+                long l = rs.getLong(pos);
+                return rs.wasNull() ? null : l;
+            };
+            case "java.lang.Double" -> rs -> {
+                double d = rs.getDouble(pos);
+                return rs.wasNull() ? null : d;
+            };
+            default -> forJdbcType(type, pos, calendar);
+        };
+    }
+
     protected ArrayReader() {
     }
 
@@ -82,24 +113,49 @@ public abstract class ArrayReader implements RowReader {
 
     protected abstract ColumnReader[] getColumnReaders(ResultSet rs) throws SQLException;
 
+    /**
+     * A reader that compiles column readers from the ResultSet metadata. This is done once per ResultSet, and the
+     * readers are reused for all its rows.
+     */
     static class ResultSetRowReader extends ArrayReader {
 
-        static final ResultSetRowReader instance = new ResultSetRowReader();
+        private CompiledReaders compiled;
 
         @Override
         protected ColumnReader[] getColumnReaders(ResultSet rs) throws SQLException {
+
+            // read the field once, as the reader may be shared between threads
+            CompiledReaders compiled = this.compiled;
+            if (compiled == null || compiled.resultSet != rs) {
+                compiled = new CompiledReaders(rs, compileReaders(rs));
+                this.compiled = compiled;
+            }
+
+            return compiled.readers;
+        }
+
+        private static ColumnReader[] compileReaders(ResultSet rs) throws SQLException {
             ResultSetMetaData md = rs.getMetaData();
             int w = md.getColumnCount();
 
+            // calendar is reused for all rows, which is safe, as a ResultSet is read by a single thread
+            Calendar calendar = Calendar.getInstance();
             ColumnReader[] readers = new ColumnReader[w];
 
             for (int i = 0; i < w; i++) {
                 int jdbcPos = i + 1;
-                readers[i] = ArrayReader.forJdbcType(md.getColumnType(jdbcPos), jdbcPos);
+                readers[i] = ArrayReader.forJavaClass(
+                        md.getColumnClassName(jdbcPos),
+                        md.getColumnType(jdbcPos),
+                        jdbcPos,
+                        calendar);
             }
 
             return readers;
         }
+
+        private record CompiledReaders(ResultSet resultSet, ColumnReader[] readers) {
+        }
     }
 
     static class PrecompiledRowReader extends ArrayReader {
@@ -20,6 +20,7 @@
 package io.bootique.jdbc.junit.dataset;
 
 import io.bootique.jdbc.junit.Table;
+import io.bootique.jdbc.junit.sql.InsertBuilder;
 import io.bootique.resource.ResourceFactory;
 import org.apache.commons.csv.CSVFormat;
 
@@ -39,6 +40,7 @@ public class CsvDataSetBuilder {
 
     private CSVFormat format;
     private FromStringConverter valueConverter;
+    private boolean bulk;
 
     public CsvDataSetBuilder(Table table) {
         this.table = table;
@@ -59,6 +61,17 @@ public class CsvDataSetBuilder {
         return this;
     }
 
+    /**
+     * Makes "persist(..)" methods load the CSV via a DB-native bulk loading mechanism (e.g. "copy" on PostgreSQL), if
+     * the DB provides one. See {@link InsertBuilder#bulk()}.
+     *
+     * @since 4.0
+     */
+    public CsvDataSetBuilder bulk() {
+        this.bulk = true;
+        return this;
+    }
+
     /**
      * Starts building a data set with the specified columns.
      *
@@ -91,4 +104,41 @@ public class CsvDataSetBuilder {
             throw new RuntimeException("Error reading CSV " + csvResource, e);
         }
     }
+
+    /**
+     * Inserts the data from a CSV file resource into the table, streaming the rows from the file to the DB in JDBC
+     * batches (or via a DB-native mechanism, if {@link #bulk()} is set). Unlike "load(..).persist()", never holds the
+     * entire data set in memory, so it should be used for large files.
+     *
+     * @since 4.0
+     */
+    public void persist(String csvResource) {
+        persist(new ResourceFactory(csvResource));
+    }
+
+    /**
+     * Inserts the data from a CSV file resource into the table, streaming the rows from the file to the DB in JDBC
+     * batches (or via a DB-native mechanism, if {@link #bulk()} is set). Unlike "load(..).persist()", never holds the
+     * entire data set in memory, so it should be used for large files.
+     *
+     * @since 4.0
+     */
+    public void persist(ResourceFactory csvResource) {
+        persist(csvResource, InsertBuilder.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Inserts the data from a CSV file resource into the table, streaming the rows from the file to the DB in JDBC
+     * batches of the specified size (or via a DB-native mechanism, if {@link #bulk()} is set).
+     *
+     * @since 4.0
+     */
+    public void persist(ResourceFactory csvResource, int batchSize) {
+
+        try (Reader reader = new InputStreamReader(csvResource.getUrl().openStream(), StandardCharsets.UTF_8)) {
+            new CsvReader(table, format, valueConverter).insertData(reader, batchSize, bulk);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV " + csvResource, e);
+        }
+    }
 }
@@ -21,6 +21,7 @@ package io.bootique.jdbc.junit.dataset;
 
 import io.bootique.jdbc.junit.Table;
 import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+import io.bootique.jdbc.junit.sql.InsertBuilder;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -64,6 +65,41 @@ class CsvReader {
         }
     }
 
+    /**
+     * Parses CSV with a header row and inserts the data rows into the table as they are read, without collecting
+     * them in memory.
+     */
+    void insertData(Reader dataReader, int batchSize, boolean bulk) throws IOException {
+        try (CSVParser parser = new CSVParser(dataReader, format, 0, 0)) {
+
+            Iterator<CSVRecord> rows = parser.iterator();
+            if (!rows.hasNext()) {
+                return;
+            }
+
+            DbColumnMetadata[] header = getHeader(rows.next());
+            Iterator<Object[]> data = new Iterator<>() {
+
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                    return getRow(rows.next(), header);
+                }
+            };
+
+            InsertBuilder insert = table.insertColumns(header).batch(batchSize);
+            if (bulk) {
+                insert.bulk();
+            }
+
+            insert.exec(data);
+        }
+    }
+
     private DbColumnMetadata[] getHeader(CSVRecord record) {
         DbColumnMetadata[] header = new DbColumnMetadata[record.size()];
 
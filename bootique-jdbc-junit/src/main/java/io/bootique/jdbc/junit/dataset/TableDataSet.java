@@ -56,7 +56,22 @@ public record TableDataSet(
     @Override
     public void persist() {
         if (size() > 0) {
-            InsertBuilder builder = table.insertColumns(header());
+            // data sets can be large, so use JDBC batches
+            InsertBuilder builder = table.insertColumns(header()).batch();
+            records.forEach(builder::values);
+            builder.exec();
+        }
+    }
+
+    /**
+     * Inserts data set records to the underlying DB table via a DB-native bulk loading mechanism (e.g. "copy" on
+     * PostgreSQL), if the DB provides one, and in JDBC batches otherwise. See {@link InsertBuilder#bulk()}.
+     *
+     * @since 4.0
+     */
+    public void persistBulk() {
+        if (size() > 0) {
+            InsertBuilder builder = table.insertColumns(header()).bulk();
             records.forEach(builder::values);
             builder.exec();
         }
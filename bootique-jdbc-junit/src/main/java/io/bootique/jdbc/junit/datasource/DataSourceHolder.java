@@ -18,6 +18,7 @@
  */
 package io.bootique.jdbc.junit.datasource;
 
+import io.bootique.jdbc.junit.JdbcOp;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
@@ -40,7 +41,10 @@ public class DataSourceHolder implements DataSource {
     private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(DataSourceHolder.class);
 
     private String dbUrl;
+    private DriverDataSource nonPoolingDataSource;
     private volatile PoolingDataSource dataSource;
+    private volatile PinnedConnection pinnedConnection;
+    private volatile JdbcOp onCheckout;
 
     public void initIfNeeded(Supplier<DriverDataSource> dataSourceSupplier, Runnable runAfterInit) {
         if (this.dataSource == null) {
@@ -50,6 +54,7 @@ public class DataSourceHolder implements DataSource {
                     // capture both a DataSource and a DB URL
                     DriverDataSource nonPooling = dataSourceSupplier.get();
                     this.dbUrl = nonPooling.getDbUrl();
+                    this.nonPoolingDataSource = nonPooling;
                     LOGGER.info("Starting DbTester DataSource: {}", dbUrl);
 
                     this.dataSource = createPoolingDataSource(nonPooling);
@@ -67,7 +72,108 @@ public class DataSourceHolder implements DataSource {
         return new PoolingDataSource(nonPooling, parameters);
     }
 
+    /**
+     * Starts a mode when all the connections returned by this DataSource share a single physical connection in a
+     * transaction that is rolled back on {@link #unpinConnection()}. Commits and rollbacks by the code using the
+     * DataSource are emulated with savepoints. Since the connection is shared, this mode is only suitable for
+     * single-threaded tests.
+     *
+     * @since 4.0
+     */
+    public synchronized void pinConnection() {
+
+        if (pinnedConnection != null) {
+            throw new IllegalStateException("Connection is already pinned");
+        }
+
+        Connection connection;
+        try {
+            connection = checkout();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error opening connection", e);
+        }
+
+        try {
+            this.pinnedConnection = new PinnedConnection(connection);
+        } catch (SQLException e) {
+
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+
+            throw new RuntimeException("Error starting a transaction on the pinned connection", e);
+        }
+    }
+
+    /**
+     * Rolls back all the changes made via the pinned connection, and returns the DataSource to the normal mode.
+     * Does nothing if the connection is not pinned.
+     *
+     * @since 4.0
+     */
+    public synchronized void unpinConnection() {
+
+        PinnedConnection pinned = this.pinnedConnection;
+        if (pinned == null) {
+            return;
+        }
+
+        this.pinnedConnection = null;
+
+        try {
+            pinned.release();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error rolling back the pinned connection", e);
+        }
+    }
+
+    /**
+     * Closes all the pooled connections, runs the provided operation (that would usually restart or otherwise alter
+     * the underlying DB), and starts a new pool. The code using this DataSource must not hold any open connections
+     * when this method is called.
+     *
+     * @since 4.0
+     */
+    public synchronized void restartPool(Runnable whileStopped) {
+
+        unpinConnection();
+        PoolingDataSource oldDataSource = Objects.requireNonNull(
+                this.dataSource,
+                "'dataSource' not initialized. Called outside of JUnit lifecycle?");
+
+        LOGGER.info("Restarting DbTester DataSource: {}", dbUrl);
+        oldDataSource.close();
+        whileStopped.run();
+        this.dataSource = createPoolingDataSource(nonPoolingDataSource);
+    }
+
+    /**
+     * Closes all the pooled connections and starts a new pool connected to a different database. The code using this
+     * DataSource must not hold any open connections when this method is called.
+     *
+     * @since 4.0
+     */
+    public synchronized void restartPool(DriverDataSource nonPooling) {
+        restartPool(() -> {
+            this.nonPoolingDataSource = Objects.requireNonNull(nonPooling);
+            this.dbUrl = nonPooling.getDbUrl();
+        });
+    }
+
+    /**
+     * Sets an operation to run on each connection before it is returned to the caller. E.g. to switch the
+     * connection to a certain schema.
+     *
+     * @since 4.0
+     */
+    public void onCheckout(JdbcOp op) {
+        this.onCheckout = op;
+    }
+
     public void close() {
+        unpinConnection();
+
         if (dataSource != null) {
             dataSource.close();
         }
@@ -83,7 +189,25 @@ public class DataSourceHolder implements DataSource {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return nonNullDataSource().getConnection();
+        PinnedConnection pinned = this.pinnedConnection;
+        return pinned != null ? pinned.newHandle() : checkout();
+    }
+
+    protected Connection checkout() throws SQLException {
+
+        Connection connection = nonNullDataSource().getConnection();
+
+        JdbcOp op = this.onCheckout;
+        if (op != null) {
+            try {
+                op.run(connection);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        return connection;
     }
 
     @Override
@@ -0,0 +1,218 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+/**
+ * A single physical connection shared by all the code in a test, whose changes are rolled back at the end of the test.
+ * Each call to {@link #newHandle()} returns a proxy that looks like a regular connection to the caller, but never
+ * commits or closes the underlying connection. Instead, "commit" moves a savepoint forward, and "rollback" reverts to
+ * the last savepoint, so the code under test still sees the expected transaction boundaries. In the (emulated)
+ * auto-commit mode, each statement runs within its own savepoint that is released if the statement succeeds, and
+ * rolled back if it fails. So a failed statement doesn't affect the subsequent ones (e.g. doesn't abort the whole
+ * transaction on PostgreSQL), same as with a real auto-commit.
+ *
+ * @since 4.0
+ */
+class PinnedConnection {
+
+    private final Connection connection;
+    private final boolean originalAutoCommit;
+    private Savepoint savepoint;
+
+    PinnedConnection(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.originalAutoCommit = connection.getAutoCommit();
+
+        connection.setAutoCommit(false);
+        this.savepoint = connection.setSavepoint();
+    }
+
+    Connection newHandle() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class[]{Connection.class},
+                new Handle());
+    }
+
+    /**
+     * Rolls back all the changes made since the connection was pinned, and returns the connection to the pool.
+     */
+    synchronized void release() throws SQLException {
+        try {
+            connection.rollback();
+            connection.setAutoCommit(originalAutoCommit);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private synchronized void commit() throws SQLException {
+
+        // release the old savepoint first, as on some DBs releasing a savepoint also releases all the later ones
+        connection.releaseSavepoint(savepoint);
+        savepoint = connection.setSavepoint();
+    }
+
+    private synchronized void rollback() throws SQLException {
+        connection.rollback(savepoint);
+    }
+
+    private synchronized Object executeInAutoCommit(Statement statement, Method method, Object[] args)
+            throws Throwable {
+
+        Savepoint statementSavepoint = connection.setSavepoint();
+
+        Object result;
+        try {
+            result = method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            try {
+                connection.rollback(statementSavepoint);
+                connection.releaseSavepoint(statementSavepoint);
+            } catch (SQLException rollbackError) {
+                e.getCause().addSuppressed(rollbackError);
+            }
+
+            throw e.getCause();
+        }
+
+        connection.releaseSavepoint(statementSavepoint);
+        commit();
+        return result;
+    }
+
+    private class Handle implements InvocationHandler {
+
+        private boolean closed;
+        private boolean autoCommit = true;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed || connection.isClosed();
+                case "commit":
+                    checkOpen();
+                    commit();
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        checkOpen();
+                        rollback();
+                        return null;
+                    }
+                    break;
+                case "getAutoCommit":
+                    checkOpen();
+                    return autoCommit;
+                case "setAutoCommit":
+                    checkOpen();
+
+                    // per JDBC spec, switching to auto-commit mode commits the current transaction
+                    boolean newAutoCommit = (Boolean) args[0];
+                    if (newAutoCommit && !autoCommit) {
+                        commit();
+                    }
+
+                    autoCommit = newAutoCommit;
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PinnedConnection[" + connection + "]";
+            }
+
+            checkOpen();
+
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            return result instanceof Statement st
+                    ? Proxy.newProxyInstance(
+                            Connection.class.getClassLoader(),
+                            new Class[]{method.getReturnType()},
+                            new StatementHandle(proxy, st))
+                    : result;
+        }
+
+        private void checkOpen() throws SQLException {
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+        }
+
+        // a Statement that runs within its own savepoint when the connection is in the auto-commit mode
+        private class StatementHandle implements InvocationHandler {
+
+            private final Object connectionProxy;
+            private final Statement statement;
+
+            StatementHandle(Object connectionProxy, Statement statement) {
+                this.connectionProxy = connectionProxy;
+                this.statement = statement;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                switch (method.getName()) {
+                    case "getConnection":
+                        return connectionProxy;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return statement.toString();
+                }
+
+                if (autoCommit && method.getName().startsWith("execute")) {
+                    checkOpen();
+                    return executeInAutoCommit(statement, method, args);
+                }
+
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
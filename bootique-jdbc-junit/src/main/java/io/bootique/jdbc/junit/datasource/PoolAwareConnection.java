@@ -336,23 +336,23 @@ public class PoolAwareConnection implements Connection {
     }
 
     @Override
-    public Savepoint setSavepoint() {
-        throw new UnsupportedOperationException("Method setSavepoint() not yet implemented.");
+    public Savepoint setSavepoint() throws SQLException {
+        return connection.setSavepoint();
     }
 
     @Override
-    public Savepoint setSavepoint(String name) {
-        throw new UnsupportedOperationException("Method setSavepoint() not yet implemented.");
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return connection.setSavepoint(name);
     }
 
     @Override
-    public void rollback(Savepoint savepoint) {
-        throw new UnsupportedOperationException("Method rollback() not yet implemented.");
+    public void rollback(Savepoint savepoint) throws SQLException {
+        connection.rollback(savepoint);
     }
 
     @Override
-    public void releaseSavepoint(Savepoint savepoint) {
-        throw new UnsupportedOperationException("Method releaseSavepoint() not yet implemented.");
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        connection.releaseSavepoint(savepoint);
     }
 
     @Override
@@ -29,12 +29,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 /**
@@ -44,10 +56,30 @@ public class DbInitializer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DbInitializer.class);
 
+    /**
+     * A table storing the fingerprint of the init steps that were applied to the DB.
+     *
+     * @since 4.0
+     */
+    public static final String FINGERPRINT_TABLE = "bq_init_fingerprint";
+
+    // JVM-wide ids of the init functions added without explicit ids, assigned per function instance
+    private static final Map<JdbcOp, Long> FUNCTION_INSTANCE_IDS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong FUNCTION_INSTANCE_ID_SEQ = new AtomicLong();
+
     private final List<Consumer<DataSource>> initSteps;
+    private final List<String> initStepLabels;
+
+    // functions have no stable identity between the JVM runs, unless the caller provides one
+    private boolean hasFunctionsWithoutIds;
+
+    // script and changelog resources, whose contents are included in the fingerprint
+    private final List<ResourceFactory> initStepResources;
 
     public DbInitializer() {
         this.initSteps = new ArrayList<>();
+        this.initStepLabels = new ArrayList<>();
+        this.initStepResources = new ArrayList<>();
     }
 
     public void addScript(String initDBScript, String delimiter) {
@@ -56,6 +88,8 @@ public class DbInitializer {
         Consumer<DataSource> step = ds -> execScript(ds, initDBScriptResource, delimiter);
 
         initSteps.add(step);
+        initStepLabels.add("script:" + initDBScript + ":" + delimiter);
+        initStepResources.add(initDBScriptResource);
     }
 
     public void addFunction(JdbcOp initFunction) {
@@ -63,6 +97,30 @@ public class DbInitializer {
         Consumer<DataSource> step = ds -> execJdbcOp(ds, initFunction);
 
         initSteps.add(step);
+
+        // capturing lambdas declared at the same place in the code share the class, but may differ in the captured
+        // state, so the function instance is the only safe identity
+        long instanceId = FUNCTION_INSTANCE_IDS.computeIfAbsent(initFunction,
+                f -> FUNCTION_INSTANCE_ID_SEQ.incrementAndGet());
+        initStepLabels.add("function@" + instanceId);
+        initStepResources.add(null);
+        hasFunctionsWithoutIds = true;
+    }
+
+    /**
+     * Adds an init function with an explicit id. The id identifies the function in the init steps fingerprint, so it
+     * must change whenever the function changes in a way that affects the DB.
+     *
+     * @since 4.0
+     */
+    public void addFunction(String id, JdbcOp initFunction) {
+        Objects.requireNonNull(id, "Null 'id'");
+        Objects.requireNonNull(initFunction, "Null 'initFunction'");
+        Consumer<DataSource> step = ds -> execJdbcOp(ds, initFunction);
+
+        initSteps.add(step);
+        initStepLabels.add("function-id:" + id);
+        initStepResources.add(null);
     }
 
     public void addLiquibase(String changelog, String liquibaseContext) {
@@ -71,12 +129,131 @@ public class DbInitializer {
         Consumer<DataSource> step = ds -> execLiquibase(ds, changelogResource, liquibaseContext);
 
         initSteps.add(step);
+        initStepLabels.add("liquibase:" + changelog + ":" + liquibaseContext);
+        initStepResources.add(changelogResource);
+    }
+
+    /**
+     * Returns a String that identifies the init steps of this initializer within the current JVM. Two initializers
+     * with the same signature are expected to produce identical databases. Init functions are identified by their
+     * explicit ids, or, if added without an id, by the function instance.
+     *
+     * @since 4.0
+     */
+    public String getSignature() {
+        return String.join("|", initStepLabels);
+    }
+
+    /**
+     * Returns a hash of the init steps, including the contents of the SQL scripts and Liquibase changelog files,
+     * that stays the same between the JVM runs, as long as the steps do not change. Init functions are identified by
+     * their explicit ids, so the changes in their code are not detected, unless the id changes. Neither are the changes
+     * in the files included from the changelogs.
+     *
+     * @throws IllegalStateException if any of the init functions was added without an id
+     * @since 4.0
+     */
+    public String getFingerprint() {
+
+        if (hasFunctionsWithoutIds) {
+            throw new IllegalStateException("Can't fingerprint init functions without ids. "
+                    + "Use 'initDBWithFunction(id, function)' to add the functions");
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+
+        int len = initSteps.size();
+        for (int i = 0; i < len; i++) {
+
+            digest.update(initStepLabels.get(i).getBytes(StandardCharsets.UTF_8));
+
+            ResourceFactory resource = initStepResources.get(i);
+            if (resource != null) {
+                try (InputStream in = resource.getUrl().openStream()) {
+                    digest.update(in.readAllBytes());
+                } catch (IOException e) {
+                    throw new RuntimeException("Error reading " + resource.getUrl(), e);
+                }
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
     }
 
     public void exec(DataSource dataSource) {
         initSteps.forEach(s -> s.accept(dataSource));
     }
 
+    /**
+     * Runs the init steps, unless the DB fingerprint stored in the {@link #FINGERPRINT_TABLE} matches the fingerprint
+     * of this initializer, i.e. the DB was already initialized with the same steps (e.g. in a previous test run). If
+     * the DB was initialized with different steps, it is not reused, and an exception is thrown, as the steps can't
+     * be safely run on top of the objects created by their previous version. Such DB must be dropped by the caller.
+     *
+     * @since 4.0
+     */
+    public void execIfChanged(DataSource dataSource) {
+
+        String fingerprint = getFingerprint();
+        String dbFingerprint = readFingerprint(dataSource);
+
+        if (fingerprint.equals(dbFingerprint)) {
+            LOGGER.info("DB is already initialized with the same init steps ({}), skipping", fingerprint);
+            return;
+        }
+
+        if (dbFingerprint != null) {
+            throw new IllegalStateException("DB was initialized with different init steps (" + dbFingerprint
+                    + "), expected " + fingerprint + ". Drop the DB to reinitialize it");
+        }
+
+        exec(dataSource);
+        writeFingerprint(dataSource, fingerprint);
+    }
+
+    protected String readFingerprint(DataSource dataSource) {
+        try (Connection c = dataSource.getConnection()) {
+            try (Statement st = c.createStatement()) {
+                try (ResultSet rs = st.executeQuery("select fingerprint from " + FINGERPRINT_TABLE)) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            }
+        } catch (SQLException e) {
+            // the table is likely missing, so the DB has never been initialized
+            return null;
+        }
+    }
+
+    protected void writeFingerprint(DataSource dataSource, String fingerprint) {
+        try (Connection c = dataSource.getConnection()) {
+
+            try (Statement st = c.createStatement()) {
+                try {
+                    st.executeUpdate("delete from " + FINGERPRINT_TABLE);
+                } catch (SQLException e) {
+                    st.execute("create table " + FINGERPRINT_TABLE + " (fingerprint varchar(64) not null)");
+                }
+            }
+
+            String insert = "insert into " + FINGERPRINT_TABLE + " (fingerprint) values (?)";
+            try (PreparedStatement st = c.prepareStatement(insert)) {
+                st.setString(1, fingerprint);
+                st.executeUpdate();
+            }
+
+            if (!c.getAutoCommit()) {
+                c.commit();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving init steps fingerprint", e);
+        }
+    }
+
     protected void execLiquibase(DataSource dataSource, ResourceFactory changelog, String liquibaseContext) {
         LOGGER.info("running init Liquibase changelog {}", changelog.getUrl());
         Contexts contexts = liquibaseContext != null ? new Contexts(liquibaseContext) : new Contexts();
@@ -18,6 +18,7 @@
  */
 package io.bootique.jdbc.junit.metadata;
 
+import io.bootique.jdbc.junit.metadata.flavors.BulkLoader;
 import io.bootique.jdbc.junit.metadata.flavors.DbFlavor;
 import io.bootique.jdbc.junit.metadata.flavors.DbFlavorFactory;
 
@@ -36,15 +37,24 @@ public class DbMetadata {
 
     private final DataSource dataSource;
     private final DbFlavor flavor;
+    private final String defaultSchema;
     private final Map<TableFQName, DbTableMetadata> tables;
 
     protected DbMetadata(DataSource dataSource, DbFlavor flavor) {
+        this(dataSource, flavor, null);
+    }
+
+    /**
+     * @since 4.0
+     */
+    protected DbMetadata(DataSource dataSource, DbFlavor flavor, String defaultSchema) {
 
         // note that we can't cache DatabaseMetaData, as it stops working once the underlying connection is closed,
         // so keeping the DataSource around to get it back whenever we need to compile table info, etc.
 
         this.dataSource = dataSource;
         this.flavor = Objects.requireNonNull(flavor);
+        this.defaultSchema = defaultSchema;
         this.tables = new ConcurrentHashMap<>();
     }
 
@@ -60,6 +70,16 @@ public class DbMetadata {
         return new DbMetadata(dataSource, flavor);
     }
 
+    /**
+     * Creates metadata that resolves unqualified table names in the provided schema (or catalog, if the DB doesn't
+     * support schemas).
+     *
+     * @since 4.0
+     */
+    public static DbMetadata create(DataSource dataSource, DbFlavor flavor, String defaultSchema) {
+        return new DbMetadata(dataSource, flavor, defaultSchema);
+    }
+
     public DbFlavor getFlavor() {
         return flavor;
     }
@@ -80,6 +100,14 @@ public class DbMetadata {
         return flavor.supportsBatchUpdates();
     }
 
+    /**
+     * @return a DB-native bulk loading strategy or null if not available for the DB.
+     * @since 4.0
+     */
+    public BulkLoader getBulkLoader() {
+        return flavor.getBulkLoader();
+    }
+
     public boolean supportsCatalogs() {
         return flavor.supportsCatalogs();
     }
@@ -88,8 +116,16 @@ public class DbMetadata {
         return flavor.supportsSchemas();
     }
 
+    /**
+     * @return a schema used for unqualified table names, or null if such names are resolved by the DB.
+     * @since 4.0
+     */
+    public String getDefaultSchema() {
+        return defaultSchema;
+    }
+
     public DbTableMetadata getTable(String name) {
-        TableFQName fqName = parseTableName(name);
+        TableFQName fqName = withDefaultSchema(parseTableName(name));
         return tables.computeIfAbsent(fqName, this::loadTableMetadata);
     }
 
@@ -143,6 +179,21 @@ public class DbMetadata {
         }
     }
 
+    private TableFQName withDefaultSchema(TableFQName name) {
+
+        if (defaultSchema == null || name.hasSchema() || name.hasCatalog()) {
+            return name;
+        }
+
+        if (supportsSchemas()) {
+            return new TableFQName(null, defaultSchema, name.table());
+        } else if (supportsCatalogs()) {
+            return new TableFQName(defaultSchema, null, name.table());
+        }
+
+        return name;
+    }
+
     private DbTableMetadata loadTableMetadata(TableFQName tableName) {
 
         Map<String, Integer> columnsAndTypes = new LinkedHashMap<>();
@@ -0,0 +1,59 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.metadata.flavors;
+
+import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * A strategy for loading large amounts of data into a table via a DB-native mechanism, which is usually much faster
+ * than even batched parameterized inserts.
+ *
+ * @since 4.0
+ */
+public interface BulkLoader {
+
+    /**
+     * Checks whether bulk loading is possible over the provided connection. It may not be, if the driver is not
+     * on the classpath, or the feature is disabled on the client or the server.
+     */
+    boolean canLoad(Connection connection) throws SQLException;
+
+    /**
+     * Creates DB-specific load SQL.
+     *
+     * @param tableName   a fully-qualified table name, quoted if needed
+     * @param columnNames loaded column names, quoted if needed
+     * @param columns     loaded column metadata, matching "columnNames"
+     */
+    String createLoadSql(String tableName, String[] columnNames, DbColumnMetadata[] columns);
+
+    /**
+     * Streams the rows to the DB using the SQL previously created by {@link #createLoadSql(String, String[],
+     * DbColumnMetadata[])}. Rows are consumed lazily, so the memory footprint doesn't depend on the number of rows.
+     *
+     * @return the number of loaded rows
+     */
+    long load(Connection connection, String sql, DbColumnMetadata[] columns, Iterator<Object[]> rows)
+            throws SQLException;
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.metadata.flavors;
+
+import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+
+/**
+ * Formats values as text that a DB would parse the same way as the value bound via JDBC to a column of a given
+ * {@link Types type}. Date/time values are interpreted in the JVM default time zone, just like the drivers do when
+ * binding them without an explicit calendar.
+ *
+ * @since 4.0
+ */
+class BulkValueFormatter {
+
+    private BulkValueFormatter() {
+    }
+
+    static String format(DbColumnMetadata column, Object value) {
+
+        return switch (column.getType()) {
+            case Types.DATE -> formatDate(value);
+            case Types.TIME -> formatTime(value);
+            case Types.TIMESTAMP -> formatTimestamp(value);
+            case Types.TIME_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE -> formatTimestampWithTimezone(value);
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                 Types.CLOB, Types.NCLOB -> value.toString();
+
+            // "1" / "0" are accepted for booleans, bits and numbers alike, unlike "true" / "false"
+            default -> value instanceof Boolean b ? (b ? "1" : "0") : formatOther(value);
+        };
+    }
+
+    private static String formatDate(Object value) {
+        return switch (value) {
+            case java.util.Date d -> new Date(d.getTime()).toString();
+            case Calendar c -> new Date(c.getTimeInMillis()).toString();
+            case Instant i -> LocalDate.ofInstant(i, ZoneId.systemDefault()).toString();
+            case OffsetDateTime dt -> dt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDate().toString();
+            case ZonedDateTime dt -> dt.withZoneSameInstant(ZoneId.systemDefault()).toLocalDate().toString();
+            case LocalDateTime dt -> dt.toLocalDate().toString();
+            default -> value.toString();
+        };
+    }
+
+    private static String formatTime(Object value) {
+        return switch (value) {
+            case java.util.Date d -> new Time(d.getTime()).toString();
+            case Calendar c -> new Time(c.getTimeInMillis()).toString();
+            case LocalTime t -> Time.valueOf(t).toString();
+            case LocalDateTime dt -> Time.valueOf(dt.toLocalTime()).toString();
+            default -> value.toString();
+        };
+    }
+
+    private static String formatTimestamp(Object value) {
+        return switch (value) {
+
+            // unlike java.util.Date, Timestamp.toString() is "yyyy-mm-dd hh:mm:ss.fffffffff" in the default time zone
+            case Timestamp ts -> ts.toString();
+            case java.util.Date d -> new Timestamp(d.getTime()).toString();
+            case Calendar c -> new Timestamp(c.getTimeInMillis()).toString();
+            case Instant i -> Timestamp.from(i).toString();
+            case OffsetDateTime dt -> Timestamp.from(dt.toInstant()).toString();
+            case ZonedDateTime dt -> Timestamp.from(dt.toInstant()).toString();
+            case LocalDateTime dt -> Timestamp.valueOf(dt).toString();
+            case LocalDate d -> Timestamp.valueOf(d.atStartOfDay()).toString();
+            default -> value.toString();
+        };
+    }
+
+    private static String formatTimestampWithTimezone(Object value) {
+        return switch (value) {
+            case java.util.Date d -> d.toInstant().toString();
+            case Calendar c -> c.toInstant().toString();
+            case ZonedDateTime dt -> dt.toOffsetDateTime().toString();
+            case OffsetDateTime dt -> dt.toString();
+            case OffsetTime t -> t.toString();
+            default -> value.toString();
+        };
+    }
+
+    private static String formatOther(Object value) {
+        return value instanceof BigDecimal bd ? bd.toPlainString() : value.toString();
+    }
+}
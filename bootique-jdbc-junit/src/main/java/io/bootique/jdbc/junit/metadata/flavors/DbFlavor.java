@@ -18,6 +18,9 @@
  */
 package io.bootique.jdbc.junit.metadata.flavors;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+
 /**
  * Provides DB type specific metadata and strategies for interacting with the database.
  *
@@ -35,10 +38,79 @@ public interface DbFlavor {
 
     boolean supportsSchemas();
 
+    /**
+     * Returns whether the DB supports "truncate table" statement, which is usually much faster than "delete from".
+     *
+     * @since 4.0
+     */
+    default boolean supportsTruncate() {
+        return false;
+    }
+
+    /**
+     * Returns SQL that disables foreign key checks for the current connection, or null if the DB has no such
+     * facility. When the checks are disabled, tables can be cleaned up in any order, and "truncate" is allowed even
+     * for the tables referenced by foreign keys.
+     *
+     * @since 4.0
+     */
+    default String disableForeignKeyChecksSql() {
+        return null;
+    }
+
+    /**
+     * Returns SQL that re-enables foreign key checks for the current connection, reverting the effect of
+     * {@link #disableForeignKeyChecksSql()}.
+     *
+     * @since 4.0
+     */
+    default String enableForeignKeyChecksSql() {
+        return null;
+    }
+
+    /**
+     * Returns SQL that creates a schema with the provided name.
+     *
+     * @param quotedSchema schema name, already quoted if needed
+     * @since 4.0
+     */
+    default String createSchemaSql(String quotedSchema) {
+        return "create schema " + quotedSchema;
+    }
+
+    /**
+     * Returns SQL that drops a schema with the provided name together with its contents, or null if the DB can't do
+     * that in a single statement.
+     *
+     * @param quotedSchema schema name, already quoted if needed
+     * @since 4.0
+     */
+    default String dropSchemaSql(String quotedSchema) {
+        return null;
+    }
+
+    /**
+     * Makes the provided schema the default for the unqualified table names used with the connection.
+     *
+     * @since 4.0
+     */
+    default void setCurrentSchema(Connection connection, String schema) throws SQLException {
+        connection.setSchema(schema);
+    }
+
     default int columnType(int jdbcType, String nativeType) {
         return jdbcType;
     }
 
+    /**
+     * Returns a strategy for DB-native bulk loading of data, or null if the DB has no such mechanism.
+     *
+     * @since 4.0
+     */
+    default BulkLoader getBulkLoader() {
+        return null;
+    }
+
     default boolean shouldQuoteIdentifiers() {
         // per JDBC spec a space symboil means quotations ar enot supported
         return !" ".equals(getIdentifierQuote());
@@ -35,6 +35,7 @@ public class DerbyFlavor extends GenericFlavor {
         flavor.supportsSchemas = true;
         flavor.supportsParamsMetadata = true;
         flavor.supportsBatchUpdates = metaData.supportsBatchUpdates();
+        flavor.supportsTruncate = true;
         flavor.identifierQuote = metaData.getIdentifierQuoteString();
 
         return flavor;
@@ -30,6 +30,7 @@ public class GenericFlavor implements DbFlavor {
     protected boolean supportsSchemas;
     protected boolean supportsParamsMetadata;
     protected boolean supportsBatchUpdates;
+    protected boolean supportsTruncate;
     protected String identifierQuote;
 
     protected GenericFlavor() {
@@ -61,6 +62,11 @@ public class GenericFlavor implements DbFlavor {
         return supportsBatchUpdates;
     }
 
+    @Override
+    public boolean supportsTruncate() {
+        return supportsTruncate;
+    }
+
     @Override
     public boolean supportsCatalogs() {
         return supportsCatalogs;
@@ -0,0 +1,201 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.metadata.flavors;
+
+import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Loads data via MySQL "LOAD DATA LOCAL INFILE", streaming the rows from memory instead of a file. Requires
+ * "allowLoadLocalInfile=true" driver property and "local_infile" enabled on the server. Connector/J API is called
+ * reflectively, so there's no compile dependency on the MySQL driver.
+ *
+ * @since 4.0
+ */
+public class MySQLBulkLoader implements BulkLoader {
+
+    private static final String JDBC_CONNECTION_CLASS = "com.mysql.cj.jdbc.JdbcConnection";
+    private static final String JDBC_STATEMENT_CLASS = "com.mysql.cj.jdbc.JdbcStatement";
+    private static final String PROPERTY_SET_CLASS = "com.mysql.cj.conf.PropertySet";
+    private static final String RUNTIME_PROPERTY_CLASS = "com.mysql.cj.conf.RuntimeProperty";
+
+    private final Class<?> jdbcConnectionType;
+    private final Class<?> jdbcStatementType;
+    private final Method getPropertySet;
+    private final Method getBooleanProperty;
+    private final Method getPropertyValue;
+    private final Method setLocalInfileInputStream;
+
+    public MySQLBulkLoader() {
+
+        Class<?> jdbcConnectionType = null;
+        Class<?> jdbcStatementType = null;
+        Method getPropertySet = null;
+        Method getBooleanProperty = null;
+        Method getPropertyValue = null;
+        Method setLocalInfileInputStream = null;
+
+        try {
+            jdbcConnectionType = Class.forName(JDBC_CONNECTION_CLASS);
+            jdbcStatementType = Class.forName(JDBC_STATEMENT_CLASS);
+            getPropertySet = jdbcConnectionType.getMethod("getPropertySet");
+            getBooleanProperty = Class.forName(PROPERTY_SET_CLASS).getMethod("getBooleanProperty", String.class);
+            getPropertyValue = Class.forName(RUNTIME_PROPERTY_CLASS).getMethod("getValue");
+            setLocalInfileInputStream = jdbcStatementType.getMethod("setLocalInfileInputStream", InputStream.class);
+        } catch (ReflectiveOperationException e) {
+            // no Connector/J (or an unsupported version) on the classpath
+            jdbcConnectionType = null;
+        }
+
+        this.jdbcConnectionType = jdbcConnectionType;
+        this.jdbcStatementType = jdbcStatementType;
+        this.getPropertySet = getPropertySet;
+        this.getBooleanProperty = getBooleanProperty;
+        this.getPropertyValue = getPropertyValue;
+        this.setLocalInfileInputStream = setLocalInfileInputStream;
+    }
+
+    @Override
+    public boolean canLoad(Connection connection) throws SQLException {
+
+        if (jdbcConnectionType == null || !connection.isWrapperFor(jdbcConnectionType)) {
+            return false;
+        }
+
+        try {
+            Object propertySet = getPropertySet.invoke(connection.unwrap(jdbcConnectionType));
+            Object allowLocalInfile = getBooleanProperty.invoke(propertySet, "allowLoadLocalInfile");
+            if (!Boolean.TRUE.equals(getPropertyValue.invoke(allowLocalInfile))) {
+                return false;
+            }
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("select @@local_infile")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    @Override
+    public String createLoadSql(String tableName, String[] columnNames, DbColumnMetadata[] columns) {
+
+        // relying on the default field and line formats: tab-separated, backslash-escaped, "\N" for NULL
+        StringBuilder sql = new StringBuilder("load data local infile 'stream' into table ")
+                .append(tableName)
+                .append(" character set utf8mb4 (");
+
+        StringBuilder set = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+
+            if (i > 0) {
+                sql.append(", ");
+            }
+
+            // text can't carry binary and bit values, so load them into variables and convert
+            switch (columns[i].getType()) {
+                case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> {
+                    sql.append("@v").append(i);
+                    set.append(set.isEmpty() ? " set " : ", ")
+                            .append(columnNames[i]).append(" = unhex(@v").append(i).append(")");
+                }
+                case Types.BIT, Types.BOOLEAN -> {
+                    sql.append("@v").append(i);
+                    set.append(set.isEmpty() ? " set " : ", ")
+                            .append(columnNames[i]).append(" = cast(@v").append(i).append(" as unsigned)");
+                }
+                default -> sql.append(columnNames[i]);
+            }
+        }
+
+        return sql.append(")").append(set).toString();
+    }
+
+    @Override
+    public long load(Connection connection, String sql, DbColumnMetadata[] columns, Iterator<Object[]> rows)
+            throws SQLException {
+
+        try (Statement st = connection.createStatement()) {
+
+            InputStream in = new RowsInputStream(rows, (r, out) -> writeRow(columns, r, out));
+            try {
+                setLocalInfileInputStream.invoke(st.unwrap(jdbcStatementType), in);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof SQLException se ? se : new SQLException("Error running " + sql, cause);
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Error invoking MySQL JdbcStatement", e);
+            }
+
+            return st.executeLargeUpdate(sql);
+        }
+    }
+
+    static void writeRow(DbColumnMetadata[] columns, Object[] row, StringBuilder out) {
+
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.append('\t');
+            }
+
+            Object value = row[i];
+            if (value == null) {
+                out.append("\\N");
+            } else {
+                switch (columns[i].getType()) {
+                    case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> {
+                        byte[] bytes = value instanceof byte[] b ? b : value.toString().getBytes(StandardCharsets.UTF_8);
+                        out.append(HexFormat.of().formatHex(bytes));
+                    }
+                    default -> appendEscaped(BulkValueFormatter.format(columns[i], value), out);
+                }
+            }
+        }
+
+        out.append('\n');
+    }
+
+    private static void appendEscaped(String value, StringBuilder out) {
+        int len = value.length();
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\0' -> out.append("\\0");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package io.bootique.jdbc.junit.metadata.flavors;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 
@@ -26,6 +27,8 @@ import java.sql.SQLException;
  */
 public class MySQLFlavor extends GenericFlavor {
 
+    protected BulkLoader bulkLoader;
+
     protected MySQLFlavor() {
     }
 
@@ -36,8 +39,36 @@ public class MySQLFlavor extends GenericFlavor {
         // MySQL kinda supports params metadata, but that requires a special URL parameter in the driver
         flavor.supportsParamsMetadata = false;
         flavor.supportsBatchUpdates = metaData.supportsBatchUpdates();
+        flavor.supportsTruncate = true;
         flavor.identifierQuote = metaData.getIdentifierQuoteString();
+        flavor.bulkLoader = new MySQLBulkLoader();
         return flavor;
     }
 
+    @Override
+    public BulkLoader getBulkLoader() {
+        return bulkLoader;
+    }
+
+    @Override
+    public String disableForeignKeyChecksSql() {
+        return "set foreign_key_checks = 0";
+    }
+
+    @Override
+    public String enableForeignKeyChecksSql() {
+        return "set foreign_key_checks = 1";
+    }
+
+    @Override
+    public String dropSchemaSql(String quotedSchema) {
+        return "drop schema " + quotedSchema;
+    }
+
+    @Override
+    public void setCurrentSchema(Connection connection, String schema) throws SQLException {
+        // MySQL "schemas" are databases, that are exposed as catalogs by the driver
+        connection.setCatalog(schema);
+    }
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.metadata.flavors;
+
+import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Loads data via PostgreSQL "copy ... from stdin" in CSV format. The driver "CopyManager" API is called reflectively,
+ * so there's no compile dependency on the PostgreSQL driver.
+ *
+ * @since 4.0
+ */
+public class PostgresBulkLoader implements BulkLoader {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    private final Class<?> pgConnectionType;
+
+    public PostgresBulkLoader() {
+        this.pgConnectionType = loadPgConnectionType();
+    }
+
+    private static Class<?> loadPgConnectionType() {
+        try {
+            return Class.forName(PG_CONNECTION_CLASS);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean canLoad(Connection connection) throws SQLException {
+        return pgConnectionType != null && connection.isWrapperFor(pgConnectionType);
+    }
+
+    @Override
+    public String createLoadSql(String tableName, String[] columnNames, DbColumnMetadata[] columns) {
+        return "copy " + tableName + " (" + String.join(", ", columnNames) + ") from stdin with (format csv)";
+    }
+
+    @Override
+    public long load(Connection connection, String sql, DbColumnMetadata[] columns, Iterator<Object[]> rows)
+            throws SQLException {
+
+        Object pgConnection = connection.unwrap(pgConnectionType);
+        InputStream in = new RowsInputStream(rows, (r, out) -> writeRow(columns, r, out));
+
+        try {
+            Object copyApi = pgConnectionType.getMethod("getCopyAPI").invoke(pgConnection);
+            Method copyIn = copyApi.getClass().getMethod("copyIn", String.class, InputStream.class);
+            return (Long) copyIn.invoke(copyApi, sql, in);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException se ? se : new SQLException("Error running " + sql, cause);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Error invoking PostgreSQL CopyManager", e);
+        }
+    }
+
+    static void writeRow(DbColumnMetadata[] columns, Object[] row, StringBuilder out) {
+
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+
+            // unquoted empty value is NULL, quoted empty value is an empty string
+            Object value = row[i];
+            if (value != null) {
+                out.append('"');
+                appendEscaped(toText(columns[i], value), out);
+                out.append('"');
+            }
+        }
+
+        out.append('\n');
+    }
+
+    private static String toText(DbColumnMetadata column, Object value) {
+        return value instanceof byte[] bytes
+                ? "\\x" + HexFormat.of().formatHex(bytes)
+                : BulkValueFormatter.format(column, value);
+    }
+
+    private static void appendEscaped(String value, StringBuilder out) {
+        int len = value.length();
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+
+            out.append(c);
+        }
+    }
+}
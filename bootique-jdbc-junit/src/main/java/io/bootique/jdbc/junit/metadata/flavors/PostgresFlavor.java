@@ -27,6 +27,8 @@ import java.sql.Types;
  */
 public class PostgresFlavor extends GenericFlavor {
 
+    protected BulkLoader bulkLoader;
+
     protected PostgresFlavor() {
     }
 
@@ -36,10 +38,22 @@ public class PostgresFlavor extends GenericFlavor {
         flavor.supportsSchemas = true;
         flavor.supportsParamsMetadata = true;
         flavor.supportsBatchUpdates = metaData.supportsBatchUpdates();
+        flavor.supportsTruncate = true;
         flavor.identifierQuote = metaData.getIdentifierQuoteString();
+        flavor.bulkLoader = new PostgresBulkLoader();
         return flavor;
     }
 
+    @Override
+    public BulkLoader getBulkLoader() {
+        return bulkLoader;
+    }
+
+    @Override
+    public String dropSchemaSql(String quotedSchema) {
+        return "drop schema " + quotedSchema + " cascade";
+    }
+
     @Override
     public int columnType(int jdbcType, String nativeType) {
 
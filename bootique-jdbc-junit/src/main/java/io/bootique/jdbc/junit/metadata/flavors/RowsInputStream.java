@@ -0,0 +1,89 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.metadata.flavors;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An InputStream that lazily formats rows as text, encoding them in UTF-8. Used to feed the rows to the bulk loading
+ * driver APIs without buffering the whole data set.
+ *
+ * @since 4.0
+ */
+class RowsInputStream extends InputStream {
+
+    private final Iterator<Object[]> rows;
+    private final BiConsumer<Object[], StringBuilder> rowWriter;
+    private final StringBuilder rowBuffer;
+
+    private byte[] buffer;
+    private int position;
+
+    RowsInputStream(Iterator<Object[]> rows, BiConsumer<Object[], StringBuilder> rowWriter) {
+        this.rows = rows;
+        this.rowWriter = rowWriter;
+        this.rowBuffer = new StringBuilder();
+        this.buffer = new byte[0];
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? buffer[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+
+        if (len == 0) {
+            return 0;
+        }
+
+        int read = 0;
+        while (read < len && fill()) {
+            int chunk = Math.min(len - read, buffer.length - position);
+            System.arraycopy(buffer, position, b, off + read, chunk);
+            position += chunk;
+            read += chunk;
+        }
+
+        return read > 0 ? read : -1;
+    }
+
+    private boolean fill() {
+
+        while (position == buffer.length) {
+            if (!rows.hasNext()) {
+                return false;
+            }
+
+            // format a single row at a time to keep the memory footprint minimal
+            rowBuffer.setLength(0);
+            rowWriter.accept(rows.next(), rowBuffer);
+            buffer = rowBuffer.toString().getBytes(StandardCharsets.UTF_8);
+            position = 0;
+        }
+
+        return true;
+    }
+}
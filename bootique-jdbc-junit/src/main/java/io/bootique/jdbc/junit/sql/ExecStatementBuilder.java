@@ -22,10 +22,15 @@ package io.bootique.jdbc.junit.sql;
 import io.bootique.jdbc.junit.connector.BindingValueToStringConverter;
 import io.bootique.jdbc.junit.connector.DbConnector;
 import io.bootique.jdbc.junit.connector.IdentifierQuoter;
+import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+import io.bootique.jdbc.junit.metadata.flavors.BulkLoader;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
 
 public class ExecStatementBuilder extends StatementBuilder<ExecStatementBuilder> {
 
@@ -53,6 +58,130 @@ public class ExecStatementBuilder extends StatementBuilder<ExecStatementBuilder>
         }
     }
 
+    /**
+     * Executes SQL in the buffer as a JDBC batch, binding each row of values to the statement parameters. The batch is
+     * sent to the DB every "batchSize" rows, all within a single transaction. Rows are pulled from the iterator as the
+     * batches are filled, so the iterator may lazily produce more rows than would fit in memory.
+     *
+     * @return the total number of updated rows.
+     * @since 4.0
+     */
+    public int execBatch(DbColumnMetadata[] columns, Iterator<Object[]> rows, int batchSize) {
+
+        String sql = getSql();
+        log(sql + " -- in batches of " + batchSize, List.of());
+
+        try {
+            return execBatchWithExceptions(sql, columns, rows, batchSize);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error running batch SQL: " + sql, e);
+        }
+    }
+
+    protected int execBatchWithExceptions(
+            String sql,
+            DbColumnMetadata[] columns,
+            Iterator<Object[]> rows,
+            int batchSize) throws SQLException {
+
+        try (Connection c = channel.getConnection()) {
+
+            int count = 0;
+            try (PreparedStatement st = c.prepareStatement(sql)) {
+
+                int inBatch = 0;
+                while (rows.hasNext()) {
+                    Object[] row = rows.next();
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i].bind(st, i, objectValueConverter.convert(row[i]));
+                    }
+
+                    st.addBatch();
+                    if (++inBatch == batchSize) {
+                        count += updateCount(st.executeBatch());
+                        inBatch = 0;
+                    }
+                }
+
+                if (inBatch > 0) {
+                    count += updateCount(st.executeBatch());
+                }
+            }
+
+            c.commit();
+            return count;
+        }
+    }
+
+    /**
+     * Loads rows using the SQL in the buffer (that must be created by the loader) and the provided DB-native bulk
+     * loader. The rows are streamed to the DB, all within a single transaction. If the loader can't be used with the
+     * current connection, returns -1 without consuming any rows.
+     *
+     * @return the total number of loaded rows, or -1 if the loader is not usable.
+     * @since 4.0
+     */
+    public long execBulkLoad(BulkLoader loader, DbColumnMetadata[] columns, Iterator<Object[]> rows) {
+
+        String sql = getSql();
+
+        try {
+            return execBulkLoadWithExceptions(sql, loader, columns, rows);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error running bulk load SQL: " + sql, e);
+        }
+    }
+
+    protected long execBulkLoadWithExceptions(
+            String sql,
+            BulkLoader loader,
+            DbColumnMetadata[] columns,
+            Iterator<Object[]> rows) throws SQLException {
+
+        try (Connection c = channel.getConnection()) {
+
+            if (!loader.canLoad(c)) {
+                return -1;
+            }
+
+            log(sql, List.of());
+
+            Iterator<Object[]> converted = new Iterator<>() {
+
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                    Object[] row = rows.next();
+                    Object[] convertedRow = new Object[row.length];
+                    for (int i = 0; i < row.length; i++) {
+                        convertedRow[i] = objectValueConverter.convert(row[i]);
+                    }
+
+                    return convertedRow;
+                }
+            };
+
+            long count = loader.load(c, sql, columns, converted);
+            c.commit();
+            return count;
+        }
+    }
+
+    private static int updateCount(int[] counts) {
+        int count = 0;
+        for (int c : counts) {
+
+            // "SUCCESS_NO_INFO" means the row was processed, but the driver doesn't know the count
+            count += c == Statement.SUCCESS_NO_INFO ? 1 : c;
+        }
+
+        return count;
+    }
+
     protected int execWithExceptions(String sql) throws SQLException {
 
         try (Connection c = channel.getConnection();) {
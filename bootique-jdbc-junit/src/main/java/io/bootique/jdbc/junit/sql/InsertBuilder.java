@@ -21,8 +21,10 @@ package io.bootique.jdbc.junit.sql;
 
 import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
 import io.bootique.jdbc.junit.metadata.TableFQName;
+import io.bootique.jdbc.junit.metadata.flavors.BulkLoader;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -30,10 +32,23 @@ import java.util.List;
  */
 public class InsertBuilder {
 
+    /**
+     * @since 4.0
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    // keeps multi-row "values" statements well under the driver limits on the number of parameters (e.g. 32767 on
+    // Derby, 65535 on PostgreSQL) and the statement size. Derby compiles multi-row "values" recursively, so a few
+    // thousand rows in one statement can overflow the stack
+    static final int MAX_BINDINGS_PER_STATEMENT = 2000;
+
     protected TableFQName tableName;
     protected ExecStatementBuilder builder;
     protected DbColumnMetadata[] columns;
     protected List<Object[]> values;
+    protected int batchSize;
+    protected boolean bulk;
+    protected boolean split;
 
     public InsertBuilder(ExecStatementBuilder builder, TableFQName tableName, DbColumnMetadata[] columns) {
         this.values = new ArrayList<>();
@@ -52,28 +67,175 @@ public class InsertBuilder {
         return this;
     }
 
+    /**
+     * Switches the builder to the JDBC batch mode with the default batch size. Same as {@link #batch(int)} with
+     * {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @since 4.0
+     */
+    public InsertBuilder batch() {
+        return batch(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Switches the builder to the JDBC batch mode. Instead of a single "insert" with all the rows, a single-row
+     * "insert" is prepared once and executed for each row via "addBatch" / "executeBatch", sending the rows to the DB
+     * in chunks of "batchSize". This is much faster for large datasets. If the DB does not support batch updates, multi-row
+     * inserts are used instead.
+     *
+     * @since 4.0
+     */
+    public InsertBuilder batch(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Allows the builder to use a DB-native bulk loading mechanism (e.g. "copy" on PostgreSQL or "load data" on
+     * MySQL), if the DB flavor provides one and it is usable with the current driver and server settings. The values
+     * are sent as text, formatted according to the JDBC types of the columns, with date/time values interpreted in the
+     * JVM default time zone. If bulk loading is not available, falls back to the JDBC batch mode, using the default
+     * batch size unless a different size was set via {@link #batch(int)}.
+     *
+     * @since 4.0
+     */
+    public InsertBuilder bulk() {
+        this.bulk = true;
+
+        if (batchSize == 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+
+        return this;
+    }
+
+    /**
+     * Allows the builder to split a large non-batch insert into multiple statements, so that each statement stays well
+     * under the driver limits on the number of parameters. Without this setting, all the rows are inserted with a
+     * single statement, and the insert is atomic. With it, a failure in a later statement leaves the rows from the
+     * earlier statements in the DB, unless the insert is a part of an explicit transaction.
+     *
+     * @since 4.0
+     */
+    public InsertBuilder split() {
+        this.split = true;
+        return this;
+    }
+
     public DbColumnMetadata[] getColumns() {
         return columns;
     }
 
     public void exec() {
 
-        builder.append("insert into ")
-                .appendTableName(tableName)
-                .append(" (");
+        if (bulk && values.size() > 1 && execBulkLoad(values.iterator())) {
+            return;
+        }
+
+        if (batchSize > 0 && values.size() > 1 && builder.channel.getMetadata().supportsBatchUpdates()) {
+            execBatch();
+            return;
+        }
+
+        if (!split) {
+            execValues(builder, values);
+            return;
+        }
+
+        int rowsPerStatement = Math.max(1, MAX_BINDINGS_PER_STATEMENT / columns.length);
+        int len = values.size();
+        for (int i = 0; i < len; i += rowsPerStatement) {
+            ExecStatementBuilder statement = i == 0 ? builder : builder.channel.execStatement();
+            execValues(statement, values.subList(i, Math.min(len, i + rowsPerStatement)));
+        }
+    }
+
+    /**
+     * Inserts rows produced by the iterator, ignoring any rows added via {@link #values(Object...)}. Unlike
+     * {@link #exec()}, the rows are not collected in memory, but are pulled from the iterator as they are sent to the
+     * DB, so the memory footprint stays bounded regardless of the total number of rows. Uses JDBC batches if the DB
+     * supports them (with the {@link #DEFAULT_BATCH_SIZE}, unless a different size was set via {@link #batch(int)}),
+     * and a series of multi-row inserts otherwise (regardless of the {@link #split()} setting). So the insert is not
+     * atomic, unless it is a part of an explicit transaction. Each row must match the builder columns.
+     *
+     * @since 4.0
+     */
+    public void exec(Iterator<Object[]> rows) {
+
+        if (!rows.hasNext()) {
+            return;
+        }
+
+        if (bulk && execBulkLoad(rows)) {
+            return;
+        }
+
+        if (builder.channel.getMetadata().supportsBatchUpdates()) {
+            appendBatchInsert();
+            builder.execBatch(columns, rows, batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE);
+            return;
+        }
+
+        int rowsPerStatement = Math.max(1, MAX_BINDINGS_PER_STATEMENT / columns.length);
+        List<Object[]> chunk = new ArrayList<>(Math.min(rowsPerStatement, DEFAULT_BATCH_SIZE));
+        ExecStatementBuilder statement = builder;
 
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+
+            if (chunk.size() == rowsPerStatement || !rows.hasNext()) {
+                execValues(statement, chunk);
+                statement = builder.channel.execStatement();
+                chunk.clear();
+            }
+        }
+    }
+
+    protected boolean execBulkLoad(Iterator<Object[]> rows) {
+
+        BulkLoader loader = builder.channel.getMetadata().getBulkLoader();
+        if (loader == null) {
+            return false;
+        }
+
+        String table = builder.channel.execStatement().appendTableName(tableName).getSql();
+        String[] columnNames = new String[columns.length];
         for (int i = 0; i < columns.length; i++) {
+            columnNames[i] = builder.quoter.quoted(columns[i].getName());
+        }
 
-            DbColumnMetadata col = columns[i];
+        // the loader returns -1 without touching the rows if it can't be used, so we can fall back to other modes
+        return builder.channel.execStatement()
+                .append(loader.createLoadSql(table, columnNames, columns))
+                .execBulkLoad(loader, columns, rows) >= 0;
+    }
+
+    protected void execBatch() {
+        appendBatchInsert();
+        builder.execBatch(columns, values.iterator(), batchSize);
+    }
 
+    private void appendBatchInsert() {
+        appendInsertColumns(builder);
+
+        builder.append("(");
+        for (int i = 0; i < columns.length; i++) {
             if (i > 0) {
                 builder.append(", ");
             }
 
-            builder.appendIdentifier(col.getName());
+            builder.append("?");
         }
+        builder.append(")");
+    }
 
-        builder.append(") values ");
+    protected void execValues(ExecStatementBuilder builder, List<Object[]> values) {
+
+        appendInsertColumns(builder);
 
         for (int i = 0; i < values.size(); i++) {
 
@@ -98,4 +260,23 @@ public class InsertBuilder {
 
         builder.exec();
     }
+
+    private void appendInsertColumns(ExecStatementBuilder builder) {
+        builder.append("insert into ")
+                .appendTableName(tableName)
+                .append(" (");
+
+        for (int i = 0; i < columns.length; i++) {
+
+            DbColumnMetadata col = columns[i];
+
+            if (i > 0) {
+                builder.append(", ");
+            }
+
+            builder.appendIdentifier(col.getName());
+        }
+
+        builder.append(") values ");
+    }
 }
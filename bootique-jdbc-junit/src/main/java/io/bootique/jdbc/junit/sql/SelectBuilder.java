@@ -23,6 +23,8 @@ import io.bootique.jdbc.junit.RowReader;
 import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @since 2.0
@@ -82,4 +84,30 @@ public class SelectBuilder<T> {
     public T selectOne(T defaultValue) {
         return builder.selectOne(defaultValue);
     }
+
+    /**
+     * @since 4.0
+     */
+    public SelectBuilder<T> fetchSize(int fetchSize) {
+        builder.fetchSize(fetchSize);
+        return this;
+    }
+
+    /**
+     * Returns a lazy stream over the query result that must be closed by the caller.
+     *
+     * @see SelectStatementBuilder#stream()
+     * @since 4.0
+     */
+    public Stream<T> stream() {
+        return builder.stream();
+    }
+
+    /**
+     * @see SelectStatementBuilder#forEach(Consumer)
+     * @since 4.0
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        builder.forEach(consumer);
+    }
 }
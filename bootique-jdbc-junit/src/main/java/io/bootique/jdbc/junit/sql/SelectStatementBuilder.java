@@ -31,17 +31,31 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @since 2.0
  */
 public class SelectStatementBuilder<T> extends StatementBuilder<SelectStatementBuilder<T>> {
 
+    /**
+     * Fetch size used by {@link #stream()} and {@link #forEach(Consumer)}, unless set explicitly.
+     *
+     * @since 4.0
+     */
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
     private final RowReader rowReader;
     private final RowConverter<T> rowConverter;
+    private int fetchSize;
 
     public SelectStatementBuilder(
             RowReader rowReader,
@@ -73,7 +87,7 @@ public class SelectStatementBuilder<T> extends StatementBuilder<SelectStatementB
      * @since 2.0
      */
     public SelectStatementBuilder<T> reader(RowReader reader) {
-        return new SelectStatementBuilder<>(
+        SelectStatementBuilder<T> copy = new SelectStatementBuilder<>(
                 reader,
                 this.rowConverter,
                 this.channel,
@@ -82,13 +96,15 @@ public class SelectStatementBuilder<T> extends StatementBuilder<SelectStatementB
                 this.quoter,
                 this.bindings,
                 this.sqlBuffer);
+        copy.fetchSize = this.fetchSize;
+        return copy;
     }
 
     /**
      * @since 2.0
      */
     public <U> SelectStatementBuilder<U> converter(RowConverter<U> converter) {
-        return new SelectStatementBuilder<>(
+        SelectStatementBuilder<U> copy = new SelectStatementBuilder<>(
                 this.rowReader,
                 converter,
                 this.channel,
@@ -97,6 +113,24 @@ public class SelectStatementBuilder<T> extends StatementBuilder<SelectStatementB
                 this.quoter,
                 this.bindings,
                 this.sqlBuffer);
+        copy.fetchSize = this.fetchSize;
+        return copy;
+    }
+
+    /**
+     * Sets a JDBC fetch size, i.e. a hint to the driver on how many rows to read from the DB in a single round trip.
+     * Zero means the driver default for {@link #select()} and {@link #DEFAULT_STREAM_FETCH_SIZE} for
+     * {@link #stream()}.
+     *
+     * @since 4.0
+     */
+    public SelectStatementBuilder<T> fetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Negative fetch size: " + fetchSize);
+        }
+
+        this.fetchSize = fetchSize;
+        return this;
     }
 
     public List<T> select() {
@@ -132,6 +166,108 @@ public class SelectStatementBuilder<T> extends StatementBuilder<SelectStatementB
         }
     }
 
+    /**
+     * Runs the query, returning a lazy stream over the result. Rows are read from the DB as the stream is consumed,
+     * in chunks of the configured fetch size, so arbitrarily large results can be processed in constant memory. The
+     * stream holds an open connection and must be closed by the caller, e.g. via "try-with-resources". Note that some
+     * drivers need extra configuration to use cursors (e.g. "useCursorFetch=true" URL parameter for MySQL).
+     *
+     * @since 4.0
+     */
+    public Stream<T> stream() {
+
+        String sql = getSql();
+        log(sql, bindings);
+
+        try {
+            return streamWithExceptions(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error running selecting SQL: " + sql, e);
+        }
+    }
+
+    /**
+     * Runs the query, passing each result row to the consumer. Like {@link #stream()}, reads the result lazily, in
+     * chunks of the configured fetch size.
+     *
+     * @since 4.0
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        try (Stream<T> stream = stream()) {
+            stream.forEach(consumer);
+        }
+    }
+
+    protected Stream<T> streamWithExceptions(String sql) throws SQLException {
+
+        // DbConnector connections are not in auto-commit mode, so PostgreSQL would use a cursor for the fetch size to
+        // take effect. Still need to enforce it, as the connection may have come from elsewhere
+        Connection c = channel.getConnection();
+        PreparedStatement st = null;
+        ResultSet rs = null;
+        boolean ownTransaction = false;
+
+        try {
+            if (c.getAutoCommit()) {
+                c.setAutoCommit(false);
+                ownTransaction = true;
+            }
+
+            st = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            st.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_STREAM_FETCH_SIZE);
+            bind(st);
+            rs = st.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            close(sql, rs, st, c, ownTransaction);
+            throw e;
+        }
+
+        ResultSet resultSet = rs;
+        PreparedStatement statement = st;
+        boolean endTransaction = ownTransaction;
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+
+                    action.accept(rowConverter.convert(rowReader.readRow(resultSet)));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error reading result of SQL: " + sql, e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> close(sql, resultSet, statement, c, endTransaction));
+    }
+
+    private static void close(String sql, ResultSet rs, Statement st, Connection c, boolean endTransaction) {
+
+        try (c) {
+            if (rs != null) {
+                rs.close();
+            }
+
+            if (st != null) {
+                st.close();
+            }
+
+            // only end the transaction started here, and do it by restoring auto-commit instead of a rollback. The
+            // transaction is read-only, and with "rollbackAfterEachTest" the connection handles share a single
+            // transaction, so a rollback would also revert the pending changes made via the other handles
+            if (endTransaction) {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error closing result of SQL: " + sql, e);
+        }
+    }
+
     protected List<T> selectWithExceptions(String sql, long maxRows) throws SQLException {
 
         List<T> result = new ArrayList<>();
@@ -139,6 +275,10 @@ public class SelectStatementBuilder<T> extends StatementBuilder<SelectStatementB
         try (Connection c = channel.getConnection()) {
             try (PreparedStatement st = c.prepareStatement(sql)) {
 
+                if (fetchSize > 0) {
+                    st.setFetchSize(fetchSize);
+                }
+
                 bind(st);
                 try (ResultSet rs = st.executeQuery()) {
 
@@ -20,6 +20,8 @@
 package io.bootique.jdbc.junit.sql;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @since 2.0
@@ -46,4 +48,30 @@ public class SelectWhereBuilder<T> extends WhereBuilder<SelectWhereBuilder<T>, S
     public T selectOne(T defaultValue) {
         return builder.selectOne(defaultValue);
     }
+
+    /**
+     * @since 4.0
+     */
+    public SelectWhereBuilder<T> fetchSize(int fetchSize) {
+        builder.fetchSize(fetchSize);
+        return this;
+    }
+
+    /**
+     * Returns a lazy stream over the query result that must be closed by the caller.
+     *
+     * @see SelectStatementBuilder#stream()
+     * @since 4.0
+     */
+    public Stream<T> stream() {
+        return builder.stream();
+    }
+
+    /**
+     * @see SelectStatementBuilder#forEach(Consumer)
+     * @since 4.0
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        builder.forEach(consumer);
+    }
 }
@@ -20,6 +20,28 @@ package io.bootique.jdbc.junit.tester;
 
 import io.bootique.jdbc.junit.DbTester;
 import io.bootique.jdbc.junit.connector.DbConnector;
+import io.bootique.jdbc.junit.connector.IdentifierQuoter;
+import io.bootique.jdbc.junit.metadata.TableFQName;
+import io.bootique.jdbc.junit.metadata.flavors.DbFlavor;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Provides test data manager facilities to the {@link DbTester}.
@@ -28,10 +50,26 @@ public class DataManager {
 
     private DbConnector connector;
     private String[] tablesInInsertOrder;
+    private boolean parallelCleanup;
+
+    // calculated on first use, assuming the schema doesn't change between the tests
+    private volatile List<CleanupLevel> truncatePlan;
+
+    // created on the first parallel cleanup and reused by the subsequent cleanups until "close()"
+    private ExecutorService cleanupExecutor;
 
     public DataManager(DbConnector connector, String[] tablesInInsertOrder) {
+        this(connector, tablesInInsertOrder, true);
+    }
+
+    /**
+     * @param parallelCleanup whether the independent tables can be cleaned up in parallel by {@link #truncateData()}
+     * @since 4.0
+     */
+    public DataManager(DbConnector connector, String[] tablesInInsertOrder, boolean parallelCleanup) {
         this.connector = connector;
         this.tablesInInsertOrder = tablesInInsertOrder;
+        this.parallelCleanup = parallelCleanup;
     }
 
     public void deleteData() {
@@ -39,4 +77,257 @@ public class DataManager {
             connector.getTable(tablesInInsertOrder[i]).deleteAll();
         }
     }
+
+    /**
+     * Removes all data from the tables using the fastest method available for the DB. Uses "truncate" if supported
+     * by the DB flavor, falling back to "delete" for the tables referenced by foreign keys, unless the flavor allows
+     * to disable foreign key checks. The order of tables passed to the constructor is ignored, instead the order is
+     * calculated from the foreign keys metadata. Tables that do not depend on each other are cleaned up in parallel.
+     *
+     * @since 4.0
+     */
+    public void truncateData() {
+
+        List<CleanupLevel> plan = this.truncatePlan;
+        if (plan == null) {
+            plan = createTruncatePlan();
+            this.truncatePlan = plan;
+        }
+
+        for (CleanupLevel level : plan) {
+            level.run();
+        }
+    }
+
+    /**
+     * Stops the threads used for parallel cleanup, if any were started.
+     *
+     * @since 4.0
+     */
+    public synchronized void close() {
+        if (cleanupExecutor != null) {
+            cleanupExecutor.shutdownNow();
+            cleanupExecutor = null;
+        }
+    }
+
+    protected synchronized ExecutorService getCleanupExecutor() {
+        if (cleanupExecutor == null) {
+            cleanupExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "bootique-jdbc-junit-cleanup");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        return cleanupExecutor;
+    }
+
+    protected List<CleanupLevel> createTruncatePlan() {
+
+        DbFlavor flavor = connector.getMetadata().getFlavor();
+        IdentifierQuoter quoter = connector.getIdentifierQuoter();
+
+        Set<TableFQName> tables = new LinkedHashSet<>();
+        for (String t : tablesInInsertOrder) {
+            tables.add(connector.getTable(t).getMetadata().getName());
+        }
+
+        // with disabled FK checks, all tables are independent
+        if (flavor.supportsTruncate() && flavor.disableForeignKeyChecksSql() != null) {
+            List<String> statements = new ArrayList<>(tables.size());
+            for (TableFQName t : tables) {
+                statements.add("truncate table " + quotedName(t, quoter));
+            }
+
+            return List.of(new CleanupLevel(statements, parallelCleanup));
+        }
+
+        // parent table -> referencing tables from the cleanup set
+        Map<TableFQName, Set<TableFQName>> dependents = new HashMap<>();
+        Set<TableFQName> referenced = new HashSet<>();
+        loadForeignKeys(tables, dependents, referenced);
+
+        // children must be cleaned before parents, so each level contains the tables not referenced by the remaining
+        // tables. Tables within a level do not depend on each other
+        List<CleanupLevel> levels = new ArrayList<>();
+        Set<TableFQName> remaining = new LinkedHashSet<>(tables);
+        while (!remaining.isEmpty()) {
+
+            List<TableFQName> level = new ArrayList<>();
+            for (TableFQName t : remaining) {
+                Set<TableFQName> ds = dependents.getOrDefault(t, Set.of());
+                if (ds.stream().noneMatch(d -> !d.equals(t) && remaining.contains(d))) {
+                    level.add(t);
+                }
+            }
+
+            // a dependency cycle... fall back to deleting the remaining tables sequentially in the reverse insert
+            // order, same as "deleteData()"
+            boolean parallel = !level.isEmpty();
+            if (!parallel) {
+                level.addAll(remaining);
+                Collections.reverse(level);
+            }
+
+            List<String> statements = new ArrayList<>(level.size());
+            for (TableFQName t : level) {
+                String verb = flavor.supportsTruncate() && !referenced.contains(t) ? "truncate table " : "delete from ";
+                statements.add(verb + quotedName(t, quoter));
+            }
+
+            levels.add(new CleanupLevel(statements, parallel && parallelCleanup));
+            level.forEach(remaining::remove);
+        }
+
+        return levels;
+    }
+
+    private void loadForeignKeys(
+            Set<TableFQName> tables,
+            Map<TableFQName, Set<TableFQName>> dependents,
+            Set<TableFQName> referenced) {
+
+        try (Connection c = connector.getConnection()) {
+            DatabaseMetaData md = c.getMetaData();
+
+            for (TableFQName t : tables) {
+                try (ResultSet rs = md.getExportedKeys(t.catalog(), t.schema(), t.table())) {
+                    while (rs.next()) {
+
+                        String fkCatalog = rs.getString("FKTABLE_CAT");
+                        String fkSchema = rs.getString("FKTABLE_SCHEM");
+                        String fkTable = rs.getString("FKTABLE_NAME");
+
+                        // self-references do not prevent "truncate"
+                        if (sameTable(t, fkCatalog, fkSchema, fkTable)) {
+                            continue;
+                        }
+
+                        referenced.add(t);
+                        for (TableFQName d : tables) {
+                            if (sameTable(d, fkCatalog, fkSchema, fkTable)) {
+                                dependents.computeIfAbsent(t, k -> new HashSet<>()).add(d);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading foreign keys metadata", e);
+        }
+    }
+
+    private static boolean sameTable(TableFQName name, String catalog, String schema, String table) {
+
+        // partial names in the cleanup list are matched against any catalog and schema
+        return name.table().equals(table)
+                && (!name.hasSchema() || schema == null || name.schema().equals(schema))
+                && (!name.hasCatalog() || catalog == null || name.catalog().equals(catalog));
+    }
+
+    private static String quotedName(TableFQName name, IdentifierQuoter quoter) {
+
+        StringBuilder buffer = new StringBuilder();
+        if (name.hasCatalog()) {
+            buffer.append(quoter.quoted(name.catalog())).append(".");
+        }
+
+        if (name.hasSchema()) {
+            buffer.append(quoter.quoted(name.schema())).append(".");
+        }
+
+        return buffer.append(quoter.quoted(name.table())).toString();
+    }
+
+    /**
+     * A group of cleanup statements for the tables that do not depend on each other.
+     */
+    protected class CleanupLevel {
+
+        private final List<String> statements;
+        private final boolean parallel;
+
+        CleanupLevel(List<String> statements, boolean parallel) {
+            this.statements = Objects.requireNonNull(statements);
+            this.parallel = parallel;
+        }
+
+        void run() {
+
+            int threads = parallel ? Math.min(statements.size(), Runtime.getRuntime().availableProcessors()) : 1;
+            if (threads < 2) {
+                runStatements(statements);
+                return;
+            }
+
+            // spread the tables between the threads, each running on its own connection
+            List<List<String>> chunks = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                chunks.add(new ArrayList<>());
+            }
+
+            for (int i = 0; i < statements.size(); i++) {
+                chunks.get(i % threads).add(statements.get(i));
+            }
+
+            ExecutorService executor = getCleanupExecutor();
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (List<String> chunk : chunks) {
+                futures.add(executor.submit(() -> runStatements(chunk)));
+            }
+
+            // waiting for all the chunks even if some fail, so that no cleanup overlaps with the next test
+            RuntimeException error = null;
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(uf -> uf.cancel(true));
+                    throw new RuntimeException("Interrupted while cleaning up tables", e);
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause() instanceof RuntimeException re
+                                ? re
+                                : new RuntimeException("Error cleaning up tables", e.getCause());
+                    }
+                }
+            }
+
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        private void runStatements(List<String> statements) {
+
+            DbFlavor flavor = connector.getMetadata().getFlavor();
+            String disableFkChecks = flavor.disableForeignKeyChecksSql();
+            String enableFkChecks = flavor.enableForeignKeyChecksSql();
+
+            try (Connection c = connector.getConnection(); Statement st = c.createStatement()) {
+
+                if (disableFkChecks != null) {
+                    st.execute(disableFkChecks);
+                }
+
+                try {
+                    for (String sql : statements) {
+                        st.executeUpdate(sql);
+                    }
+
+                    c.commit();
+                } finally {
+
+                    // the connection may be pooled, so must restore its state
+                    if (enableFkChecks != null) {
+                        st.execute(enableFkChecks);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error cleaning up tables: " + statements, e);
+            }
+        }
+    }
 }
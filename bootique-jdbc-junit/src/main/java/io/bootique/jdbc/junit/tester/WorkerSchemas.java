@@ -0,0 +1,203 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.tester;
+
+import io.bootique.jdbc.junit.DbTester;
+import io.bootique.jdbc.junit.connector.DbConnector;
+import io.bootique.jdbc.junit.init.DbInitializer;
+import io.bootique.jdbc.junit.metadata.DbMetadata;
+import io.bootique.jdbc.junit.metadata.flavors.DbFlavor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives each test worker thread its own schema in the {@link DbTester} DB, created and initialized when the worker
+ * runs its first test, so that the tests running in parallel do not see each other's data. The schema is also used by
+ * the threads started from the worker thread (e.g. by the code under test), while the threads that are not
+ * associated with any worker fail to get a connection. Schema names include the process id, so the test JVMs forked
+ * by the build tool can share the same DB as well.
+ *
+ * @since 4.0
+ */
+public class WorkerSchemas {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerSchemas.class);
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final DbConnector defaultConnector;
+    private final DbInitializer initializer;
+
+    // inheritable, so that the threads started by a worker use the worker schema
+    private final InheritableThreadLocal<WorkerSchema> workerSchema;
+    private final Set<String> readySchemas;
+    private final Map<String, DbConnector> connectors;
+
+    // schemas set on the physical connections, to avoid switching the schema on every checkout
+    private final Map<Connection, String> connectionSchemas;
+
+    private volatile boolean closed;
+
+    public WorkerSchemas(DataSource dataSource, DbConnector defaultConnector, DbInitializer initializer) {
+        this.dataSource = dataSource;
+        this.defaultConnector = defaultConnector;
+        this.initializer = initializer;
+
+        this.workerSchema = new InheritableThreadLocal<>();
+        this.readySchemas = ConcurrentHashMap.newKeySet();
+        this.connectors = new ConcurrentHashMap<>();
+        this.connectionSchemas = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    /**
+     * Returns a connector for the current thread schema, creating the schema if needed.
+     */
+    public DbConnector getConnector() {
+        return connectors.get(getSchema());
+    }
+
+    /**
+     * Binds the current thread to its own worker schema, creating and initializing the schema if the thread doesn't
+     * have one yet. Intended to be called on the test thread before each test.
+     */
+    public void bindWorker() {
+
+        Thread thread = Thread.currentThread();
+        WorkerSchema bound = workerSchema.get();
+
+        // the schema inherited from the thread that started this one is not reused by another worker
+        if (bound == null || bound.worker() != thread) {
+            String schema = "bq_worker_" + ProcessHandle.current().pid() + "_" + COUNTER.incrementAndGet();
+
+            // assign the schema before creating it, as creation and init will call back into "prepareConnection"
+            workerSchema.set(new WorkerSchema(schema, thread));
+            createSchema(schema);
+        }
+    }
+
+    /**
+     * Returns the schema of the current worker thread.
+     *
+     * @throws IllegalStateException if the current thread is not a worker thread, and wasn't started by one
+     */
+    public String getSchema() {
+
+        WorkerSchema bound = workerSchema.get();
+        if (bound == null) {
+            throw new IllegalStateException("Thread '" + Thread.currentThread().getName()
+                    + "' has no worker schema. With 'schemaPerWorker', the DB must be accessed from the test threads "
+                    + "or the threads started by them");
+        }
+
+        return bound.schema();
+    }
+
+    /**
+     * Switches a connection to the current thread schema. Intended to be called by the DataSource on every
+     * connection checkout.
+     */
+    public void prepareConnection(Connection connection) throws SQLException {
+
+        if (closed) {
+            return;
+        }
+
+        String schema = getSchema();
+
+        // the schema is not created yet
+        if (!readySchemas.contains(schema)) {
+            return;
+        }
+
+        // pools may return a new wrapper of the same physical connection on every checkout
+        Connection physical = connection.isWrapperFor(Connection.class)
+                ? connection.unwrap(Connection.class)
+                : connection;
+
+        if (!schema.equals(connectionSchemas.get(physical))) {
+            getFlavor().setCurrentSchema(connection, schema);
+            connectionSchemas.put(physical, schema);
+        }
+    }
+
+    /**
+     * Stops assigning schemas to connections and drops all the schemas created so far, if the DB allows it.
+     */
+    public void close() {
+
+        this.closed = true;
+
+        for (String schema : readySchemas) {
+            String sql = getFlavor().dropSchemaSql(defaultConnector.getIdentifierQuoter().quoted(schema));
+            if (sql != null) {
+                LOGGER.info("Dropping worker schema '{}'", schema);
+                exec(sql);
+            }
+        }
+
+        readySchemas.clear();
+        connectors.clear();
+        connectionSchemas.clear();
+    }
+
+    protected void createSchema(String schema) {
+
+        LOGGER.info("Creating worker schema '{}' for thread '{}'", schema, Thread.currentThread().getName());
+
+        exec(getFlavor().createSchemaSql(defaultConnector.getIdentifierQuoter().quoted(schema)));
+        readySchemas.add(schema);
+
+        connectors.put(schema, new DbConnector(dataSource, DbMetadata.create(dataSource, getFlavor(), schema)));
+        initializer.exec(dataSource);
+    }
+
+    protected DbFlavor getFlavor() {
+        return defaultConnector.getMetadata().getFlavor();
+    }
+
+    protected void exec(String sql) {
+        try (Connection c = dataSource.getConnection()) {
+            try (Statement st = c.createStatement()) {
+                st.execute(sql);
+            }
+
+            if (!c.getAutoCommit()) {
+                c.commit();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error running '" + sql + "': " + e.getMessage(), e);
+        }
+    }
+
+    private record WorkerSchema(String schema, Thread worker) {
+    }
+}
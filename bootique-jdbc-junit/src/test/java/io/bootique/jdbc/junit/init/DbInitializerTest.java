@@ -0,0 +1,53 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.init;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DbInitializerTest {
+
+    @Test
+    public void getFingerprint_FunctionIds() {
+        DbInitializer i1 = new DbInitializer();
+        i1.addFunction("f1", c -> {});
+
+        DbInitializer i2 = new DbInitializer();
+        i2.addFunction("f1", c -> c.createStatement().close());
+
+        DbInitializer i3 = new DbInitializer();
+        i3.addFunction("f2", c -> {});
+
+        assertEquals(i1.getFingerprint(), i2.getFingerprint());
+        assertNotEquals(i1.getFingerprint(), i3.getFingerprint());
+    }
+
+    @Test
+    public void getFingerprint_FunctionsWithoutIds() {
+        DbInitializer i = new DbInitializer();
+        i.addFunction("f1", c -> {});
+        i.addFunction(c -> {});
+
+        assertThrows(IllegalStateException.class, i::getFingerprint);
+    }
+}
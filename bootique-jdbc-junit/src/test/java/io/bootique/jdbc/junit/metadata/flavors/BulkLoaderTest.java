@@ -0,0 +1,147 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc.junit.metadata.flavors;
+
+import io.bootique.jdbc.junit.metadata.DbColumnMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BulkLoaderTest {
+
+    private static final DbColumnMetadata[] COLUMNS = {
+            new DbColumnMetadata("c1", Types.INTEGER, true, false),
+            new DbColumnMetadata("c2", Types.VARCHAR, false, true),
+            new DbColumnMetadata("c3", Types.VARBINARY, false, true),
+            new DbColumnMetadata("c4", Types.BOOLEAN, false, true)
+    };
+
+    private static final List<Object[]> ROWS = List.of(
+            new Object[]{1, "a\"b,c\nd", new byte[]{1, (byte) 0xAB}, true},
+            new Object[]{2, "", null, null},
+            new Object[]{3, null, new byte[0], false},
+            new Object[]{4, "tab\there\\ünï", null, null}
+    );
+
+    @Test
+    public void postgres() throws IOException {
+        PostgresBulkLoader loader = new PostgresBulkLoader();
+        assertEquals("copy \"t\" (\"c1\", \"c2\", \"c3\", \"c4\") from stdin with (format csv)",
+                loader.createLoadSql("\"t\"", new String[]{"\"c1\"", "\"c2\"", "\"c3\"", "\"c4\""}, COLUMNS));
+
+        String text = read(new RowsInputStream(
+                ROWS.iterator(),
+                (r, out) -> PostgresBulkLoader.writeRow(COLUMNS, r, out)));
+        assertEquals("""
+                "1","a""b,c
+                d","\\x01ab","1"
+                "2","",,
+                "3",,"\\x","0"
+                "4","tab\there\\ünï",,
+                """, text);
+    }
+
+    @Test
+    public void mySQL() throws IOException {
+        MySQLBulkLoader loader = new MySQLBulkLoader();
+        assertEquals("load data local infile 'stream' into table `t` character set utf8mb4 (`c1`, `c2`, @v2, @v3) " +
+                        "set `c3` = unhex(@v2), `c4` = cast(@v3 as unsigned)",
+                loader.createLoadSql("`t`", new String[]{"`c1`", "`c2`", "`c3`", "`c4`"}, COLUMNS));
+
+        String text = read(new RowsInputStream(ROWS.iterator(), (r, out) -> MySQLBulkLoader.writeRow(COLUMNS, r, out)));
+        assertEquals("""
+                1\ta"b,c\\nd\t01ab\t1
+                2\t\t\\N\t\\N
+                3\t\\N\t\t0
+                4\ttab\\there\\\\ünï\t\\N\t\\N
+                """, text);
+    }
+
+    @Test
+    public void format_DateTime() {
+        DbColumnMetadata date = new DbColumnMetadata("c", Types.DATE, false, true);
+        DbColumnMetadata time = new DbColumnMetadata("c", Types.TIME, false, true);
+        DbColumnMetadata ts = new DbColumnMetadata("c", Types.TIMESTAMP, false, true);
+        DbColumnMetadata tsz = new DbColumnMetadata("c", Types.TIMESTAMP_WITH_TIMEZONE, false, true);
+
+        LocalDateTime ldt = LocalDateTime.of(2018, 1, 10, 4, 0, 1, 5_000_000);
+        java.util.Date utilDate = java.util.Date.from(ldt.atZone(ZoneId.systemDefault()).toInstant());
+
+        assertEquals("2018-01-10", BulkValueFormatter.format(date, utilDate));
+        assertEquals("2018-01-10", BulkValueFormatter.format(date, Date.valueOf("2018-01-10")));
+        assertEquals("2018-01-10", BulkValueFormatter.format(date, LocalDate.of(2018, 1, 10)));
+        assertEquals("2018-01-10", BulkValueFormatter.format(date, "2018-01-10"));
+
+        assertEquals("04:00:01", BulkValueFormatter.format(time, utilDate));
+        assertEquals("04:00:01", BulkValueFormatter.format(time, LocalTime.of(4, 0, 1)));
+
+        assertEquals("2018-01-10 04:00:01.005", BulkValueFormatter.format(ts, utilDate));
+        assertEquals("2018-01-10 04:00:01.005", BulkValueFormatter.format(ts, Timestamp.valueOf(ldt)));
+        assertEquals("2018-01-10 04:00:01.005", BulkValueFormatter.format(ts, ldt));
+        assertEquals("2018-01-10 04:00:01.005", BulkValueFormatter.format(ts, utilDate.toInstant()));
+
+        assertEquals(utilDate.toInstant().toString(), BulkValueFormatter.format(tsz, utilDate));
+        assertEquals("2018-01-10T04:00:01.005Z",
+                BulkValueFormatter.format(tsz, OffsetDateTime.of(ldt, ZoneOffset.UTC)));
+    }
+
+    @Test
+    public void format_Boolean() {
+        assertEquals("1", BulkValueFormatter.format(new DbColumnMetadata("c", Types.BOOLEAN, false, true), true));
+        assertEquals("0", BulkValueFormatter.format(new DbColumnMetadata("c", Types.BIT, false, true), false));
+        assertEquals("1", BulkValueFormatter.format(new DbColumnMetadata("c", Types.INTEGER, false, true), true));
+        assertEquals("true", BulkValueFormatter.format(new DbColumnMetadata("c", Types.VARCHAR, false, true), true));
+    }
+
+    @Test
+    public void format_Numeric() {
+        DbColumnMetadata decimal = new DbColumnMetadata("c", Types.DECIMAL, false, true);
+        assertEquals("1000", BulkValueFormatter.format(decimal, new BigDecimal("1E+3")));
+        assertEquals("2.345", BulkValueFormatter.format(decimal, new BigDecimal("2.345")));
+    }
+
+    private static String read(RowsInputStream in) throws IOException {
+
+        // small reads to check that the row boundaries are handled correctly
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3];
+        int read;
+        while ((read = in.read(buffer, 0, buffer.length)) > 0) {
+            out.write(buffer, 0, read);
+        }
+
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
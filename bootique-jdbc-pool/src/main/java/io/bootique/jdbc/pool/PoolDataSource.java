@@ -0,0 +1,409 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.pool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pooling DataSource that only uses {@link java.util.concurrent} primitives on the connection checkout path and
+ * never blocks inside a monitor. So callers running on virtual threads are unmounted while waiting for a connection,
+ * instead of pinning their carrier threads. Waiters are served in FIFO order via a fair {@link Semaphore}, which
+ * keeps the wait time distribution tight even with thousands of concurrent waiters. A background thread periodically
+ * closes expired connections (and, if enabled, evicts or validates idle ones) and tops the pool up to its min size.
+ * The pool must be started via {@link #start()} before use.
+ *
+ * @since 4.0
+ */
+public class PoolDataSource implements DataSource, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PoolDataSource.class);
+
+    private static final long MAX_HOUSEKEEPING_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final String name;
+    private final DataSource nonPoolingDataSource;
+    private final int minConnections;
+    private final int maxConnections;
+    private final long connectionTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSec;
+    private final long maxLifetimeNanos;
+    private final long idleTimeoutNanos;
+    private final long keepaliveIntervalNanos;
+    private final String validationQuery;
+
+    // each connection in use holds a permit, so the total number of connections never exceeds "maxConnections"
+    private final Semaphore permits;
+
+    // used as a stack to reuse the most recently returned (and likely still warm) connections first
+    private final ConcurrentLinkedDeque<PooledConnection> idle;
+    private final AtomicInteger size;
+
+    // closes idle and dead connections and tops up the pool. Only present after the pool is started
+    private volatile ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed;
+
+    public PoolDataSource(String name, DataSource nonPoolingDataSource, PoolParameters parameters) {
+        this.name = name;
+        this.nonPoolingDataSource = nonPoolingDataSource;
+        this.minConnections = parameters.minConnections();
+        this.maxConnections = parameters.maxConnections();
+        this.connectionTimeoutNanos = parameters.connectionTimeout().toNanos();
+        this.validationIntervalNanos = parameters.validationInterval().toNanos();
+        this.validationTimeoutSec = (int) Math.max(1, parameters.validationTimeout().toSeconds());
+        this.maxLifetimeNanos = parameters.maxLifetime().toNanos();
+        this.idleTimeoutNanos = parameters.idleTimeout().toNanos();
+        this.keepaliveIntervalNanos = parameters.keepaliveInterval().toNanos();
+        this.validationQuery = parameters.validationQuery();
+
+        this.permits = new Semaphore(maxConnections, true);
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Opens the initial "minConnections" connections and starts the background housekeeping. Should be called once
+     * after the pool is created.
+     */
+    public void start() {
+
+        for (int i = 0; i < minConnections; i++) {
+            try {
+                idle.offerFirst(create());
+            } catch (SQLException e) {
+                LOGGER.info("Error creating a connection when starting pool '{}', ignoring", name, e);
+                break;
+            }
+        }
+
+        this.housekeeper = startHousekeeper();
+
+        // the pool may have been closed while we were starting it
+        if (closed) {
+            housekeeper.shutdownNow();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (closed) {
+            throw new SQLException("Pool '" + name + "' is closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(connectionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Pool '" + name + "' timed out waiting for a connection. "
+                        + "Total: " + getTotalConnections()
+                        + ", active: " + getActiveConnections()
+                        + ", waiting: " + getWaitingThreads());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool '" + name + "'", e);
+        }
+
+        try {
+            PooledConnection c = pollIdle();
+            return (c != null ? c : create()).checkout();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections for a specific user are not supported by the pool");
+    }
+
+    /**
+     * Closes all idle connections and prevents new checkouts. Connections currently in use are closed as they are
+     * returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        ScheduledExecutorService housekeeper = this.housekeeper;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+
+        PooledConnection c;
+        while ((c = idle.pollFirst()) != null) {
+            retire(c);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getTotalConnections() {
+        return size.get();
+    }
+
+    public int getActiveConnections() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Returns an estimated number of threads waiting for a connection.
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    void release(PooledConnection c, boolean broken) {
+
+        try {
+            long now = System.nanoTime();
+            if (broken || closed || isExpired(c, now) || !c.reset()) {
+                retire(c);
+                return;
+            }
+
+            c.setLastUsedAt(now);
+            idle.offerFirst(c);
+
+            // the pool may have been closed while we were returning the connection
+            if (closed && idle.remove(c)) {
+                retire(c);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection pollIdle() {
+
+        PooledConnection c;
+        while ((c = idle.pollFirst()) != null) {
+
+            long now = System.nanoTime();
+            if (isExpired(c, now)) {
+                retire(c);
+            } else if (now - c.getLastAliveAt() > validationIntervalNanos
+                    && !c.validate(validationQuery, validationTimeoutSec, now)) {
+                LOGGER.debug("Discarding invalid connection from pool '{}'", name);
+                retire(c);
+            } else {
+                return c;
+            }
+        }
+
+        return null;
+    }
+
+    private ScheduledExecutorService startHousekeeper() {
+
+        long periodNanos = MAX_HOUSEKEEPING_PERIOD_NANOS;
+        if (maxLifetimeNanos > 0) {
+            periodNanos = Math.min(periodNanos, maxLifetimeNanos);
+        }
+
+        if (idleTimeoutNanos > 0) {
+            periodNanos = Math.min(periodNanos, idleTimeoutNanos);
+        }
+
+        if (keepaliveIntervalNanos > 0) {
+            periodNanos = Math.min(periodNanos, keepaliveIntervalNanos);
+        }
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bootique-jdbc-pool-housekeeper-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+
+        executor.scheduleWithFixedDelay(this::housekeep, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        return executor;
+    }
+
+    void housekeep() {
+        try {
+            evictIdle();
+            topUp();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error in housekeeping of pool '{}'", name, e);
+        }
+    }
+
+    private void evictIdle() {
+
+        // iterating from the bottom of the stack, i.e. starting with the least recently used connections
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && !closed) {
+
+            PooledConnection c = it.next();
+            long now = System.nanoTime();
+
+            if (isExpired(c, now)) {
+                if (idle.remove(c)) {
+                    retire(c);
+                }
+            } else if (idleTimeoutNanos > 0
+                    && now - c.getLastUsedAt() > idleTimeoutNanos
+                    && size.get() > minConnections) {
+                if (idle.remove(c)) {
+                    LOGGER.debug("Closing idle connection in pool '{}'", name);
+                    retire(c);
+                }
+            } else if (keepaliveIntervalNanos > 0 && now - c.getLastAliveAt() > keepaliveIntervalNanos) {
+                keepalive(c, now);
+            }
+        }
+    }
+
+    private void keepalive(PooledConnection c, long now) {
+
+        // while being validated, the connection is treated as "in use" and must hold a permit
+        if (!permits.tryAcquire()) {
+            return;
+        }
+
+        try {
+            if (!idle.remove(c)) {
+                return;
+            }
+
+            if (c.validate(validationQuery, validationTimeoutSec, now)) {
+                offerIdle(c);
+            } else {
+                LOGGER.debug("Discarding invalid connection from pool '{}'", name);
+                retire(c);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void topUp() {
+
+        // a connection being created is treated as "in use" and must hold a permit
+        while (!closed && size.get() < minConnections && permits.tryAcquire()) {
+            try {
+                offerIdle(create());
+            } catch (SQLException e) {
+                LOGGER.info("Error creating a connection when topping up pool '{}', ignoring", name, e);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void offerIdle(PooledConnection c) {
+        idle.offerLast(c);
+
+        // the pool may have been closed while we were adding the connection
+        if (closed && idle.remove(c)) {
+            retire(c);
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection connection = nonPoolingDataSource.getConnection();
+
+        PooledConnection c;
+        try {
+            c = new PooledConnection(this, connection, System.nanoTime());
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.close();
+            } catch (SQLException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+
+        size.incrementAndGet();
+        return c;
+    }
+
+    private void retire(PooledConnection c) {
+        size.decrementAndGet();
+        c.close();
+    }
+
+    private boolean isExpired(PooledConnection c, long now) {
+        return maxLifetimeNanos > 0 && now - c.getCreatedAt() > maxLifetimeNanos;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return nonPoolingDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        nonPoolingDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        nonPoolingDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return nonPoolingDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return nonPoolingDataSource.getParentLogger();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : nonPoolingDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || nonPoolingDataSource.isWrapperFor(iface);
+    }
+}
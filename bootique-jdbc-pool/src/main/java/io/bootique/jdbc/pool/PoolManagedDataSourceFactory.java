@@ -0,0 +1,187 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.pool;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.managed.ManagedDataSourceFactory;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import io.bootique.value.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Driver;
+import java.util.Objects;
+
+/**
+ * @since 4.0
+ */
+@BQConfig("Pooling JDBC DataSource that can be used from virtual threads without pinning carrier threads.")
+@JsonTypeName("pool")
+public class PoolManagedDataSourceFactory implements ManagedDataSourceFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PoolManagedDataSourceFactory.class);
+
+    private static final Duration CONNECTION_TIMEOUT = new Duration("30s");
+    private static final Duration VALIDATION_INTERVAL = new Duration("1s");
+    private static final Duration VALIDATION_TIMEOUT = new Duration("5s");
+    private static final Duration MAX_LIFETIME = new Duration("30min");
+    private static final Duration IDLE_TIMEOUT = new Duration("10min");
+    private static final Duration KEEPALIVE_INTERVAL = new Duration("0ms");
+
+    private String jdbcUrl;
+    private String driverClassName;
+    private String username;
+    private String password;
+    private int minConnections;
+    private int maxConnections;
+    private Duration connectionTimeout;
+    private Duration validationInterval;
+    private Duration validationTimeout;
+    private Duration maxLifetime;
+    private Duration idleTimeout;
+    private Duration keepaliveInterval;
+    private String validationQuery;
+
+    public PoolManagedDataSourceFactory() {
+        this.maxConnections = 10;
+    }
+
+    @Override
+    public ManagedDataSourceStarter create(String dataSourceName) {
+        String url = getJdbcUrl();
+        return new ManagedDataSourceStarter(
+                () -> url,
+                () -> createDataSource(dataSourceName),
+                ds -> ((PoolDataSource) ds).close());
+    }
+
+    protected PoolDataSource createDataSource(String dataSourceName) {
+        Objects.requireNonNull(jdbcUrl, "'jdbcUrl' property should not be null");
+        LOGGER.info("Starting pooling DataSource '{}' pointing to {}", dataSourceName, jdbcUrl);
+
+        DataSource nonPooling = new DriverDataSource(createDriver(), jdbcUrl, username, password);
+        PoolDataSource pool = new PoolDataSource(dataSourceName, nonPooling, createParameters());
+        pool.start();
+        return pool;
+    }
+
+    protected PoolParameters createParameters() {
+        return new PoolParameters(
+                minConnections,
+                maxConnections,
+                (connectionTimeout != null ? connectionTimeout : CONNECTION_TIMEOUT).getDuration(),
+                (validationInterval != null ? validationInterval : VALIDATION_INTERVAL).getDuration(),
+                (validationTimeout != null ? validationTimeout : VALIDATION_TIMEOUT).getDuration(),
+                (maxLifetime != null ? maxLifetime : MAX_LIFETIME).getDuration(),
+                (idleTimeout != null ? idleTimeout : IDLE_TIMEOUT).getDuration(),
+                (keepaliveInterval != null ? keepaliveInterval : KEEPALIVE_INTERVAL).getDuration(),
+                validationQuery);
+    }
+
+    protected Driver createDriver() {
+
+        // if no explicit driver is set, DriverManager will be used to locate one
+        if (driverClassName == null) {
+            return null;
+        }
+
+        try {
+            return (Driver) Class.forName(driverClassName).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Error instantiating JDBC driver: " + driverClassName, e);
+        }
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    @BQConfigProperty
+    public void setJdbcUrl(String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    @BQConfigProperty("Optional JDBC driver class. If not set, the driver is located via DriverManager.")
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    @BQConfigProperty
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    @BQConfigProperty
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    @BQConfigProperty("Number of connections to open on startup. The default is 0.")
+    public void setMinConnections(int minConnections) {
+        this.minConnections = minConnections;
+    }
+
+    @BQConfigProperty("Max number of connections in the pool. The default is 10.")
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    @BQConfigProperty("Max time a caller would wait for a connection. The default is 30s.")
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @BQConfigProperty("Connections that were idle for longer than this interval are validated before being handed " +
+            "out. The default is 1s.")
+    public void setValidationInterval(Duration validationInterval) {
+        this.validationInterval = validationInterval;
+    }
+
+    @BQConfigProperty("Max time a connection validation can take. The default is 5s.")
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    @BQConfigProperty("Connections older than this are closed when returned to the pool or while idle, and " +
+            "replaced to keep the pool at 'minConnections'. Zero disables the limit. The default is 30min.")
+    public void setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    @BQConfigProperty("Connections idle for longer than this are closed in the background, as long as the pool has " +
+            "more than 'minConnections' connections. Zero disables the limit. The default is 10min.")
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    @BQConfigProperty("Idle connections not used for longer than this interval are validated in the background. " +
+            "Zero disables keepalive. The default is 0.")
+    public void setKeepaliveInterval(Duration keepaliveInterval) {
+        this.keepaliveInterval = keepaliveInterval;
+    }
+
+    @BQConfigProperty("Optional SQL query used to validate connections. If not set, JDBC 'Connection.isValid(..)' " +
+            "is used.")
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.pool;
+
+import java.time.Duration;
+
+/**
+ * Settings of a {@link PoolDataSource}.
+ *
+ * @param minConnections     number of connections opened when the pool starts
+ * @param maxConnections     max number of connections, both idle and in use
+ * @param connectionTimeout  max time a caller would wait for a connection
+ * @param validationInterval connections idle for longer than this are validated before being handed out
+ * @param validationTimeout  max time a validation is allowed to take
+ * @param maxLifetime        connections older than this are closed instead of being returned to the pool. Zero means
+ *                           no limit.
+ * @param idleTimeout        connections idle for longer than this are closed, as long as the pool has more than
+ *                           "minConnections" connections. Zero means no limit.
+ * @param keepaliveInterval  idle connections not used or validated for longer than this are validated in the
+ *                           background, and the pool is topped up to "minConnections". Zero disables keepalive.
+ * @param validationQuery    an optional query used to validate connections. If null,
+ *                           {@link java.sql.Connection#isValid(int)} is used.
+ * @since 4.0
+ */
+public record PoolParameters(
+        int minConnections,
+        int maxConnections,
+        Duration connectionTimeout,
+        Duration validationInterval,
+        Duration validationTimeout,
+        Duration maxLifetime,
+        Duration idleTimeout,
+        Duration keepaliveInterval,
+        String validationQuery) {
+
+    public PoolParameters {
+
+        if (minConnections < 0) {
+            throw new IllegalArgumentException("Negative min connections: " + minConnections);
+        }
+
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive: " + maxConnections);
+        }
+
+        if (minConnections > maxConnections) {
+            throw new IllegalArgumentException("Min connections (" + minConnections
+                    + ") is greater than max connections (" + maxConnections + ")");
+        }
+    }
+}
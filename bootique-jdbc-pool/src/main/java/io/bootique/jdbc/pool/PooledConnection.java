@@ -0,0 +1,369 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A physical connection owned by the pool. Each checkout produces a new {@link Connection} proxy, so a stale
+ * reference to an earlier checkout can't close or use the connection after it was returned.
+ */
+class PooledConnection {
+
+    // SQLState class for connection exceptions
+    private static final String CONNECTION_ERROR_STATE = "08";
+
+    // bits of the connection properties changed by the current lease
+    private static final int DIRTY_READ_ONLY = 1;
+    private static final int DIRTY_ISOLATION = 1 << 1;
+    private static final int DIRTY_CATALOG = 1 << 2;
+    private static final int DIRTY_SCHEMA = 1 << 3;
+    private static final int DIRTY_HOLDABILITY = 1 << 4;
+    private static final int DIRTY_NETWORK_TIMEOUT = 1 << 5;
+
+    private final PoolDataSource pool;
+    private final Connection connection;
+    private final long createdAt;
+    private volatile long lastUsedAt;
+    private volatile long lastValidatedAt;
+
+    // connection properties as they were when the connection was opened, restored when it is returned to the pool
+    private final boolean initialReadOnly;
+    private final int initialIsolation;
+    private final String initialCatalog;
+    private final String initialSchema;
+    private final int initialHoldability;
+    private final int initialNetworkTimeout;
+
+    // only accessed by the thread holding the connection
+    private int dirtyBits;
+
+    PooledConnection(PoolDataSource pool, Connection connection, long now) throws SQLException {
+        this.pool = pool;
+        this.connection = connection;
+        this.createdAt = now;
+        this.lastUsedAt = now;
+        this.lastValidatedAt = now;
+
+        this.initialReadOnly = connection.isReadOnly();
+        this.initialIsolation = connection.getTransactionIsolation();
+        this.initialCatalog = connection.getCatalog();
+        this.initialSchema = connection.getSchema();
+        this.initialHoldability = connection.getHoldability();
+        this.initialNetworkTimeout = initialNetworkTimeout(connection);
+    }
+
+    private static int initialNetworkTimeout(Connection connection) throws SQLException {
+        try {
+            return connection.getNetworkTimeout();
+        } catch (SQLFeatureNotSupportedException e) {
+            // the setter is likely not supported either, so there will be nothing to restore
+            return -1;
+        }
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    void setLastUsedAt(long lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+
+    /**
+     * Returns the last time the connection was known to be alive, i.e. either used or validated.
+     */
+    long getLastAliveAt() {
+        return Math.max(lastUsedAt, lastValidatedAt);
+    }
+
+    Connection checkout() {
+        return (Connection) Proxy.newProxyInstance(
+                PooledConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease());
+    }
+
+    boolean validate(String validationQuery, int timeoutSec, long now) {
+        boolean valid = validate(validationQuery, timeoutSec);
+        if (valid) {
+            lastValidatedAt = now;
+        }
+
+        return valid;
+    }
+
+    private boolean validate(String validationQuery, int timeoutSec) {
+        try {
+            if (validationQuery == null) {
+                return connection.isValid(timeoutSec);
+            }
+
+            try (Statement st = connection.createStatement()) {
+                st.setQueryTimeout(timeoutSec);
+                try (ResultSet rs = st.executeQuery(validationQuery)) {
+                    return rs.next();
+                }
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Restores the default connection state before putting it back in the pool. Returns false if the connection is
+     * not reusable.
+     */
+    boolean reset() {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            if (dirtyBits != 0) {
+                restoreProperties();
+                dirtyBits = 0;
+            }
+
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void restoreProperties() throws SQLException {
+
+        if ((dirtyBits & DIRTY_READ_ONLY) != 0) {
+            connection.setReadOnly(initialReadOnly);
+        }
+
+        if ((dirtyBits & DIRTY_ISOLATION) != 0) {
+            connection.setTransactionIsolation(initialIsolation);
+        }
+
+        if ((dirtyBits & DIRTY_CATALOG) != 0) {
+            connection.setCatalog(initialCatalog);
+        }
+
+        if ((dirtyBits & DIRTY_SCHEMA) != 0) {
+            connection.setSchema(initialSchema);
+        }
+
+        if ((dirtyBits & DIRTY_HOLDABILITY) != 0) {
+            connection.setHoldability(initialHoldability);
+        }
+
+        if ((dirtyBits & DIRTY_NETWORK_TIMEOUT) != 0 && initialNetworkTimeout >= 0) {
+            connection.setNetworkTimeout(Runnable::run, initialNetworkTimeout);
+        }
+    }
+
+    private void markDirty(String methodName) {
+        switch (methodName) {
+            case "setReadOnly" -> dirtyBits |= DIRTY_READ_ONLY;
+            case "setTransactionIsolation" -> dirtyBits |= DIRTY_ISOLATION;
+            case "setCatalog" -> dirtyBits |= DIRTY_CATALOG;
+            case "setSchema" -> dirtyBits |= DIRTY_SCHEMA;
+            case "setHoldability" -> dirtyBits |= DIRTY_HOLDABILITY;
+            case "setNetworkTimeout" -> dirtyBits |= DIRTY_NETWORK_TIMEOUT;
+            default -> {
+            }
+        }
+    }
+
+    void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // ignore, the connection is being discarded
+        }
+    }
+
+    private class Lease implements InvocationHandler {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean broken;
+
+        // statements not closed by the caller are closed when the connection is returned to the pool
+        private final List<Statement> statements = new ArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        closeStatements();
+                        pool.release(PooledConnection.this, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + connection + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("Connection is closed");
+            }
+
+            Object result = invokeOnConnection(method, args);
+            if (result == null) {
+                // setters are void, so this is a cheap pre-check
+                markDirty(method.getName());
+            }
+
+            // the objects that can return their connection must return the lease instead of the physical connection
+            if (result instanceof Statement st) {
+                synchronized (statements) {
+                    statements.add(st);
+                }
+                return wrap(proxy, st, method.getReturnType());
+            } else if (result instanceof DatabaseMetaData md) {
+                return wrap(proxy, md, DatabaseMetaData.class);
+            }
+
+            return result;
+        }
+
+        private Object invokeOnConnection(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw checkBroken(e.getCause());
+            }
+        }
+
+        private Throwable checkBroken(Throwable th) {
+            if (th instanceof SQLException sqle
+                    && sqle.getSQLState() != null
+                    && sqle.getSQLState().startsWith(CONNECTION_ERROR_STATE)) {
+                broken = true;
+            }
+
+            return th;
+        }
+
+        private Object wrap(Object leaseProxy, Object delegate, Class<?> type) {
+            return Proxy.newProxyInstance(
+                    PooledConnection.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new LeaseChild(leaseProxy, delegate));
+        }
+
+        private void closeStatements() {
+            synchronized (statements) {
+                for (Statement st : statements) {
+                    try {
+                        st.close();
+                    } catch (SQLException e) {
+                        // ignore, the statement is no longer usable anyway
+                    }
+                }
+                statements.clear();
+            }
+        }
+
+        // a Statement or DatabaseMetaData obtained from the lease
+        private class LeaseChild implements InvocationHandler {
+
+            private final Object leaseProxy;
+            private final Object delegate;
+
+            LeaseChild(Object leaseProxy, Object delegate) {
+                this.leaseProxy = leaseProxy;
+                this.delegate = delegate;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                switch (method.getName()) {
+                    case "getConnection":
+                        return leaseProxy;
+                    case "close":
+                        if (delegate instanceof Statement st) {
+                            synchronized (statements) {
+                                statements.remove(st);
+                            }
+                        }
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return delegate.toString();
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                        break;
+                    case "isWrapperFor":
+                        if (((Class<?>) args[0]).isInstance(proxy)) {
+                            return true;
+                        }
+                        break;
+                }
+
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw checkBroken(e.getCause());
+                }
+            }
+        }
+    }
+}
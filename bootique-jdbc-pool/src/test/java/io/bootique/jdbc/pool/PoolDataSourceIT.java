@@ -0,0 +1,320 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.derby.impl.jdbc.EmbedConnection;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolDataSourceIT {
+
+    private PoolDataSource pool;
+
+    private PoolDataSource createPool(int min, int max, Duration timeout) {
+        return createPool(min, max, timeout, Duration.ZERO, Duration.ZERO);
+    }
+
+    private PoolDataSource createPool(int min, int max, Duration timeout, Duration idleTimeout, Duration keepalive) {
+        return createPool(min, max, timeout, Duration.ofMinutes(30), idleTimeout, keepalive);
+    }
+
+    private PoolDataSource createPool(
+            int min,
+            int max,
+            Duration timeout,
+            Duration maxLifetime,
+            Duration idleTimeout,
+            Duration keepalive) {
+
+        PoolParameters parameters = new PoolParameters(
+                min,
+                max,
+                timeout,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                maxLifetime,
+                idleTimeout,
+                keepalive,
+                null);
+
+        this.pool = new PoolDataSource(
+                "test",
+                new DriverDataSource(null, "jdbc:derby:memory:PoolDataSourceIT;create=true", null, null),
+                parameters);
+
+        pool.start();
+        return pool;
+    }
+
+    @AfterEach
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void minConnections() {
+        PoolDataSource pool = createPool(2, 5, Duration.ofSeconds(1));
+        assertEquals(2, pool.getTotalConnections());
+        assertEquals(2, pool.getIdleConnections());
+        assertEquals(0, pool.getActiveConnections());
+    }
+
+    @Test
+    public void getConnection_Reuse() throws SQLException {
+        PoolDataSource pool = createPool(0, 5, Duration.ofSeconds(1));
+
+        Connection c1 = pool.getConnection();
+        assertEquals(1, pool.getActiveConnections());
+        c1.close();
+
+        assertTrue(c1.isClosed());
+        assertThrows(SQLException.class, c1::createStatement);
+
+        // a second close must not return the connection twice
+        c1.close();
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections());
+
+        try (Connection c2 = pool.getConnection()) {
+            assertNotSame(c1, c2);
+            assertEquals(1, pool.getTotalConnections());
+            assertFalse(c2.isClosed());
+        }
+    }
+
+    @Test
+    public void getConnection_ResetState() throws SQLException {
+        PoolDataSource pool = createPool(0, 1, Duration.ofSeconds(1));
+
+        try (Connection c = pool.getConnection()) {
+            c.setAutoCommit(false);
+        }
+
+        try (Connection c = pool.getConnection()) {
+            assertTrue(c.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void getConnection_ResetProperties() throws SQLException {
+        PoolDataSource pool = createPool(0, 1, Duration.ofSeconds(1));
+
+        EmbedConnection physical;
+        String schema;
+        try (Connection c = pool.getConnection(); Statement st = c.createStatement()) {
+            physical = c.unwrap(EmbedConnection.class);
+            schema = c.getSchema();
+
+            // in-memory DB outlives the pool, so the schema may already exist
+            if (!c.getMetaData().getSchemas(null, "RESET_PROPERTIES").next()) {
+                st.execute("CREATE SCHEMA RESET_PROPERTIES");
+            }
+
+            c.setReadOnly(true);
+            c.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            c.setHoldability(ResultSet.CLOSE_CURSORS_AT_COMMIT);
+            c.setSchema("RESET_PROPERTIES");
+        }
+
+        try (Connection c = pool.getConnection()) {
+            assertSame(physical, c.unwrap(EmbedConnection.class));
+            assertFalse(c.isReadOnly());
+            assertEquals(Connection.TRANSACTION_READ_COMMITTED, c.getTransactionIsolation());
+            assertEquals(ResultSet.HOLD_CURSORS_OVER_COMMIT, c.getHoldability());
+            assertEquals(schema, c.getSchema());
+        }
+    }
+
+    @Test
+    public void getConnection_Timeout() throws SQLException {
+        PoolDataSource pool = createPool(0, 1, Duration.ofMillis(100));
+
+        try (Connection c = pool.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        }
+
+        try (Connection c = pool.getConnection()) {
+            assertNotNull(c);
+        }
+    }
+
+    @Test
+    public void getConnection_VirtualThreads() throws Exception {
+        PoolDataSource pool = createPool(0, 4, Duration.ofSeconds(30));
+
+        int threads = 2000;
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>(threads);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    try (Connection c = pool.getConnection()) {
+                        maxActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                        c.getMetaData();
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> r : results) {
+                r.get();
+            }
+        }
+
+        assertTrue(maxActive.get() <= 4, "Too many active connections: " + maxActive.get());
+        assertTrue(pool.getTotalConnections() <= 4);
+        assertEquals(0, pool.getActiveConnections());
+    }
+
+    @Test
+    public void parameters_MinGreaterThanMax() {
+        assertThrows(IllegalArgumentException.class, () -> createPool(3, 2, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void getConnection_NoPhysicalConnectionLeaks() throws SQLException {
+        PoolDataSource pool = createPool(0, 1, Duration.ofSeconds(1));
+
+        try (Connection c = pool.getConnection()) {
+            try (Statement st = c.createStatement()) {
+                assertSame(c, st.getConnection());
+            }
+
+            try (PreparedStatement st = c.prepareStatement("VALUES 1")) {
+                assertSame(c, st.getConnection());
+            }
+
+            DatabaseMetaData md = c.getMetaData();
+            assertSame(c, md.getConnection());
+        }
+    }
+
+    @Test
+    public void getConnection_CloseStatementsOnRelease() throws SQLException {
+        PoolDataSource pool = createPool(0, 1, Duration.ofSeconds(1));
+
+        Statement closedByCaller;
+        Statement leftOpen;
+        try (Connection c = pool.getConnection()) {
+            closedByCaller = c.createStatement();
+            closedByCaller.close();
+            leftOpen = c.prepareStatement("VALUES 1");
+            assertFalse(leftOpen.isClosed());
+        }
+
+        assertTrue(closedByCaller.isClosed());
+        assertTrue(leftOpen.isClosed());
+    }
+
+    @Test
+    public void housekeep_IdleTimeout() throws Exception {
+        PoolDataSource pool = createPool(1, 3, Duration.ofSeconds(1), Duration.ofMillis(100), Duration.ZERO);
+
+        Connection c1 = pool.getConnection();
+        Connection c2 = pool.getConnection();
+        Connection c3 = pool.getConnection();
+        c1.close();
+        c2.close();
+        c3.close();
+        assertEquals(3, pool.getTotalConnections());
+
+        // idle connections are closed down to "minConnections"
+        waitFor(() -> pool.getTotalConnections() == 1);
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    public void housekeep_Keepalive_TopUp() throws Exception {
+        PoolDataSource pool = createPool(2, 3, Duration.ofSeconds(1), Duration.ZERO, Duration.ofMillis(100));
+        assertEquals(2, pool.getTotalConnections());
+
+        // break the physical connection, so that it is discarded when returned
+        try (Connection c = pool.getConnection()) {
+            c.unwrap(EmbedConnection.class).close();
+        }
+        assertEquals(1, pool.getTotalConnections());
+
+        waitFor(() -> pool.getTotalConnections() == 2);
+        assertEquals(2, pool.getIdleConnections());
+    }
+
+    @Test
+    public void housekeep_MaxLifetime_TopUp() throws Exception {
+        PoolDataSource pool = createPool(
+                1,
+                2,
+                Duration.ofSeconds(1),
+                Duration.ofMillis(200),
+                Duration.ZERO,
+                Duration.ZERO);
+
+        EmbedConnection physical;
+        try (Connection c = pool.getConnection()) {
+            physical = c.unwrap(EmbedConnection.class);
+        }
+
+        // with no idle timeout or keepalive, expired connections are still replaced in the background
+        waitFor(() -> physical.isClosed() && pool.getIdleConnections() == 1);
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(condition.getAsBoolean(), "Condition was not met in time");
+    }
+
+    @Test
+    public void close() throws SQLException {
+        PoolDataSource pool = createPool(1, 2, Duration.ofSeconds(1));
+
+        Connection c = pool.getConnection();
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+
+        // connections in use are closed as they are returned
+        c.close();
+        assertEquals(0, pool.getTotalConnections());
+        assertEquals(0, pool.getIdleConnections());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.pool;
+
+import io.bootique.BQRuntime;
+import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.junit.BQTest;
+import io.bootique.junit.BQTestFactory;
+import io.bootique.junit.BQTestTool;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@BQTest
+public class PoolManagedDataSourceFactoryIT {
+
+    @BQTestTool
+    final BQTestFactory testFactory = new BQTestFactory().autoLoadModules();
+
+    @Test
+    public void forName() throws SQLException {
+        BQRuntime runtime = testFactory.app("-c", "classpath:PoolManagedDataSourceFactoryIT.yml").createRuntime();
+
+        DataSource ds = runtime.getInstance(DataSourceFactory.class).forName("derby");
+        PoolDataSource pool = assertInstanceOf(PoolDataSource.class, ds);
+        assertEquals(3, pool.getMaxConnections());
+        assertEquals(1, pool.getTotalConnections());
+
+        try (Connection c = pool.getConnection()) {
+            assertEquals("jdbc:derby:memory:PoolManagedDataSourceFactoryIT", c.getMetaData().getURL());
+        }
+    }
+}
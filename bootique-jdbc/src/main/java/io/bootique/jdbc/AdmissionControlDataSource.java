@@ -0,0 +1,246 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.jdbc.managed.ManagedDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A "bulkhead" DataSource wrapper that limits the number of connections in use and the number of callers waiting for
+ * a connection. Callers that can't be admitted fail fast with {@link AdmissionRejectedException} instead of queueing
+ * in the underlying pool up to its (usually much longer) connection timeout.
+ *
+ * @since 4.0
+ */
+public class AdmissionControlDataSource implements DataSource {
+
+    private final String name;
+    private final ManagedDataSource managed;
+    private final DataSource delegate;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting;
+    private final LongAdder rejected;
+
+    public AdmissionControlDataSource(
+            String name,
+            ManagedDataSource managed,
+            int maxConcurrent,
+            int maxWaiting,
+            long maxWaitNanos) {
+
+        this.name = name;
+        this.managed = managed;
+        this.delegate = managed.getDataSource();
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitNanos = maxWaitNanos;
+
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.waiting = new AtomicInteger();
+        this.rejected = new LongAdder();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        try {
+            return wrap(delegate.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        try {
+            return wrap(delegate.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of connections currently in use or being acquired from the underlying DataSource.
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of callers waiting for admission.
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Returns the total number of rejected connection requests.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    void shutdown() {
+        managed.shutdown();
+    }
+
+    private void admit() throws SQLException {
+
+        // a timed "tryAcquire" with zero timeout honors the semaphore fairness, unlike the untimed one
+        try {
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                throw new AdmissionRejectedException("DataSource '" + name + "' is overloaded: "
+                        + maxConcurrent + " connections in use and " + maxWaiting + " callers waiting");
+            }
+
+            try {
+                if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    rejected.increment();
+                    throw new AdmissionRejectedException("DataSource '" + name + "' is overloaded: timed out after "
+                            + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms waiting for admission");
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for admission to DataSource '" + name + "'", e);
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                AdmissionControlDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    // releases the admission permit when the connection is closed
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final AtomicBoolean closed;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+            this.closed = new AtomicBoolean();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return connection.toString();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.managed.ManagedDataSource;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import io.bootique.value.Duration;
+
+/**
+ * Configures admission control for a single named DataSource.
+ *
+ * @since 4.0
+ */
+@BQConfig("Admission control (aka \"bulkhead\") for a DataSource")
+public class AdmissionControlFactory {
+
+    private static final Duration DEFAULT_MAX_WAIT = new Duration("1s");
+
+    private int maxConcurrent;
+    private int maxWaiting;
+    private Duration maxWait;
+
+    public AdmissionControlFactory() {
+        this.maxWaiting = Integer.MAX_VALUE;
+    }
+
+    @BQConfigProperty("Max number of connections that can be in use at the same time. Usually should be equal to " +
+            "the max size of the underlying pool. Required.")
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @BQConfigProperty("Max number of callers allowed to wait for a connection when 'maxConcurrent' connections are " +
+            "in use. Callers above this limit are rejected immediately. Unlimited by default.")
+    public void setMaxWaiting(int maxWaiting) {
+        this.maxWaiting = maxWaiting;
+    }
+
+    @BQConfigProperty("Max time a caller would wait for admission before being rejected. The default is 1s.")
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Returns a starter that wraps DataSources produced by the provided starter in an
+     * {@link AdmissionControlDataSource}.
+     */
+    public ManagedDataSourceStarter decorate(String dataSourceName, ManagedDataSourceStarter starter) {
+
+        if (maxConcurrent <= 0) {
+            throw new IllegalStateException("'maxConcurrent' must be positive for DataSource '" + dataSourceName + "': "
+                    + maxConcurrent);
+        }
+
+        if (maxWaiting < 0) {
+            throw new IllegalStateException("'maxWaiting' must not be negative for DataSource '" + dataSourceName + "': "
+                    + maxWaiting);
+        }
+
+        long maxWaitNanos = (maxWait != null ? maxWait : DEFAULT_MAX_WAIT).getDuration().toNanos();
+
+        return new ManagedDataSourceStarter(
+                starter::getUrl,
+                () -> {
+                    ManagedDataSource managed = starter.start();
+                    return new AdmissionControlDataSource(dataSourceName, managed, maxConcurrent, maxWaiting, maxWaitNanos);
+                },
+                ds -> ((AdmissionControlDataSource) ds).shutdown());
+    }
+}
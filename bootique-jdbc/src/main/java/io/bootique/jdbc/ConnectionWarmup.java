@@ -0,0 +1,199 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens a number of DataSource connections at once, running a list of warmup statements on each of them to prime the
+ * server-side plan caches. Holding all the connections at once forces a pool to open distinct physical connections.
+ * Connections are opened by at most "threads" threads. Warmup errors are logged, but not rethrown.
+ *
+ * @since 4.0
+ */
+public class ConnectionWarmup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionWarmup.class);
+
+    private final int connections;
+    private final List<String> statements;
+    private final int threads;
+    private final Duration timeout;
+
+    public ConnectionWarmup(int connections, List<String> statements, int threads, Duration timeout) {
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException("'threads' must be positive: " + threads);
+        }
+
+        this.connections = connections;
+        this.statements = statements;
+        this.threads = threads;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Warms up DataSource connections, blocking until all connections are warm or the timeout expires. If the timeout
+     * expires, the warmup continues in the background.
+     *
+     * @return the number of connections that were warmed up before this method returned
+     */
+    public int warmUp(String dataSourceName, DataSource dataSource) {
+
+        if (connections <= 0) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CountDownLatch acquired = new CountDownLatch(connections);
+        AtomicInteger warm = new AtomicInteger();
+
+        int threads = Math.min(this.threads, connections);
+        if (threads == 1) {
+            warmUpConnections(dataSourceName, dataSource, connections, acquired, warm, deadline);
+            return warm.get();
+        }
+
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r);
+            t.setName("bootique-jdbc-warmup-" + dataSourceName);
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            for (int i = 0; i < threads; i++) {
+
+                // spread the connections between the threads as evenly as possible
+                int share = connections / threads + (i < connections % threads ? 1 : 0);
+                executor.execute(() -> {
+                    try {
+                        warmUpConnections(dataSourceName, dataSource, share, acquired, warm, deadline);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            if (!done.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                LOGGER.warn("DataSource '{}' did not warm up in {} ms, will continue warming up in the background",
+                        dataSourceName,
+                        timeout.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // do not interrupt the tasks that are still running, just let them finish in the background
+            executor.shutdown();
+        }
+
+        return warm.get();
+    }
+
+    protected void warmUpConnections(
+            String dataSourceName,
+            DataSource dataSource,
+            int count,
+            CountDownLatch acquired,
+            AtomicInteger warm,
+            long deadline) {
+
+        List<Connection> open = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+
+                Connection connection;
+                try {
+                    connection = dataSource.getConnection();
+                } catch (SQLException | RuntimeException e) {
+                    LOGGER.warn("Failed to warm up a connection of DataSource '{}'", dataSourceName, e);
+
+                    // must count down the entire remaining share, so that other threads don't wait for this one
+                    for (int j = i; j < count; j++) {
+                        acquired.countDown();
+                    }
+                    break;
+                }
+
+                open.add(connection);
+                acquired.countDown();
+
+                try {
+                    for (String sql : statements) {
+                        execute(connection, sql);
+                    }
+                    warm.incrementAndGet();
+                } catch (SQLException | RuntimeException e) {
+                    LOGGER.warn("Failed to run warmup statements on a connection of DataSource '{}'", dataSourceName, e);
+                }
+            }
+
+            // hold on to the connections until all other connections are open, so that the pool can't hand them out
+            // again to another warmup thread
+            acquired.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Connection c : open) {
+                try {
+                    c.close();
+                } catch (SQLException e) {
+                    // ignore...
+                }
+            }
+        }
+    }
+
+    protected void execute(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement st = connection.prepareStatement(sql)) {
+
+            // read all results, so that the statement is fully executed by the server
+            boolean hasResultSet = st.execute();
+            while (hasResultSet || st.getUpdateCount() != -1) {
+                if (hasResultSet) {
+                    try (ResultSet rs = st.getResultSet()) {
+                        while (rs.next()) {
+                            // just iterate
+                        }
+                    }
+                }
+
+                hasResultSet = st.getMoreResults();
+            }
+        }
+    }
+}
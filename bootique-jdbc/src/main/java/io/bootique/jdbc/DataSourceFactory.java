@@ -22,6 +22,7 @@ package io.bootique.jdbc;
 import javax.sql.DataSource;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface DataSourceFactory {
 
@@ -34,6 +35,23 @@ public interface DataSourceFactory {
      */
     DataSource forName(String dataSourceName);
 
+    /**
+     * Returns a future DataSource for the specified name. If the DataSource is not started yet, implementations may
+     * start it asynchronously, so that the caller is not blocked. Startup failures are reported via the returned
+     * future. The default implementation simply delegates to {@link #forName(String)} on the calling thread.
+     *
+     * @param dataSourceName symbolic name of the DataSource we are interested in.
+     * @return a future that will be completed with a DataSource for a given name.
+     * @since 4.0
+     */
+    default CompletableFuture<DataSource> forNameAsync(String dataSourceName) {
+        try {
+            return CompletableFuture.completedFuture(forName(dataSourceName));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Returns the names of all configured DataSources. Each of these names can
      * be used as an argument to {@link #forName(String)} method.
@@ -0,0 +1,133 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts all DataSources of a {@link DataSourceFactory} in parallel on a bounded thread pool, waiting for each one to
+ * open a minimum number of live connections. Intended to be run on app startup, so that the first request to each
+ * DataSource does not pay the price of the pool startup.
+ *
+ * @since 4.0
+ */
+public class DataSourceWarmStart {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceWarmStart.class);
+
+    private final DataSourceFactory dataSourceFactory;
+    private final int threads;
+    private final ConnectionWarmup connectionWarmup;
+    private final Duration timeout;
+
+    public DataSourceWarmStart(DataSourceFactory dataSourceFactory, int threads, int minConnections, Duration timeout) {
+        this.dataSourceFactory = dataSourceFactory;
+        this.threads = threads;
+
+        // DataSources are already started in parallel, so open each DataSource connections on a single thread
+        this.connectionWarmup = new ConnectionWarmup(minConnections, List.of(), 1, timeout);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts all DataSources, blocking until they are warm or until the timeout expires. Failures and timeouts are
+     * logged, but not rethrown, as the DataSources that failed to warm up will be retried on first access.
+     */
+    public void start() {
+
+        Collection<String> names = dataSourceFactory.allNames();
+        if (names.isEmpty()) {
+            return;
+        }
+
+        long t0 = System.nanoTime();
+        long deadline = t0 + timeout.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new WarmStartThreadFactory());
+        try {
+
+            Map<String, Future<?>> tasks = new LinkedHashMap<>();
+            for (String name : names) {
+                tasks.put(name, executor.submit(() -> warmUp(name)));
+            }
+
+            int warm = 0;
+            for (Map.Entry<String, Future<?>> e : tasks.entrySet()) {
+                if (await(e.getKey(), e.getValue(), deadline)) {
+                    warm++;
+                }
+            }
+
+            LOGGER.info(
+                    "Warmed up {} of {} DataSource(s) in {} ms",
+                    warm,
+                    names.size(),
+                    (System.nanoTime() - t0) / 1_000_000);
+        } finally {
+            // do not interrupt the tasks that are still running, just let them finish in the background
+            executor.shutdown();
+        }
+    }
+
+    protected void warmUp(String name) {
+        connectionWarmup.warmUp(name, dataSourceFactory.forName(name));
+    }
+
+    private boolean await(String name, Future<?> task, long deadline) {
+        try {
+            task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            LOGGER.warn(
+                    "DataSource '{}' did not warm up in {} ms, will continue starting in the background",
+                    name,
+                    timeout.toMillis());
+            return false;
+        } catch (ExecutionException e) {
+            LOGGER.warn("DataSource '{}' failed to warm up", name, e.getCause());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class WarmStartThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r);
+            t.setName("bootique-jdbc-warmstart-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.value.Duration;
+
+/**
+ * Configures optional "warm start" of DataSources, i.e. their parallel eager startup when {@link DataSourceFactory}
+ * is created.
+ *
+ * @since 4.0
+ */
+@BQConfig("Eager parallel startup of all configured DataSources")
+public class DataSourceWarmStartFactory {
+
+    private static final Duration DEFAULT_TIMEOUT = new Duration("30s");
+
+    private boolean enabled;
+    private int threads;
+    private int minConnections;
+    private Duration timeout;
+
+    public DataSourceWarmStartFactory() {
+        this.minConnections = 1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @BQConfigProperty("Whether all DataSources should be started in parallel when DataSourceFactory is created " +
+            "instead of on first access. The default is 'false'.")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @BQConfigProperty("Max number of threads used to start DataSources. The default is the smaller of the number " +
+            "of DataSources and the number of CPUs.")
+    public void setThreads(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("Negative 'threads': " + threads);
+        }
+
+        this.threads = threads;
+    }
+
+    @BQConfigProperty("Number of live connections each DataSource must open before it is considered warm. " +
+            "The default is 1.")
+    public void setMinConnections(int minConnections) {
+        if (minConnections < 0) {
+            throw new IllegalArgumentException("Negative 'minConnections': " + minConnections);
+        }
+
+        this.minConnections = minConnections;
+    }
+
+    @BQConfigProperty("How long to wait for each DataSource to warm up before logging a warning. DataSources that " +
+            "are not warm by then continue starting in the background. The default is 30s.")
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public DataSourceWarmStart create(DataSourceFactory dataSourceFactory) {
+        return new DataSourceWarmStart(
+                dataSourceFactory,
+                resolveThreads(dataSourceFactory),
+                minConnections,
+                (timeout != null ? timeout : DEFAULT_TIMEOUT).getDuration());
+    }
+
+    protected int resolveThreads(DataSourceFactory dataSourceFactory) {
+        return threads > 0
+                ? threads
+                : Math.max(1, Math.min(dataSourceFactory.allNames().size(), Runtime.getRuntime().availableProcessors()));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.bootique.jdbc;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Configuration of the JDBC extensions that are applied on top of the DataSources configured under the "jdbc" root.
+ * Since "jdbc" is a map of DataSources by name, such settings are placed under a separate root.
+ *
+ * @since 4.0
+ */
+@BQConfig("JDBC extensions applied on top of the configured DataSources")
+public class JdbcExtFactory {
+
+    private DataSourceWarmStartFactory warmStart;
+    private Map<String, AdmissionControlFactory> admission;
+    private Map<String, StatementCacheFactory> statementCache;
+
+    @BQConfigProperty("Eager parallel startup of all configured DataSources")
+    public void setWarmStart(DataSourceWarmStartFactory warmStart) {
+        this.warmStart = warmStart;
+    }
+
+    @BQConfigProperty("A map of DataSource admission controls by DataSource name")
+    public void setAdmission(Map<String, AdmissionControlFactory> admission) {
+        this.admission = admission;
+    }
+
+    @BQConfigProperty("A map of PreparedStatement caches by DataSource name")
+    public void setStatementCache(Map<String, StatementCacheFactory> statementCache) {
+        this.statementCache = statementCache;
+    }
+
+    public DataSourceWarmStartFactory getWarmStart() {
+        return warmStart != null ? warmStart : new DataSourceWarmStartFactory();
+    }
+
+    /**
+     * Returns a copy of the starters map, with starters of DataSources that have a statement cache or admission
+     * control configured replaced with the decorated ones. Admission control is the outermost wrapper, so that it
+     * limits the connections in use.
+     */
+    public Map<String, ManagedDataSourceStarter> decorate(Map<String, ManagedDataSourceStarter> starters) {
+        Map<String, ManagedDataSourceStarter> cachingStarters = decorate(
+                starters,
+                statementCache,
+                "Statement cache",
+                (n, s) -> statementCache.get(n).decorate(n, s));
+
+        return decorate(
+                cachingStarters,
+                admission,
+                "Admission control",
+                (n, s) -> admission.get(n).decorate(n, s));
+    }
+
+    private static Map<String, ManagedDataSourceStarter> decorate(
+            Map<String, ManagedDataSourceStarter> starters,
+            Map<String, ?> configs,
+            String label,
+            BiFunction<String, ManagedDataSourceStarter, ManagedDataSourceStarter> decorator) {
+
+        if (configs == null || configs.isEmpty()) {
+            return starters;
+        }
+
+        Map<String, ManagedDataSourceStarter> decorated = new HashMap<>(starters);
+        configs.keySet().forEach(n -> {
+            ManagedDataSourceStarter starter = starters.get(n);
+            if (starter == null) {
+                throw new IllegalStateException(label + " is configured for an unknown DataSource: " + n);
+            }
+
+            decorated.put(n, decorator.apply(n, starter));
+        });
+
+        return decorated;
+    }
+}
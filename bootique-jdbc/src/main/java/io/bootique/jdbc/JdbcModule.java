@@ -26,6 +26,8 @@ import io.bootique.config.ConfigurationFactory;
 import io.bootique.di.Binder;
 import io.bootique.di.Provides;
 import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import io.bootique.jdbc.routing.RoutingManagedDataSourceFactory;
+import io.bootique.jdbc.sharding.ShardedManagedDataSourceFactory;
 import io.bootique.log.BootLogger;
 import io.bootique.shutdown.ShutdownManager;
 
@@ -37,6 +39,9 @@ public class JdbcModule implements BQModule {
 
     static final String CONFIG_PREFIX = "jdbc";
 
+    // "jdbc" is a map of DataSources by name, so global JDBC settings have to live under a separate root
+    static final String EXT_CONFIG_PREFIX = "jdbcext";
+
     /**
      * @param binder Bootique DI binder.
      * @return an instance of extender.
@@ -50,12 +55,16 @@ public class JdbcModule implements BQModule {
         return ModuleCrate.of(this)
                 .description("Configures and exposes named JDBC DataSources")
                 .config(CONFIG_PREFIX, JdbcFactory.class)
+                .config(EXT_CONFIG_PREFIX, JdbcExtFactory.class)
                 .build();
     }
 
     @Override
     public void configure(Binder binder) {
-        JdbcModule.extend(binder).initAllExtensions();
+        JdbcModule.extend(binder)
+                .initAllExtensions()
+                .addFactoryType(RoutingManagedDataSourceFactory.class)
+                .addFactoryType(ShardedManagedDataSourceFactory.class);
         BQCoreModule.extend(binder).addConfigLoader(ManagedDataSourceTypeDetector.class);
     }
 
@@ -65,11 +74,29 @@ public class JdbcModule implements BQModule {
             Map<String, ManagedDataSourceStarter> starters,
             BootLogger bootLogger,
             ShutdownManager shutdownManager,
-            Set<DataSourceListener> listeners) {
+            Set<DataSourceListener> listeners,
+            JdbcExtFactory extFactory) {
 
-        return shutdownManager.onShutdown(
-                new LazyDataSourceFactory(starters, listeners),
+        // statement caches and admission control wrap DataSources returned by the factory, but not the injectable
+        // starters
+        LazyDataSourceFactory factory = shutdownManager.onShutdown(
+                new LazyDataSourceFactory(extFactory.decorate(starters), listeners),
                 LazyDataSourceFactory::shutdown);
+
+        // warm start is tied to the factory creation (and not to the runtime startup), so that commands that don't
+        // need DataSources (e.g. "--help") do not start them
+        DataSourceWarmStartFactory warmStart = extFactory.getWarmStart();
+        if (warmStart.isEnabled()) {
+            warmStart.create(factory).start();
+        }
+
+        return factory;
+    }
+
+    @Singleton
+    @Provides
+    JdbcExtFactory provideExtFactory(ConfigurationFactory configFactory) {
+        return configFactory.config(JdbcExtFactory.class, EXT_CONFIG_PREFIX);
     }
 
     @Singleton
@@ -22,9 +22,11 @@ package io.bootique.jdbc;
 import io.bootique.ModuleExtender;
 import io.bootique.di.Binder;
 import io.bootique.di.Key;
+import io.bootique.di.MapBuilder;
 import io.bootique.di.SetBuilder;
 import io.bootique.di.TypeLiteral;
 import io.bootique.jdbc.managed.ManagedDataSourceFactory;
+import io.bootique.jdbc.sharding.ShardKeyExtractor;
 
 public class JdbcModuleExtender extends ModuleExtender<JdbcModuleExtender> {
 
@@ -33,6 +35,7 @@ public class JdbcModuleExtender extends ModuleExtender<JdbcModuleExtender> {
 
     private SetBuilder<DataSourceListener> listeners;
     private SetBuilder<Class<? extends ManagedDataSourceFactory>> factoryTypes;
+    private MapBuilder<String, ShardKeyExtractor> shardKeyExtractors;
 
     public JdbcModuleExtender(Binder binder) {
         super(binder);
@@ -42,6 +45,7 @@ public class JdbcModuleExtender extends ModuleExtender<JdbcModuleExtender> {
     public JdbcModuleExtender initAllExtensions() {
         contributeListeners();
         contributeFactoryTypes();
+        contributeShardKeyExtractors();
         return this;
     }
 
@@ -60,6 +64,28 @@ public class JdbcModuleExtender extends ModuleExtender<JdbcModuleExtender> {
         return this;
     }
 
+    /**
+     * Registers a named shard key extractor that can be referenced from the "shardKeyExtractor" property of the
+     * "sharded" DataSources.
+     *
+     * @since 4.0
+     */
+    public JdbcModuleExtender addShardKeyExtractor(String name, ShardKeyExtractor extractor) {
+        contributeShardKeyExtractors().putInstance(name, extractor);
+        return this;
+    }
+
+    /**
+     * Registers a named shard key extractor that can be referenced from the "shardKeyExtractor" property of the
+     * "sharded" DataSources.
+     *
+     * @since 4.0
+     */
+    public JdbcModuleExtender addShardKeyExtractor(String name, Class<? extends ShardKeyExtractor> extractorType) {
+        contributeShardKeyExtractors().put(name, extractorType);
+        return this;
+    }
+
     private SetBuilder<DataSourceListener> contributeListeners() {
         return listeners != null ? listeners : (listeners = newSet(DataSourceListener.class));
     }
@@ -67,4 +93,10 @@ public class JdbcModuleExtender extends ModuleExtender<JdbcModuleExtender> {
     private SetBuilder<Class<? extends ManagedDataSourceFactory>> contributeFactoryTypes() {
         return factoryTypes != null ? factoryTypes : (factoryTypes = newSet(FACTORY_TYPE_KEY));
     }
+
+    private MapBuilder<String, ShardKeyExtractor> contributeShardKeyExtractors() {
+        return shardKeyExtractors != null
+                ? shardKeyExtractors
+                : (shardKeyExtractors = newMap(String.class, ShardKeyExtractor.class));
+    }
 }
@@ -24,32 +24,81 @@ import io.bootique.jdbc.managed.ManagedDataSourceStarter;
 
 import javax.sql.DataSource;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class LazyDataSourceFactory implements DataSourceFactory {
 
     private final Collection<DataSourceListener> listeners;
     private final Map<String, ManagedDataSourceStarter> starters;
-    private final ConcurrentMap<String, ManagedDataSource> dataSources;
+    private final Executor asyncStartupExecutor;
+
+    // Startup of each DataSource is registered as a future. It is completed outside the map operations, so a slow
+    // startup never blocks access to the DataSources that are already started or are starting in parallel
+    private final ConcurrentMap<String, CompletableFuture<ManagedDataSource>> dataSources;
+
+    // names of the DataSources being started on the current thread, used to detect DataSources (e.g. routing or
+    // sharded) that indirectly depend on themselves, which would otherwise deadlock on their own startup future
+    private final ThreadLocal<Set<String>> startingOnThread;
+
+    private volatile boolean shutdown;
 
     public LazyDataSourceFactory(
             Map<String, ManagedDataSourceStarter> starters,
             Set<DataSourceListener> listeners) {
+        this(starters, listeners, new StartupThreadExecutor());
+    }
+
+    /**
+     * @param asyncStartupExecutor an executor used to start DataSources requested via {@link #forNameAsync(String)}.
+     * @since 4.0
+     */
+    public LazyDataSourceFactory(
+            Map<String, ManagedDataSourceStarter> starters,
+            Set<DataSourceListener> listeners,
+            Executor asyncStartupExecutor) {
 
         this.dataSources = new ConcurrentHashMap<>();
+        this.startingOnThread = new ThreadLocal<>();
         this.starters = starters;
         this.listeners = listeners;
+        this.asyncStartupExecutor = asyncStartupExecutor;
     }
 
+    /**
+     * Shuts down all started DataSources. DataSources that are still starting are waited for and shut down once their
+     * startup is finished, so that none of them is left running after this method returns. No new DataSources can be
+     * started after the shutdown.
+     */
     public void shutdown() {
-        dataSources.values().forEach(ManagedDataSource::shutdown);
 
-        dataSources.forEach((name, dataSource) ->
-                listeners.forEach(listener -> listener.afterShutdown(name, dataSource.getUrl(), dataSource.getDataSource()))
-        );
+        // no new startups can be registered after this point
+        synchronized (dataSources) {
+            shutdown = true;
+        }
+
+        dataSources.forEach((name, future) -> {
+
+            ManagedDataSource dataSource;
+            try {
+                dataSource = future.join();
+            } catch (CompletionException | CancellationException e) {
+                // a failed startup has nothing to shut down
+                return;
+            }
+
+            dataSource.shutdown();
+            listeners.forEach(listener -> listener.afterShutdown(name, dataSource.getUrl(), dataSource.getDataSource()));
+        });
     }
 
     @Override
@@ -59,14 +108,104 @@ public class LazyDataSourceFactory implements DataSourceFactory {
 
     @Override
     public DataSource forName(String dataSourceName) {
-        ManagedDataSource managedDataSource = dataSources.computeIfAbsent(dataSourceName, this::createManagedDataSource);
-        return managedDataSource.getDataSource();
+
+        // fast path for a started DataSource: a single map lookup, no ThreadLocal access
+        CompletableFuture<ManagedDataSource> future = dataSources.get(dataSourceName);
+        if (future == null || !future.isDone()) {
+
+            // only a DataSource that is not started yet can be waiting for itself
+            Set<String> starting = startingOnThread.get();
+            if (starting != null && starting.contains(dataSourceName)) {
+                throw new IllegalStateException("Circular dependency between DataSources: "
+                        + String.join(" -> ", starting) + " -> " + dataSourceName);
+            }
+
+            // start synchronously on the calling thread
+            future = startIfNeeded(dataSourceName, Runnable::run);
+        }
+
+        try {
+            return future.join().getDataSource();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public CompletableFuture<DataSource> forNameAsync(String dataSourceName) {
+        return startIfNeeded(dataSourceName, asyncStartupExecutor)
+                .thenApply(ManagedDataSource::getDataSource);
     }
 
     @Override
     public boolean isStarted(String dataSourceName) {
         // should we throw on "starters" missing this key?
-        return dataSources.containsKey(dataSourceName);
+        CompletableFuture<ManagedDataSource> future = dataSources.get(dataSourceName);
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /**
+     * @since 4.0
+     */
+    @Override
+    public Optional<DataSource> forNameIfStarted(String dataSourceName) {
+
+        // a single map lookup instead of the default "isStarted" + "forName"
+        CompletableFuture<ManagedDataSource> future = dataSources.get(dataSourceName);
+        return future != null && future.isDone() && !future.isCompletedExceptionally()
+                ? Optional.of(future.join().getDataSource())
+                : Optional.empty();
+    }
+
+    protected CompletableFuture<ManagedDataSource> startIfNeeded(String name, Executor executor) {
+
+        CompletableFuture<ManagedDataSource> existing = dataSources.get(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<ManagedDataSource> future = new CompletableFuture<>();
+
+        // synchronizing with "shutdown", so that it sees every registered startup
+        synchronized (dataSources) {
+            if (shutdown) {
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Can't start DataSource '" + name + "', the factory is shut down"));
+            }
+
+            existing = dataSources.putIfAbsent(name, future);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        executor.execute(() -> {
+            Set<String> starting = startingOnThread.get();
+            if (starting == null) {
+                starting = new LinkedHashSet<>();
+                startingOnThread.set(starting);
+            }
+
+            starting.add(name);
+            try {
+                future.complete(createManagedDataSource(name));
+            } catch (Throwable th) {
+
+                // unregister before completing, so that the next call can retry the startup
+                dataSources.remove(name, future);
+                future.completeExceptionally(th);
+            } finally {
+                starting.remove(name);
+                if (starting.isEmpty()) {
+                    startingOnThread.remove();
+                }
+            }
+        });
+
+        return future;
     }
 
     protected ManagedDataSource createManagedDataSource(String name) {
@@ -92,4 +231,31 @@ public class LazyDataSourceFactory implements DataSourceFactory {
 
         return dataSource;
     }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException re) {
+            return re;
+        }
+
+        if (cause instanceof Error error) {
+            throw error;
+        }
+
+        return e;
+    }
+
+    private static class StartupThreadExecutor implements Executor {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        // DataSource startups are infrequent and long, so starting a dedicated thread for each one is fine
+        @Override
+        public void execute(Runnable command) {
+            Thread t = new Thread(command);
+            t.setName("bootique-jdbc-startup-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            t.start();
+        }
+    }
 }
@@ -27,6 +27,7 @@ import io.bootique.config.jackson.PropertiesConfigurationLoader;
 import io.bootique.di.Injector;
 import io.bootique.di.Key;
 import io.bootique.di.TypeLiteral;
+import io.bootique.jdbc.managed.CompositeDataSourceFactory;
 import io.bootique.jdbc.managed.ManagedDataSourceFactory;
 import jakarta.inject.Inject;
 
@@ -94,8 +95,10 @@ class ManagedDataSourceTypeDetector implements JsonConfigurationLoader {
         Set<Class<? extends ManagedDataSourceFactory>> allFactories = injector.getProvider(setKey).get();
 
         // the resulting set should contain this class plus one or more concrete ManagedDataSourceFactory implementors.
-        // We can guess the default only if there's a single implementor.
+        // We can guess the default only if there's a single implementor. Composite factories (e.g. "routing") are
+        // not connection pools, so they can't be a default.
         Set<Class<? extends ManagedDataSourceFactory>> types = leafFactories(allFactories);
+        types.removeIf(CompositeDataSourceFactory.class::isAssignableFrom);
 
         return switch (types.size()) {
             case 0 -> throw new BootiqueException(1, """
@@ -0,0 +1,163 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An LRU cache of idle PreparedStatements of a single physical connection, bounded by the number of statements and
+ * their estimated memory footprint.
+ */
+class StatementCache {
+
+    // a rough estimate of the driver statement object and the server-side statement handle
+    static final int STATEMENT_OVERHEAD = 1024;
+
+    // a rough estimate of a driver-side parameter slot (type, value holder, metadata)
+    static final int PARAMETER_OVERHEAD = 64;
+
+    private final StatementCachingDataSource dataSource;
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+    private long memory;
+    private boolean closed;
+
+    StatementCache(StatementCachingDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns an estimated memory footprint of a statement in bytes. Drivers usually keep both the original SQL
+     * (2 bytes per char in the worst case) and its processed form, plus a slot for each parameter.
+     */
+    static long estimateSize(String sql) {
+
+        int parameters = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                parameters++;
+            }
+        }
+
+        return STATEMENT_OVERHEAD + 4L * sql.length() + (long) PARAMETER_OVERHEAD * parameters;
+    }
+
+    /**
+     * Removes and returns a cached statement for the key, or null if there's none.
+     */
+    synchronized PreparedStatement take(Key key) {
+        PreparedStatement st = statements.remove(key);
+        if (st != null) {
+            memory -= key.size();
+        }
+
+        return st;
+    }
+
+    /**
+     * Returns a statement back to the cache, evicting the least recently used statements if needed.
+     */
+    void put(Key key, PreparedStatement statement) {
+
+        // statements are closed outside the lock
+        List<PreparedStatement> toClose = new ArrayList<>(1);
+
+        synchronized (this) {
+            if (closed || statements.containsKey(key) || key.size() > dataSource.getMaxMemory()) {
+                toClose.add(statement);
+            } else {
+                statements.put(key, statement);
+                memory += key.size();
+
+                // the new statement is the most recently used, so it is never evicted here
+                Iterator<Map.Entry<Key, PreparedStatement>> it = statements.entrySet().iterator();
+                while (statements.size() > dataSource.getMaxStatements() || memory > dataSource.getMaxMemory()) {
+                    Map.Entry<Key, PreparedStatement> e = it.next();
+                    it.remove();
+                    memory -= e.getKey().size();
+                    toClose.add(e.getValue());
+                }
+
+                dataSource.evicted(toClose.size());
+            }
+        }
+
+        for (PreparedStatement st : toClose) {
+            closeQuietly(st);
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes all idle statements. Statements returned to the cache after this call are closed immediately.
+     */
+    void close() {
+        PreparedStatement[] toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = statements.values().toArray(new PreparedStatement[0]);
+            statements.clear();
+            memory = 0;
+        }
+
+        for (PreparedStatement st : toClose) {
+            closeQuietly(st);
+        }
+    }
+
+    static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // ignore, the object is no longer usable anyway
+        }
+    }
+
+    /**
+     * A cache key made of the "prepareXyz" method name and its arguments, plus the estimated statement size.
+     */
+    record Key(String method, String sql, Object[] args, long size) {
+
+        Key(String method, String sql, Object[] args) {
+            this(method, sql, args, estimateSize(sql));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k
+                    && method.equals(k.method)
+                    && sql.equals(k.sql)
+                    && Arrays.deepEquals(args, k.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * method.hashCode() + sql.hashCode()) + Arrays.deepHashCode(args);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.managed.ManagedDataSource;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import io.bootique.value.Bytes;
+
+/**
+ * Configures a PreparedStatement cache for a single named DataSource.
+ *
+ * @since 4.0
+ */
+@BQConfig("Per-connection PreparedStatement cache for a DataSource")
+public class StatementCacheFactory {
+
+    private static final int DEFAULT_MAX_STATEMENTS = 100;
+    private static final Bytes DEFAULT_MAX_MEMORY = new Bytes("1mb");
+
+    private int maxStatements;
+    private Bytes maxMemory;
+
+    @BQConfigProperty("Max number of idle statements cached for each connection. The default is 100.")
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    @BQConfigProperty("Max estimated memory taken by idle statements cached for each connection. The estimate is " +
+            "based on the SQL length and the number of parameters, plus a fixed per-statement overhead. " +
+            "The default is 1mb.")
+    public void setMaxMemory(Bytes maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * Returns a starter that wraps DataSources produced by the provided starter in a
+     * {@link StatementCachingDataSource}.
+     */
+    public ManagedDataSourceStarter decorate(String dataSourceName, ManagedDataSourceStarter starter) {
+
+        if (maxStatements < 0) {
+            throw new IllegalStateException("'maxStatements' must not be negative for DataSource '" + dataSourceName
+                    + "': " + maxStatements);
+        }
+
+        int maxStatements = this.maxStatements > 0 ? this.maxStatements : DEFAULT_MAX_STATEMENTS;
+        long maxMemory = (this.maxMemory != null ? this.maxMemory : DEFAULT_MAX_MEMORY).getBytes();
+
+        if (maxMemory <= 0) {
+            throw new IllegalStateException("'maxMemory' must be positive for DataSource '" + dataSourceName
+                    + "': " + maxMemory);
+        }
+
+        return new ManagedDataSourceStarter(
+                starter::getUrl,
+                () -> {
+                    ManagedDataSource managed = starter.start();
+                    return new StatementCachingDataSource(dataSourceName, managed, maxStatements, maxMemory);
+                },
+                ds -> ((StatementCachingDataSource) ds).shutdown());
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.jdbc.managed.ManagedDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A DataSource wrapper that keeps an LRU cache of PreparedStatements for each physical connection, so that repeated
+ * "prepareStatement(sql)" calls with the same SQL reuse the statement already parsed by the driver and the database.
+ * Closing a cached statement returns it to the cache. The cache lives as long as the physical connection: with
+ * connection pools that expose the physical connection via {@link Connection#unwrap(Class)} (e.g. HikariCP), it is
+ * reused across the pool checkouts. Otherwise, it lives for a single checkout. Cached statements are prepared on the
+ * physical connection, as the pool closes the statements of its connection proxy on checkout end. All the other calls
+ * go through the pool connection proxy. Cached statements are closed on eviction, when the physical connection is
+ * found closed and when the DataSource is shut down.
+ *
+ * @since 4.0
+ */
+public class StatementCachingDataSource implements DataSource {
+
+    // Statement properties that the callers may change, keyed by setter name. Their initial values are restored when
+    // a statement is returned to the cache
+    private static final Map<String, Property> PROPERTIES = properties(
+            "MaxRows",
+            "LargeMaxRows",
+            "FetchSize",
+            "FetchDirection",
+            "QueryTimeout",
+            "MaxFieldSize",
+            "Poolable");
+
+    private final String name;
+    private final ManagedDataSource managed;
+    private final DataSource delegate;
+    private final int maxStatements;
+    private final long maxMemory;
+
+    // caches keyed by physical connection
+    private final Map<Connection, StatementCache> caches;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public StatementCachingDataSource(String name, ManagedDataSource managed, int maxStatements, long maxMemory) {
+        this.name = name;
+        this.managed = managed;
+        this.delegate = managed.getDataSource();
+        this.maxStatements = maxStatements;
+        this.maxMemory = maxMemory;
+
+        this.caches = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    private static Map<String, Property> properties(String... names) {
+        Map<String, Property> properties = new HashMap<>();
+        for (String n : names) {
+            try {
+                Method getter = Statement.class.getMethod((n.equals("Poolable") ? "is" : "get") + n);
+                Method setter = Statement.class.getMethod("set" + n, getter.getReturnType());
+                properties.put(setter.getName(), new Property(getter, setter));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No accessors for Statement property: " + n, e);
+            }
+        }
+
+        return properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(delegate.getConnection(username, password));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    /**
+     * Returns the max estimated memory in bytes taken by the idle statements of a single physical connection.
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Returns the total number of "prepare" calls served from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the total number of "prepare" calls that had to create a new statement.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the total number of statements closed to keep the cache within its limits.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the current number of idle statements in the caches of all physical connections.
+     */
+    public int getCachedStatements() {
+        int size = 0;
+        for (StatementCache c : caches.values()) {
+            size += c.size();
+        }
+
+        return size;
+    }
+
+    void evicted(int count) {
+        if (count > 0) {
+            evictions.add(count);
+        }
+    }
+
+    void shutdown() {
+        caches.values().forEach(StatementCache::close);
+        caches.clear();
+        managed.shutdown();
+    }
+
+    private Connection wrap(Connection connection) throws SQLException {
+        Connection physical = connection.isWrapperFor(Connection.class)
+                ? connection.unwrap(Connection.class)
+                : connection;
+
+        StatementCache cache = caches.get(physical);
+        if (cache == null) {
+
+            // a new physical connection is a hint that the pool may have retired some old ones
+            purgeClosed();
+            cache = caches.computeIfAbsent(physical, c -> new StatementCache(this));
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                StatementCachingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, physical, cache));
+    }
+
+    private void purgeClosed() {
+        caches.entrySet().removeIf(e -> {
+            if (isClosed(e.getKey())) {
+                e.getValue().close();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    // serves "prepareStatement" / "prepareCall" from the cache, and returns statements to the cache on close
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final Connection physical;
+        private final StatementCache cache;
+        private final List<StatementHandler> open;
+        private boolean closed;
+
+        ConnectionHandler(Connection connection, Connection physical, StatementCache cache) {
+            this.connection = connection;
+            this.physical = physical;
+            this.cache = cache;
+            this.open = new ArrayList<>();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "prepareCall":
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    return prepare(proxy, method, args);
+                case "close":
+                    close();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return connection.toString();
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object prepare(Object proxy, Method method, Object[] args) throws Throwable {
+
+            StatementCache.Key key = new StatementCache.Key(
+                    method.getName(),
+                    (String) args[0],
+                    args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : null);
+
+            PreparedStatement statement = cache.take(key);
+            if (statement != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                try {
+                    statement = (PreparedStatement) method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            StatementHandler handler = new StatementHandler((Connection) proxy, key, statement);
+            open.add(handler);
+
+            Class<?> type = method.getName().equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+            return Proxy.newProxyInstance(
+                    StatementCachingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    handler);
+        }
+
+        private void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+
+            // the statements the caller forgot to close are closed, same as a pool would close them
+            for (StatementHandler h : new ArrayList<>(open)) {
+                h.discard();
+            }
+
+            try {
+                // the pool can't see the work done via the cached statements, so roll it back via the pool connection,
+                // same as the pool would do with its own statements
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            } finally {
+
+                // without access to the physical connection, the cache can't outlive this connection
+                if (physical == connection && caches.remove(physical, cache)) {
+                    cache.close();
+                }
+
+                connection.close();
+            }
+        }
+
+        private class StatementHandler implements InvocationHandler {
+
+            private final Connection connectionProxy;
+            private final StatementCache.Key key;
+            private final PreparedStatement statement;
+            private final List<ResultSet> results;
+
+            // initial values of the properties changed by the caller
+            private Map<Property, Object> defaults;
+            private boolean released;
+
+            StatementHandler(Connection connectionProxy, StatementCache.Key key, PreparedStatement statement) {
+                this.connectionProxy = connectionProxy;
+                this.key = key;
+                this.statement = statement;
+                this.results = new ArrayList<>(1);
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                String name = method.getName();
+                switch (name) {
+                    case "close":
+                        release();
+                        return null;
+                    case "isClosed":
+                        return released || statement.isClosed();
+                    case "getConnection":
+                        return connectionProxy;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return statement.toString();
+                }
+
+                if (released) {
+                    throw new SQLException("Statement is closed");
+                }
+
+                Property property = PROPERTIES.get(name);
+                if (property != null) {
+                    rememberDefault(property);
+                }
+
+                Object result;
+                try {
+                    result = method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+
+                if (result instanceof ResultSet rs) {
+                    results.add(rs);
+                }
+
+                return result;
+            }
+
+            private void rememberDefault(Property property) throws Throwable {
+                if (defaults == null) {
+                    defaults = new HashMap<>();
+                } else if (defaults.containsKey(property)) {
+                    return;
+                }
+
+                try {
+                    defaults.put(property, property.getter().invoke(statement));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            void release() {
+                if (released) {
+                    return;
+                }
+
+                released = true;
+                open.remove(this);
+
+                try {
+                    if (statement.isClosed()) {
+                        return;
+                    }
+
+                    reset();
+                } catch (Exception e) {
+
+                    // the statement is broken, don't cache it
+                    StatementCache.closeQuietly(statement);
+                    return;
+                }
+
+                cache.put(key, statement);
+            }
+
+            void discard() {
+                released = true;
+                open.remove(this);
+                StatementCache.closeQuietly(statement);
+            }
+
+            // brings the statement back to the state it was in when it was created
+            private void reset() throws Exception {
+
+                for (ResultSet rs : results) {
+                    rs.close();
+                }
+                results.clear();
+
+                if (defaults != null) {
+                    for (Map.Entry<Property, Object> e : defaults.entrySet()) {
+                        e.getKey().setter().invoke(statement, e.getValue());
+                    }
+                    defaults = null;
+                }
+
+                statement.clearParameters();
+                statement.clearWarnings();
+
+                try {
+                    statement.clearBatch();
+                } catch (SQLFeatureNotSupportedException e) {
+                    // the driver doesn't support batches, so there's nothing to clear
+                }
+            }
+        }
+    }
+
+    private record Property(Method getter, Method setter) {
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.routing;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load balancing state of a single read replica.
+ */
+class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final AtomicInteger outstanding;
+    private volatile long ejectedUntil;
+
+    Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.outstanding = new AtomicInteger();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    DataSource getDataSource() {
+        return dataSource;
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    void checkedOut() {
+        outstanding.incrementAndGet();
+    }
+
+    void returned() {
+        outstanding.decrementAndGet();
+    }
+
+    boolean isEjected(long now) {
+        long until = ejectedUntil;
+        return until != 0 && now - until < 0;
+    }
+
+    void eject(long until) {
+        this.ejectedUntil = until;
+    }
+
+    /**
+     * A connection checked out from a replica.
+     */
+    record Lease(Replica replica, Connection connection) {
+    }
+}
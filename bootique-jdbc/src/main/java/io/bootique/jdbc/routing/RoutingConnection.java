@@ -0,0 +1,148 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.routing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A lazy Connection handler that selects a physical connection from either the primary or one of the replicas on
+ * first use. Until then, only the read-only and auto-commit flags are recorded. A connection that ended up on a replica
+ * can not be switched back to read-write.
+ */
+class RoutingConnection implements InvocationHandler {
+
+    private final RoutingDataSource dataSource;
+
+    private boolean readOnly;
+    private Boolean autoCommit;
+    private boolean closed;
+
+    private Connection delegate;
+    private Replica replica;
+
+    RoutingConnection(RoutingDataSource dataSource, boolean readOnly) {
+        this.dataSource = dataSource;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "RoutingConnection[" + dataSource.getName() + "]";
+            case "isClosed":
+                return closed || (delegate != null && delegate.isClosed());
+            case "close":
+                close();
+                return null;
+        }
+
+        if (delegate == null) {
+
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+
+            switch (method.getName()) {
+                case "setReadOnly":
+                    readOnly = (Boolean) args[0];
+                    return null;
+                case "isReadOnly":
+                    return readOnly;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "getAutoCommit":
+                    if (autoCommit != null) {
+                        return autoCommit;
+                    }
+                    break;
+            }
+
+            acquire();
+        }
+
+        // the replica would either reject the writes or, worse, accept them and diverge from the primary
+        if (replica != null && method.getName().equals("setReadOnly") && !(Boolean) args[0]) {
+            throw new SQLException("Can't switch a replica connection of DataSource '"
+                    + dataSource.getName() + "' to read-write. Call 'setReadOnly(false)' before using the connection");
+        }
+
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void acquire() throws SQLException {
+
+        if (readOnly) {
+            Replica.Lease lease = dataSource.replicaConnection();
+            if (lease != null) {
+                this.replica = lease.replica();
+                this.delegate = lease.connection();
+            }
+        }
+
+        if (delegate == null) {
+            delegate = dataSource.primaryConnection();
+        }
+
+        try {
+            if (readOnly) {
+                delegate.setReadOnly(true);
+            }
+
+            if (autoCommit != null) {
+                delegate.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (delegate != null) {
+            try {
+                delegate.close();
+            } finally {
+                if (replica != null) {
+                    replica.returned();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A DataSource that sends read-only work to a set of replicas and everything else to the primary DataSource. Returned
+ * connections are "lazy": a physical connection is only obtained on first use, so a caller can mark the connection
+ * as read-only via {@link Connection#setReadOnly(boolean)} before using it. Alternatively, all connections obtained
+ * within {@link #runReadOnly(Runnable)} or {@link #callReadOnly(Callable)} are routed to replicas. Replicas are
+ * picked by the least number of outstanding connections. A replica that fails to provide a connection is ejected for
+ * a configured period, and if no replicas are available, the primary is used.
+ *
+ * @since 4.0
+ */
+public class RoutingDataSource implements DataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final String name;
+    private final DataSource primary;
+    private final Replica[] replicas;
+    private final long ejectForNanos;
+    private final AtomicInteger nextReplica;
+
+    public RoutingDataSource(String name, DataSource primary, List<DataSource> replicas, long ejectForNanos) {
+        this.name = name;
+        this.primary = primary;
+        this.ejectForNanos = ejectForNanos;
+        this.nextReplica = new AtomicInteger();
+
+        this.replicas = new Replica[replicas.size()];
+        for (int i = 0; i < this.replicas.length; i++) {
+            this.replicas[i] = new Replica(name + "[" + i + "]", replicas.get(i));
+        }
+    }
+
+    /**
+     * Runs the code, routing all connections obtained from any {@link RoutingDataSource} on the current thread to
+     * read replicas.
+     */
+    public static void runReadOnly(Runnable op) {
+        Boolean old = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            op.run();
+        } finally {
+            READ_ONLY.set(old);
+        }
+    }
+
+    /**
+     * Calls the code, routing all connections obtained from any {@link RoutingDataSource} on the current thread to
+     * read replicas.
+     */
+    public static <T> T callReadOnly(Callable<T> op) throws Exception {
+        Boolean old = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return op.call();
+        } finally {
+            READ_ONLY.set(old);
+        }
+    }
+
+    static boolean isReadOnlyHint() {
+        return READ_ONLY.get() == Boolean.TRUE;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) Proxy.newProxyInstance(
+                RoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new RoutingConnection(this, isReadOnlyHint()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections for a specific user are not supported by the routing DataSource");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    Connection primaryConnection() throws SQLException {
+        return primary.getConnection();
+    }
+
+    /**
+     * Returns a connection from the least loaded healthy replica, or null if no replica can provide a connection.
+     * The caller must call {@link Replica#returned()} when the connection is closed.
+     */
+    Replica.Lease replicaConnection() {
+
+        int len = replicas.length;
+        if (len == 0) {
+            return null;
+        }
+
+        // start at a rotating offset, so that replicas with equal load are picked in round-robin fashion
+        int start = Math.floorMod(nextReplica.getAndIncrement(), len);
+
+        for (int attempt = 0; attempt < len; attempt++) {
+            long now = System.nanoTime();
+
+            Replica best = null;
+            for (int i = 0; i < len; i++) {
+                Replica r = replicas[(start + i) % len];
+                if (!r.isEjected(now) && (best == null || r.getOutstanding() < best.getOutstanding())) {
+                    best = r;
+                }
+            }
+
+            if (best == null) {
+                return null;
+            }
+
+            best.checkedOut();
+            try {
+                return new Replica.Lease(best, best.getDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                best.returned();
+                best.eject(now + ejectForNanos);
+                LOGGER.warn("Ejecting replica {} of routing DataSource '{}' after a connection failure", best.getName(), name, e);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.routing;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.jdbc.managed.CompositeDataSourceFactory;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import io.bootique.value.Duration;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A factory of {@link RoutingDataSource} that combines other named DataSources into a single primary/replicas
+ * DataSource.
+ *
+ * @since 4.0
+ */
+@BQConfig("DataSource that sends read-only work to one or more replica DataSources and everything else to the " +
+        "primary DataSource")
+@JsonTypeName("routing")
+public class RoutingManagedDataSourceFactory implements CompositeDataSourceFactory {
+
+    private final Provider<DataSourceFactory> dataSourceFactory;
+    private final Provider<Map<String, ManagedDataSourceStarter>> starters;
+
+    private String primary;
+    private List<String> replicas;
+    private Duration ejectFor;
+
+    @Inject
+    public RoutingManagedDataSourceFactory(
+            Provider<DataSourceFactory> dataSourceFactory,
+            Provider<Map<String, ManagedDataSourceStarter>> starters) {
+        this.dataSourceFactory = dataSourceFactory;
+        this.starters = starters;
+    }
+
+    @BQConfigProperty("Required. The name of the DataSource that receives all read-write work.")
+    public void setPrimary(String primary) {
+        this.primary = primary;
+    }
+
+    @BQConfigProperty("Names of the DataSources that receive read-only work. If none are available, read-only work " +
+            "is sent to the primary.")
+    public void setReplicas(List<String> replicas) {
+        this.replicas = replicas;
+    }
+
+    @BQConfigProperty("For how long a replica that failed to provide a connection is excluded from balancing. " +
+            "The default is 30s.")
+    public void setEjectFor(Duration ejectFor) {
+        this.ejectFor = ejectFor;
+    }
+
+    @Override
+    public ManagedDataSourceStarter create(String dataSourceName) {
+
+        String primary = Objects.requireNonNull(this.primary, () -> "'primary' is not set for DataSource '" + dataSourceName + "'");
+        List<String> replicas = this.replicas != null ? this.replicas : List.of();
+
+        if (primary.equals(dataSourceName) || replicas.contains(dataSourceName)) {
+            throw new IllegalStateException("Routing DataSource '" + dataSourceName + "' can not reference itself");
+        }
+
+        long ejectForNanos = (ejectFor != null ? ejectFor : new Duration("30s")).getDuration().toNanos();
+
+        return new ManagedDataSourceStarter(
+                () -> primaryUrl(primary),
+                () -> createDataSource(dataSourceName, primary, replicas, ejectForNanos),
+                ds -> {
+                    // the underlying DataSources are managed and shut down on their own
+                });
+    }
+
+    private String primaryUrl(String primary) {
+        ManagedDataSourceStarter starter = starters.get().get(primary);
+        return starter != null ? starter.getUrl() : null;
+    }
+
+    protected RoutingDataSource createDataSource(
+            String dataSourceName,
+            String primary,
+            List<String> replicas,
+            long ejectForNanos) {
+
+        DataSourceFactory factory = dataSourceFactory.get();
+
+        List<DataSource> replicaDataSources = new ArrayList<>(replicas.size());
+        for (String r : replicas) {
+            replicaDataSources.add(factory.forName(r));
+        }
+
+        return new RoutingDataSource(dataSourceName, factory.forName(primary), replicaDataSources, ejectForNanos);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable consistent hash ring mapping keys to shard indexes. Each shard is placed on the ring multiple times
+ * ("virtual nodes") at positions derived from its name, so that the mapping only depends on shard names and not on
+ * their order, and adding or removing a shard only remaps the keys of the affected ring segments.
+ */
+class ConsistentHashRing {
+
+    private final int[] positions;
+    private final int[] shards;
+
+    ConsistentHashRing(List<String> shardNames, int virtualNodes) {
+
+        if (shardNames.isEmpty()) {
+            throw new IllegalArgumentException("No shards");
+        }
+
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("'virtualNodes' must be positive: " + virtualNodes);
+        }
+
+        int len = shardNames.size() * virtualNodes;
+        long[] nodes = new long[len];
+
+        for (int i = 0; i < shardNames.size(); i++) {
+            for (int j = 0; j < virtualNodes; j++) {
+                int position = hash(shardNames.get(i) + "#" + j);
+
+                // pack the position and the shard index into a single long that sorts by position
+                nodes[i * virtualNodes + j] = ((long) position << 32) | i;
+            }
+        }
+
+        Arrays.sort(nodes);
+
+        this.positions = new int[len];
+        this.shards = new int[len];
+        for (int i = 0; i < len; i++) {
+            positions[i] = (int) (nodes[i] >> 32);
+            shards[i] = (int) nodes[i];
+        }
+    }
+
+    /**
+     * Returns an index of a shard for the key.
+     */
+    int shard(Object key) {
+        int i = Arrays.binarySearch(positions, hash(key));
+        if (i < 0) {
+            // the first node clockwise from the key position
+            i = -i - 1;
+            if (i == positions.length) {
+                i = 0;
+            }
+        }
+
+        return shards[i];
+    }
+
+    /**
+     * A hash that is stable across JVMs, unlike "Object.hashCode()" of many types (e.g. enums).
+     */
+    static int hash(Object key) {
+
+        // FNV-1a, followed by the Murmur3 finalizer to spread close keys along the ring
+        int h = 0x811c9dc5;
+        for (byte b : bytes(key)) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static byte[] bytes(Object key) {
+        return switch (key) {
+            case byte[] b -> b;
+
+            // a single-value key is placed the same as the plain value
+            case ShardKey sk when sk.values().size() == 1 -> bytes(sk.values().get(0));
+            case ShardKey sk -> sk.values()
+                    .stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining("\u0000"))
+                    .getBytes(StandardCharsets.UTF_8);
+            default -> String.valueOf(key).getBytes(StandardCharsets.UTF_8);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+/**
+ * Provides the shard key for the plain {@link ShardedDataSource#getConnection()} calls, e.g. from the current request
+ * or security context. Extractors are registered by name via
+ * {@link io.bootique.jdbc.JdbcModuleExtender#addShardKeyExtractor(String, ShardKeyExtractor)} and referenced from the
+ * "shardKeyExtractor" property of the "sharded" DataSource configuration.
+ *
+ * @since 4.0
+ */
+@FunctionalInterface
+public interface ShardKeyExtractor {
+
+    /**
+     * Returns the shard key for a connection requested on the current thread, or null if there's no key.
+     */
+    Object currentKey();
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ConnectionBuilder;
+import java.sql.SQLException;
+import java.sql.ShardingKey;
+
+class ShardedConnectionBuilder implements ConnectionBuilder {
+
+    private final ShardedDataSource dataSource;
+
+    private String user;
+    private String password;
+    private ShardingKey shardingKey;
+
+    ShardedConnectionBuilder(ShardedDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public ConnectionBuilder user(String username) {
+        this.user = username;
+        return this;
+    }
+
+    @Override
+    public ConnectionBuilder password(String password) {
+        this.password = password;
+        return this;
+    }
+
+    @Override
+    public ConnectionBuilder shardingKey(ShardingKey shardingKey) {
+        this.shardingKey = shardingKey;
+        return this;
+    }
+
+    @Override
+    public ConnectionBuilder superShardingKey(ShardingKey superShardingKey) {
+        // shards are selected by the sharding key only
+        return this;
+    }
+
+    @Override
+    public Connection build() throws SQLException {
+        DataSource shard = shardingKey != null ? dataSource.getShard(shardingKey) : dataSource.getCurrentShard();
+        return user != null ? shard.getConnection(user, password) : shard.getConnection();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.ConnectionBuilder;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.ShardingKey;
+import java.sql.ShardingKeyBuilder;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.logging.Logger;
+
+/**
+ * A DataSource that serves horizontally partitioned data from a number of "shard" DataSources. The shard for each
+ * connection is picked by consistent hashing of a shard key. The key can be passed explicitly via the standard JDBC
+ * API ({@link #createShardingKeyBuilder()} and {@link #createConnectionBuilder()}), or is taken from a
+ * {@link ShardKeyExtractor} for plain {@link #getConnection()} calls. The default extractor returns the key set by
+ * {@link #runWithShardKey(Object, Runnable)} or {@link #callWithShardKey(Object, Callable)} on the current thread.
+ *
+ * @since 4.0
+ */
+public class ShardedDataSource implements DataSource {
+
+    private static final ThreadLocal<Object> SHARD_KEY = new ThreadLocal<>();
+
+    private final String name;
+    private final List<DataSource> shards;
+    private final ConsistentHashRing ring;
+    private final ShardKeyExtractor keyExtractor;
+
+    public ShardedDataSource(String name, List<String> shardNames, List<DataSource> shards, int virtualNodes) {
+        this(name, shardNames, shards, virtualNodes, SHARD_KEY::get);
+    }
+
+    public ShardedDataSource(
+            String name,
+            List<String> shardNames,
+            List<DataSource> shards,
+            int virtualNodes,
+            ShardKeyExtractor keyExtractor) {
+
+        if (shardNames.size() != shards.size()) {
+            throw new IllegalArgumentException("Mismatched number of shard names and shard DataSources");
+        }
+
+        this.name = name;
+        this.shards = List.copyOf(shards);
+        this.ring = new ConsistentHashRing(shardNames, virtualNodes);
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+    }
+
+    /**
+     * Runs the code with the shard key that would be used by {@link #getConnection()} of the ShardedDataSources
+     * created with the default key extractor.
+     */
+    public static void runWithShardKey(Object key, Runnable op) {
+        Object old = SHARD_KEY.get();
+        SHARD_KEY.set(key);
+        try {
+            op.run();
+        } finally {
+            SHARD_KEY.set(old);
+        }
+    }
+
+    /**
+     * Calls the code with the shard key that would be used by {@link #getConnection()} of the ShardedDataSources
+     * created with the default key extractor.
+     */
+    public static <T> T callWithShardKey(Object key, Callable<T> op) throws Exception {
+        Object old = SHARD_KEY.get();
+        SHARD_KEY.set(key);
+        try {
+            return op.call();
+        } finally {
+            SHARD_KEY.set(old);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a shard DataSource for the provided key.
+     */
+    public DataSource getShard(Object key) {
+        return shards.get(ring.shard(Objects.requireNonNull(key)));
+    }
+
+    DataSource getShard(ShardingKey key) throws SQLException {
+        if (key instanceof ShardKey) {
+            return getShard((Object) key);
+        }
+
+        throw new SQLException("Unsupported ShardingKey type: " + key.getClass().getName()
+                + ". Use 'createShardingKeyBuilder()' of the DataSource '" + name + "' to create the keys");
+    }
+
+    DataSource getCurrentShard() throws SQLException {
+        Object key = keyExtractor.currentKey();
+        if (key == null) {
+            throw new SQLException("No shard key set when requesting a connection from the DataSource '" + name + "'");
+        }
+
+        return getShard(key);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getCurrentShard().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getCurrentShard().getConnection(username, password);
+    }
+
+    @Override
+    public ShardingKeyBuilder createShardingKeyBuilder() {
+        return new ShardKeyBuilder();
+    }
+
+    @Override
+    public ConnectionBuilder createConnectionBuilder() {
+        return new ShardedConnectionBuilder(this);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return shards.get(0).getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        for (DataSource ds : shards) {
+            ds.setLogWriter(out);
+        }
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        for (DataSource ds : shards) {
+            ds.setLoginTimeout(seconds);
+        }
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return shards.get(0).getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return shards.get(0).getParentLogger();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
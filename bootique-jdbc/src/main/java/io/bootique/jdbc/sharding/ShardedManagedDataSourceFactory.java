@@ -0,0 +1,149 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.bootique.annotation.BQConfig;
+import io.bootique.annotation.BQConfigProperty;
+import io.bootique.jdbc.DataSourceFactory;
+import io.bootique.jdbc.managed.CompositeDataSourceFactory;
+import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A factory of {@link ShardedDataSource} that combines other named DataSources into a single sharded DataSource.
+ *
+ * @since 4.0
+ */
+@BQConfig("DataSource that picks one of the 'shard' DataSources for each connection by consistent hashing of a " +
+        "shard key")
+@JsonTypeName("sharded")
+public class ShardedManagedDataSourceFactory implements CompositeDataSourceFactory {
+
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final Provider<DataSourceFactory> dataSourceFactory;
+    private final Provider<Map<String, ManagedDataSourceStarter>> starters;
+    private final Provider<Map<String, ShardKeyExtractor>> keyExtractors;
+
+    private List<String> shards;
+    private int virtualNodes;
+    private String shardKeyExtractor;
+
+    @Inject
+    public ShardedManagedDataSourceFactory(
+            Provider<DataSourceFactory> dataSourceFactory,
+            Provider<Map<String, ManagedDataSourceStarter>> starters,
+            Provider<Map<String, ShardKeyExtractor>> keyExtractors) {
+        this.dataSourceFactory = dataSourceFactory;
+        this.starters = starters;
+        this.keyExtractors = keyExtractors;
+    }
+
+    @BQConfigProperty("Required. Names of the shard DataSources. The key to shard mapping depends on the names, but " +
+            "not on their order.")
+    public void setShards(List<String> shards) {
+        this.shards = shards;
+    }
+
+    @BQConfigProperty("The number of positions of each shard on the hash ring. More positions give a more even key " +
+            "distribution. The default is 128.")
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    @BQConfigProperty("Optional name of a ShardKeyExtractor registered via 'JdbcModule.extend(..)' that provides the " +
+            "shard key for plain 'getConnection()' calls. If not set, the key is taken from " +
+            "'ShardedDataSource.runWithShardKey(..)' / 'ShardedDataSource.callWithShardKey(..)'.")
+    public void setShardKeyExtractor(String shardKeyExtractor) {
+        this.shardKeyExtractor = shardKeyExtractor;
+    }
+
+    @Override
+    public ManagedDataSourceStarter create(String dataSourceName) {
+
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalStateException("No 'shards' configured for DataSource '" + dataSourceName + "'");
+        }
+
+        if (shards.contains(dataSourceName)) {
+            throw new IllegalStateException("Sharded DataSource '" + dataSourceName + "' can not reference itself");
+        }
+
+        // a duplicate would take extra positions on the ring, skewing the key distribution towards that shard
+        Set<String> uniqueShards = new HashSet<>();
+        for (String s : shards) {
+            if (!uniqueShards.add(s)) {
+                throw new IllegalStateException("Duplicate shard '" + s + "' in DataSource '" + dataSourceName + "'");
+            }
+        }
+
+        List<String> shards = List.copyOf(this.shards);
+        int virtualNodes = this.virtualNodes > 0 ? this.virtualNodes : DEFAULT_VIRTUAL_NODES;
+        String shardKeyExtractor = this.shardKeyExtractor;
+
+        return new ManagedDataSourceStarter(
+                () -> firstShardUrl(shards),
+                () -> createDataSource(dataSourceName, shards, virtualNodes, shardKeyExtractor),
+                ds -> {
+                    // the shard DataSources are managed and shut down on their own
+                });
+    }
+
+    private String firstShardUrl(List<String> shards) {
+        ManagedDataSourceStarter starter = starters.get().get(shards.get(0));
+        return starter != null ? starter.getUrl() : null;
+    }
+
+    protected ShardedDataSource createDataSource(
+            String dataSourceName,
+            List<String> shards,
+            int virtualNodes,
+            String shardKeyExtractor) {
+
+        // resolving the extractor before starting the shards to fail fast on misconfiguration
+        ShardKeyExtractor keyExtractor = null;
+        if (shardKeyExtractor != null) {
+            keyExtractor = keyExtractors.get().get(shardKeyExtractor);
+            if (keyExtractor == null) {
+                throw new IllegalStateException("No ShardKeyExtractor named '" + shardKeyExtractor
+                        + "' registered for DataSource '" + dataSourceName + "'");
+            }
+        }
+
+        DataSourceFactory factory = dataSourceFactory.get();
+
+        List<DataSource> shardDataSources = new ArrayList<>(shards.size());
+        for (String s : shards) {
+            shardDataSources.add(factory.forName(s));
+        }
+
+        return keyExtractor != null
+                ? new ShardedDataSource(dataSourceName, shards, shardDataSources, virtualNodes, keyExtractor)
+                : new ShardedDataSource(dataSourceName, shards, shardDataSources, virtualNodes);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.jdbc.managed.ManagedDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlDataSourceTest {
+
+    private final AtomicInteger closedConnections = new AtomicInteger();
+
+    private AdmissionControlDataSource createDataSource(int maxConcurrent, int maxWaiting, long maxWaitMs) {
+
+        TestDataSource delegate = new TestDataSource() {
+            @Override
+            public Connection getConnection() {
+                return (Connection) Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class},
+                        (p, m, a) -> {
+                            if (m.getName().equals("close")) {
+                                closedConnections.incrementAndGet();
+                            }
+                            return null;
+                        });
+            }
+        };
+
+        ManagedDataSource managed = new ManagedDataSource(() -> "jdbc:test", delegate, ds -> {
+        });
+
+        return new AdmissionControlDataSource("test", managed, maxConcurrent, maxWaiting, TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+    }
+
+    @Test
+    public void getConnection_RejectNoWaiting() throws SQLException {
+        AdmissionControlDataSource ds = createDataSource(2, 0, 1000);
+
+        Connection c1 = ds.getConnection();
+        Connection c2 = ds.getConnection();
+        assertEquals(2, ds.getActive());
+
+        assertThrows(AdmissionRejectedException.class, ds::getConnection);
+        assertEquals(1, ds.getRejected());
+
+        c1.close();
+        assertEquals(1, closedConnections.get());
+        assertEquals(1, ds.getActive());
+
+        // double close must not release the permit twice
+        c1.close();
+        assertEquals(1, closedConnections.get());
+        assertEquals(1, ds.getActive());
+
+        ds.getConnection().close();
+        c2.close();
+        assertEquals(0, ds.getActive());
+    }
+
+    @Test
+    public void getConnection_RejectTimeout() throws SQLException {
+        AdmissionControlDataSource ds = createDataSource(1, 1, 50);
+
+        try (Connection c = ds.getConnection()) {
+            assertThrows(AdmissionRejectedException.class, ds::getConnection);
+            assertEquals(1, ds.getRejected());
+            assertEquals(0, ds.getWaiting());
+        }
+    }
+
+    @Test
+    public void getConnection_Wait() throws Exception {
+        AdmissionControlDataSource ds = createDataSource(1, 1, 5000);
+
+        Connection c1 = ds.getConnection();
+        CompletableFuture<Connection> c2 = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ds.getConnection();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        while (ds.getWaiting() == 0) {
+            Thread.sleep(5);
+        }
+
+        // the waiter is occupying the only waiting slot
+        assertThrows(AdmissionRejectedException.class, ds::getConnection);
+
+        c1.close();
+        c2.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, ds.getActive());
+        assertEquals(1, ds.getRejected());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionWarmupTest {
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger maxOpen = new AtomicInteger();
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    private final TestDataSource dataSource = new TestDataSource() {
+        @Override
+        public Connection getConnection() {
+            threads.add(Thread.currentThread().getName() + "@" + Thread.currentThread().threadId());
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+
+            return (Connection) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (p, m, a) -> {
+                        if ("close".equals(m.getName())) {
+                            open.decrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+    };
+
+    @Test
+    public void warmUp() {
+        int warm = new ConnectionWarmup(5, List.of(), 2, Duration.ofSeconds(5)).warmUp("ds", dataSource);
+
+        assertEquals(5, warm);
+
+        // all connections must be held open at the same time, but opened by no more than "threads" threads
+        assertEquals(5, maxOpen.get());
+        assertEquals(2, threads.size());
+        assertEquals(0, open.get());
+    }
+
+    @Test
+    public void warmUp_SingleThread() {
+        int warm = new ConnectionWarmup(3, List.of(), 1, Duration.ofSeconds(5)).warmUp("ds", dataSource);
+
+        assertEquals(3, warm);
+        assertEquals(3, maxOpen.get());
+        assertTrue(threads.contains(Thread.currentThread().getName() + "@" + Thread.currentThread().threadId()));
+        assertEquals(0, open.get());
+    }
+}
@@ -23,18 +23,24 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.bootique.BQRuntime;
 import io.bootique.BootiqueException;
 import io.bootique.di.DIRuntimeException;
+import io.bootique.di.Key;
+import io.bootique.di.TypeLiteral;
 import io.bootique.jdbc.managed.ManagedDataSourceFactory;
 import io.bootique.jdbc.managed.ManagedDataSourceStarter;
+import io.bootique.jdbc.routing.RoutingDataSource;
+import io.bootique.jdbc.sharding.ShardedDataSource;
 import io.bootique.junit.BQTest;
 import io.bootique.junit.BQTestFactory;
 import io.bootique.junit.BQTestTool;
 import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,6 +125,144 @@ public class DataSourceFactoryIT {
         listener.assertShutdown();
     }
 
+    @Test
+    public void forName_WarmStart() {
+
+        TestListener listener = new TestListener();
+
+        BQRuntime runtime = testFactory.app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_warmstart.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule
+                        .extend(b)
+                        .addFactoryType(Factory1.class)
+                        .addDataSourceListener(listener))
+                .createRuntime();
+
+        // nothing is started until DataSourceFactory is needed
+        assertEquals(0, listener.afterStartup.size());
+
+        // both DataSources must be started by the time the factory is created, without a "forName" call
+        DataSourceFactory factory = runtime.getInstance(DataSourceFactory.class);
+        assertTrue(factory.isStarted("ds1"));
+        assertTrue(factory.isStarted("ds2"));
+        assertEquals(2, listener.afterStartup.size());
+
+        listener.assertDSStartup("jdbc:dummy1", factory.forName("ds1"), 2);
+        listener.assertDSStartup("jdbc:dummy2", factory.forName("ds2"), 2);
+    }
+
+    @Test
+    public void forName_WarmStart_BadConfig() {
+
+        BQRuntime runtime = testFactory.app(
+                        "-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_warmstart.yml",
+                        "-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_warmstart_bad.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b).addFactoryType(Factory1.class))
+                .createRuntime();
+
+        // config errors must not be swallowed
+        assertThrows(RuntimeException.class, () -> runtime.getInstance(DataSourceFactory.class));
+    }
+
+    @Test
+    public void forName_AdmissionControl() {
+
+        BQRuntime runtime = testFactory.app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_admission.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b).addFactoryType(Factory1.class))
+                .createRuntime();
+
+        DataSourceFactory factory = runtime.getInstance(DataSourceFactory.class);
+        assertInstanceOf(AdmissionControlDataSource.class, factory.forName("ds1"));
+        assertInstanceOf(TestDataSource.class, factory.forName("ds2"));
+    }
+
+    @Test
+    public void forName_Routing() {
+
+        BQRuntime runtime = testFactory.app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_routing.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b).addFactoryType(Factory1.class))
+                .createRuntime();
+
+        DataSourceFactory factory = runtime.getInstance(DataSourceFactory.class);
+        DataSource ds = factory.forName("routing");
+
+        RoutingDataSource routing = assertInstanceOf(RoutingDataSource.class, ds);
+        assertSame(factory.forName("ds1"), routing.getPrimary());
+        assertTrue(factory.isStarted("ds2"));
+        assertEquals("jdbc:dummy1", runtime.getInstance(Key.get(new TypeLiteral<Map<String, ManagedDataSourceStarter>>() {
+        })).get("routing").getUrl());
+    }
+
+    @Test
+    public void forName_Sharded() {
+
+        BQRuntime runtime = testFactory.app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_sharded.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b).addFactoryType(Factory1.class))
+                .createRuntime();
+
+        DataSourceFactory factory = runtime.getInstance(DataSourceFactory.class);
+        ShardedDataSource sharded = assertInstanceOf(ShardedDataSource.class, factory.forName("sharded"));
+
+        DataSource shard = sharded.getShard("tenant1");
+        assertTrue(shard == factory.forName("ds1") || shard == factory.forName("ds2"));
+    }
+
+    @Test
+    public void forName_Sharded_KeyExtractor() throws SQLException {
+
+        AtomicInteger calls = new AtomicInteger();
+        BQRuntime runtime = testFactory.app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_sharded.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b)
+                        .addFactoryType(Factory1.class)
+                        .addShardKeyExtractor("tenant", () -> {
+                            calls.incrementAndGet();
+                            return "tenant1";
+                        }))
+                .createRuntime();
+
+        DataSourceFactory factory = runtime.getInstance(DataSourceFactory.class);
+        ShardedDataSource sharded = assertInstanceOf(ShardedDataSource.class, factory.forName("sharded_extractor"));
+
+        sharded.getConnection();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void forName_Sharded_UnknownKeyExtractor() {
+
+        BQRuntime runtime = testFactory.app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_sharded.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b).addFactoryType(Factory1.class))
+                .createRuntime();
+
+        DataSourceFactory factory = runtime.getInstance(DataSourceFactory.class);
+        assertThrows(IllegalStateException.class, () -> factory.forName("sharded_extractor"));
+    }
+
+    @Test
+    public void forName_Sharded_DuplicateShards() {
+
+        BQRuntime runtime = testFactory
+                .app("-c", "classpath:io/bootique/jdbc/DataSourceFactoryIT_sharded_duplicate.yml")
+                .autoLoadModules()
+                .module(b -> JdbcModule.extend(b).addFactoryType(Factory1.class))
+                .createRuntime();
+
+        try {
+            runtime.getInstance(DataSourceFactory.class).forName("sharded");
+        } catch (DIRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException, () -> "Unexpected exception: " + e.getCause());
+            return;
+        }
+
+        fail("Exception expected");
+    }
+
     @JsonTypeName("f1")
     public static class Factory1 implements ManagedDataSourceFactory {
 
@@ -159,9 +303,10 @@ public class DataSourceFactoryIT {
 
     private static class TestListener implements DataSourceListener {
 
-        List<String> beforeStartup = new ArrayList<>();
-        Map<String, DataSource> afterStartup = new HashMap<>();
-        Map<String, DataSource> afterShutdown = new HashMap<>();
+        // warm start calls the listener from multiple threads
+        List<String> beforeStartup = new CopyOnWriteArrayList<>();
+        Map<String, DataSource> afterStartup = new ConcurrentHashMap<>();
+        Map<String, DataSource> afterShutdown = new ConcurrentHashMap<>();
 
         void assertEmpty() {
             assertTrue(beforeStartup.isEmpty());
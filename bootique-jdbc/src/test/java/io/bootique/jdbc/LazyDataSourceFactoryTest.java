@@ -22,8 +22,17 @@ package io.bootique.jdbc;
 import io.bootique.jdbc.managed.ManagedDataSourceStarter;
 import org.junit.jupiter.api.Test;
 
+import javax.sql.DataSource;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,4 +54,146 @@ public class LazyDataSourceFactoryTest {
         assertEquals(1, f2.allNames().size());
         assertTrue(f2.allNames().contains("a"));
     }
+
+    @Test
+    public void forNameAsync_DoesNotBlockOtherNames() throws Exception {
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        TestDataSource slow = new TestDataSource();
+        TestDataSource fast = new TestDataSource();
+
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Map.of(
+                "slow", starter(() -> {
+                    await(unblock);
+                    return slow;
+                }),
+                "fast", starter(() -> fast)), Collections.emptySet());
+
+        CompletableFuture<DataSource> slowFuture = factory.forNameAsync("slow");
+        assertFalse(slowFuture.isDone());
+        assertFalse(factory.isStarted("slow"));
+
+        // must not be blocked by the "slow" startup in progress
+        assertSame(fast, factory.forName("fast"));
+        assertTrue(factory.isStarted("fast"));
+
+        unblock.countDown();
+        assertSame(slow, slowFuture.get(5, TimeUnit.SECONDS));
+        assertTrue(factory.isStarted("slow"));
+        assertSame(slow, factory.forName("slow"));
+    }
+
+    @Test
+    public void forNameAsync_NoConfig() {
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Collections.emptyMap(), Collections.emptySet());
+        CompletableFuture<DataSource> future = factory.forNameAsync("nosuchname");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertFalse(factory.isStarted("nosuchname"));
+    }
+
+    @Test
+    public void forNameIfStarted() throws Exception {
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        TestDataSource ds = new TestDataSource();
+
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Map.of(
+                "ds", starter(() -> {
+                    await(unblock);
+                    return ds;
+                })), Collections.emptySet());
+
+        assertTrue(factory.forNameIfStarted("ds").isEmpty());
+        assertTrue(factory.forNameIfStarted("nosuchname").isEmpty());
+
+        CompletableFuture<DataSource> future = factory.forNameAsync("ds");
+        assertTrue(factory.forNameIfStarted("ds").isEmpty());
+
+        unblock.countDown();
+        future.get(5, TimeUnit.SECONDS);
+        assertSame(ds, factory.forNameIfStarted("ds").orElse(null));
+    }
+
+    @Test
+    public void forName_RetryAfterFailure() {
+
+        AtomicInteger attempts = new AtomicInteger();
+        TestDataSource ds = new TestDataSource();
+
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Map.of(
+                "a", starter(() -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new RuntimeException("Failed to start");
+                    }
+                    return ds;
+                })), Collections.emptySet());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> factory.forName("a"));
+        assertEquals("Failed to start", e.getMessage());
+        assertFalse(factory.isStarted("a"));
+
+        assertSame(ds, factory.forName("a"));
+        assertTrue(factory.isStarted("a"));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void forName_IndirectCycle() {
+
+        AtomicReference<LazyDataSourceFactory> factoryRef = new AtomicReference<>();
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Map.of(
+                "a", starter(() -> factoryRef.get().forName("b")),
+                "b", starter(() -> factoryRef.get().forName("a"))), Collections.emptySet());
+        factoryRef.set(factory);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> factory.forName("a"));
+        assertEquals("Circular dependency between DataSources: a -> b -> a", e.getMessage());
+        assertFalse(factory.isStarted("a"));
+        assertFalse(factory.isStarted("b"));
+    }
+
+    @Test
+    public void shutdown_WaitsForStartup() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        AtomicInteger shutdowns = new AtomicInteger();
+
+        LazyDataSourceFactory factory = new LazyDataSourceFactory(Map.of(
+                "slow", new ManagedDataSourceStarter(() -> "jdbc:dummy", () -> {
+                    started.countDown();
+                    await(unblock);
+                    return new TestDataSource();
+                }, ds -> shutdowns.incrementAndGet())), Collections.emptySet());
+
+        CompletableFuture<DataSource> future = factory.forNameAsync("slow");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(factory::shutdown);
+        assertThrows(TimeoutException.class, () -> shutdown.get(100, TimeUnit.MILLISECONDS));
+
+        unblock.countDown();
+        shutdown.get(5, TimeUnit.SECONDS);
+        assertTrue(future.isDone());
+        assertEquals(1, shutdowns.get());
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> factory.forNameAsync("other").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    private static ManagedDataSourceStarter starter(Supplier<DataSource> startup) {
+        return new ManagedDataSourceStarter(() -> "jdbc:dummy", startup, ds -> {
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
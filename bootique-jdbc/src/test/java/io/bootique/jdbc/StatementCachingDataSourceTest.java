@@ -0,0 +1,372 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc;
+
+import io.bootique.jdbc.managed.ManagedDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCachingDataSourceTest {
+
+    private final List<String> prepared = new ArrayList<>();
+    private final List<String> closed = new ArrayList<>();
+    private final List<ResultSet> results = new ArrayList<>();
+    private final Map<String, Object> properties = new HashMap<>();
+
+    // emulates a pool with a single physical connection, that can be retired and replaced
+    private Connection physical;
+    private AtomicBoolean physicalClosed;
+    private boolean unwrappable = true;
+    private boolean autoCommit = true;
+    private int rollbacks;
+
+    private StatementCachingDataSource createDataSource(int maxStatements) {
+        return createDataSource(maxStatements, Long.MAX_VALUE);
+    }
+
+    private StatementCachingDataSource createDataSource(int maxStatements, long maxMemory) {
+
+        TestDataSource delegate = new TestDataSource() {
+            @Override
+            public Connection getConnection() {
+                if (physical == null || physicalClosed.get()) {
+                    physical = createPhysical();
+                }
+
+                Connection physical = StatementCachingDataSourceTest.this.physical;
+                AtomicBoolean logicalClosed = new AtomicBoolean();
+                return (Connection) Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class},
+                        (p, m, a) -> switch (m.getName()) {
+                            case "unwrap" -> unwrappable ? physical : null;
+                            case "isWrapperFor" -> unwrappable;
+                            case "getAutoCommit" -> autoCommit;
+                            case "rollback" -> {
+                                rollbacks++;
+                                yield null;
+                            }
+                            case "close" -> {
+                                logicalClosed.set(true);
+                                yield null;
+                            }
+                            case "isClosed" -> logicalClosed.get();
+                            case "hashCode" -> System.identityHashCode(p);
+                            case "equals" -> p == a[0];
+                            // with an unwrappable pool connection, this is the only way to prepare a statement
+                            case "prepareStatement" -> unwrappable ? null : statement((String) a[0]);
+                            default -> null;
+                        });
+            }
+        };
+
+        ManagedDataSource managed = new ManagedDataSource(() -> "jdbc:test", delegate, ds -> {
+        });
+
+        return new StatementCachingDataSource("test", managed, maxStatements, maxMemory);
+    }
+
+    private Connection createPhysical() {
+        AtomicBoolean closed = new AtomicBoolean();
+        this.physicalClosed = closed;
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (p, m, a) -> switch (m.getName()) {
+                    case "prepareStatement" -> statement((String) a[0]);
+                    case "close" -> {
+                        closed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> closed.get();
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == a[0];
+                    default -> null;
+                });
+    }
+
+    private PreparedStatement statement(String sql) {
+        prepared.add(sql);
+        AtomicBoolean stClosed = new AtomicBoolean();
+        return (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (p, m, a) -> {
+                    String name = m.getName();
+                    if (name.startsWith("set") && a.length == 1) {
+                        properties.put(name.substring(3), a[0]);
+                        return null;
+                    }
+
+                    if (name.startsWith("get") && (a == null || a.length == 0) && m.getReturnType() == int.class) {
+                        return properties.getOrDefault(name.substring(3), 0);
+                    }
+
+                    return switch (name) {
+                        case "close" -> {
+                            stClosed.set(true);
+                            closed.add(sql);
+                            yield null;
+                        }
+                        case "isClosed" -> stClosed.get();
+                        case "executeQuery" -> resultSet();
+                        case "executeUpdate" -> 1;
+                        default -> null;
+                    };
+                });
+    }
+
+    private ResultSet resultSet() {
+        AtomicBoolean rsClosed = new AtomicBoolean();
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (p, m, a) -> switch (m.getName()) {
+                    case "close" -> {
+                        rsClosed.set(true);
+                        yield null;
+                    }
+                    case "isClosed" -> rsClosed.get();
+                    default -> null;
+                });
+
+        results.add(rs);
+        return rs;
+    }
+
+    @Test
+    public void prepareStatement_ReusedWithinConnection() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        try (Connection c = ds.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement st = c.prepareStatement("select 1")) {
+                    assertSame(c, st.getConnection());
+                }
+            }
+
+            assertEquals(1, ds.getCachedStatements());
+        }
+
+        assertEquals(List.of("select 1"), prepared);
+        assertEquals(1, ds.getMisses());
+        assertEquals(2, ds.getHits());
+    }
+
+    @Test
+    public void prepareStatement_ReusedAcrossCheckouts() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        for (int i = 0; i < 2; i++) {
+            try (Connection c = ds.getConnection()) {
+                c.prepareStatement("select 1").close();
+            }
+        }
+
+        // the cache belongs to the physical connection and survives the pool checkout
+        assertEquals(List.of("select 1"), prepared);
+        assertEquals(List.of(), closed);
+        assertEquals(1, ds.getMisses());
+        assertEquals(1, ds.getHits());
+        assertEquals(1, ds.getCachedStatements());
+    }
+
+    @Test
+    public void prepareStatement_PhysicalConnectionRetired() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        try (Connection c = ds.getConnection()) {
+            c.prepareStatement("select 1").close();
+        }
+
+        // the pool retires the physical connection, and the next checkout gets a new one
+        physical.close();
+
+        try (Connection c = ds.getConnection()) {
+            assertEquals(List.of("select 1"), closed);
+            assertEquals(0, ds.getCachedStatements());
+
+            c.prepareStatement("select 1").close();
+        }
+
+        assertEquals(List.of("select 1", "select 1"), prepared);
+        assertEquals(2, ds.getMisses());
+        assertEquals(1, ds.getCachedStatements());
+    }
+
+    @Test
+    public void prepareStatement_NoPhysicalConnection() throws SQLException {
+        this.unwrappable = false;
+        StatementCachingDataSource ds = createDataSource(10);
+
+        for (int i = 0; i < 2; i++) {
+            try (Connection c = ds.getConnection()) {
+                c.prepareStatement("select 1").close();
+                c.prepareStatement("select 1").close();
+            }
+        }
+
+        // the cache lives for a single checkout
+        assertEquals(List.of("select 1", "select 1"), prepared);
+        assertEquals(List.of("select 1", "select 1"), closed);
+        assertEquals(2, ds.getHits());
+        assertEquals(0, ds.getCachedStatements());
+    }
+
+    @Test
+    public void prepareStatement_SameSqlOpenTwice() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        try (Connection c = ds.getConnection()) {
+            PreparedStatement st1 = c.prepareStatement("select 1");
+            PreparedStatement st2 = c.prepareStatement("select 1");
+            assertNotSame(st1, st2);
+
+            st1.close();
+            st2.close();
+
+            // only one of the two statements is kept
+            assertEquals(List.of("select 1", "select 1"), prepared);
+            assertEquals(List.of("select 1"), closed);
+            assertEquals(1, ds.getCachedStatements());
+        }
+    }
+
+    @Test
+    public void prepareStatement_EvictByCount() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(2);
+
+        try (Connection c = ds.getConnection()) {
+            c.prepareStatement("select 1").close();
+            c.prepareStatement("select 2").close();
+            c.prepareStatement("select 1").close();
+            c.prepareStatement("select 3").close();
+
+            // "select 2" is the least recently used
+            assertEquals(List.of("select 2"), closed);
+            assertEquals(1, ds.getEvictions());
+            assertEquals(2, ds.getCachedStatements());
+        }
+    }
+
+    @Test
+    public void prepareStatement_EvictByMemory() throws SQLException {
+
+        // room for two statements of this length
+        long size = StatementCache.estimateSize("select 1");
+        StatementCachingDataSource ds = createDataSource(10, 2 * size + 1);
+
+        try (Connection c = ds.getConnection()) {
+            c.prepareStatement("select 1").close();
+            c.prepareStatement("select 2").close();
+            c.prepareStatement("select 3").close();
+
+            assertEquals(List.of("select 1"), closed);
+            assertEquals(1, ds.getEvictions());
+            assertEquals(2, ds.getCachedStatements());
+
+            // a statement that alone exceeds the limit is not cached at all
+            String large = "select '" + "x".repeat((int) size) + "'";
+            c.prepareStatement(large).close();
+            assertEquals(List.of("select 1", large), closed);
+            assertEquals(2, ds.getCachedStatements());
+        }
+    }
+
+    @Test
+    public void close_RollsBack() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        try (Connection c = ds.getConnection()) {
+            c.prepareStatement("select 1").close();
+        }
+        assertEquals(0, rollbacks);
+
+        this.autoCommit = false;
+        try (Connection c = ds.getConnection()) {
+            c.prepareStatement("select 1").close();
+        }
+        assertEquals(1, rollbacks);
+    }
+
+    @Test
+    public void close_ResetsStatement() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        try (Connection c = ds.getConnection()) {
+            PreparedStatement st1 = c.prepareStatement("select 1");
+            st1.setMaxRows(5);
+            st1.setQueryTimeout(3);
+            st1.executeQuery();
+            st1.close();
+
+            assertEquals(1, results.size());
+            assertTrue(results.get(0).isClosed());
+            assertEquals(0, properties.get("MaxRows"));
+            assertEquals(0, properties.get("QueryTimeout"));
+
+            try (PreparedStatement st2 = c.prepareStatement("select 1")) {
+                assertEquals(0, st2.getMaxRows());
+            }
+        }
+
+        assertEquals(1, ds.getHits());
+    }
+
+    @Test
+    public void close_UnclosedStatementsClosed() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        Connection c = ds.getConnection();
+        PreparedStatement st = c.prepareStatement("select 1");
+        c.prepareStatement("select 2").close();
+        c.close();
+
+        assertTrue(st.isClosed());
+        assertThrows(SQLException.class, st::executeQuery);
+
+        // the properly closed statement stays in the cache
+        assertEquals(List.of("select 1"), closed);
+        assertEquals(1, ds.getCachedStatements());
+    }
+
+    @Test
+    public void shutdown() throws SQLException {
+        StatementCachingDataSource ds = createDataSource(10);
+
+        Connection c = ds.getConnection();
+        c.prepareStatement("select 1").close();
+
+        ds.shutdown();
+        assertEquals(List.of("select 1"), closed);
+        assertEquals(0, ds.getCachedStatements());
+    }
+}
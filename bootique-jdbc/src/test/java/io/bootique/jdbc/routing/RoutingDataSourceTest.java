@@ -0,0 +1,241 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.routing;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutingDataSourceTest {
+
+    @Test
+    public void getConnection_Primary() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource replica = new FakeDataSource("r");
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(replica.dataSource()), 0);
+
+        try (Connection c = ds.getConnection()) {
+            assertEquals("p", c.getCatalog());
+        }
+
+        assertEquals(1, primary.opened.get());
+        assertEquals(1, primary.closed.get());
+        assertEquals(0, replica.opened.get());
+    }
+
+    @Test
+    public void getConnection_Lazy() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(), 0);
+
+        Connection c = ds.getConnection();
+        c.setAutoCommit(false);
+        assertFalse(c.getAutoCommit());
+        c.close();
+        assertTrue(c.isClosed());
+
+        assertEquals(0, primary.opened.get());
+    }
+
+    @Test
+    public void getConnection_ReadOnly() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource replica = new FakeDataSource("r");
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(replica.dataSource()), 0);
+
+        try (Connection c = ds.getConnection()) {
+            c.setReadOnly(true);
+            assertEquals("r", c.getCatalog());
+            assertTrue(c.isReadOnly());
+        }
+
+        assertEquals(0, primary.opened.get());
+        assertEquals(1, replica.opened.get());
+        assertEquals(1, replica.closed.get());
+    }
+
+    @Test
+    public void setReadOnly_AfterReplicaAcquired() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource replica = new FakeDataSource("r");
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(replica.dataSource()), 0);
+
+        try (Connection c = readOnlyConnection(ds)) {
+            assertEquals("r", c.getCatalog());
+
+            c.setReadOnly(true);
+            assertThrows(SQLException.class, () -> c.setReadOnly(false));
+            assertTrue(c.isReadOnly());
+        }
+
+        // a read-only connection that fell back to the primary can still be switched
+        replica.failing = true;
+        try (Connection c = readOnlyConnection(ds)) {
+            assertEquals("p", c.getCatalog());
+            c.setReadOnly(false);
+            assertFalse(c.isReadOnly());
+        }
+    }
+
+    @Test
+    public void runReadOnly() {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource replica = new FakeDataSource("r");
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(replica.dataSource()), 0);
+
+        RoutingDataSource.runReadOnly(() -> {
+            try (Connection c = ds.getConnection()) {
+                assertEquals("r", c.getCatalog());
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+
+        assertFalse(RoutingDataSource.isReadOnlyHint());
+        assertEquals(0, primary.opened.get());
+        assertEquals(1, replica.opened.get());
+    }
+
+    @Test
+    public void getConnection_LeastOutstanding() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource r1 = new FakeDataSource("r1");
+        FakeDataSource r2 = new FakeDataSource("r2");
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(r1.dataSource(), r2.dataSource()), 0);
+
+        Connection c1 = readOnlyConnection(ds);
+        Connection c2 = readOnlyConnection(ds);
+        assertNotEquals(c1.getCatalog(), c2.getCatalog());
+
+        // the replica with no outstanding connections must be picked regardless of the round-robin position
+        String freed = c1.getCatalog();
+        c1.close();
+        for (int i = 0; i < 3; i++) {
+            Connection c = readOnlyConnection(ds);
+            assertEquals(freed, c.getCatalog());
+            c.close();
+        }
+
+        c2.close();
+        assertEquals(r1.opened.get(), r1.closed.get());
+        assertEquals(r2.opened.get(), r2.closed.get());
+    }
+
+    @Test
+    public void getConnection_EjectFailedReplica() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource r1 = new FakeDataSource("r1");
+        FakeDataSource r2 = new FakeDataSource("r2");
+        r1.failing = true;
+
+        RoutingDataSource ds = new RoutingDataSource(
+                "test",
+                primary.dataSource(),
+                List.of(r1.dataSource(), r2.dataSource()),
+                TimeUnit.MINUTES.toNanos(1));
+
+        for (int i = 0; i < 4; i++) {
+            try (Connection c = readOnlyConnection(ds)) {
+                assertEquals("r2", c.getCatalog());
+            }
+        }
+
+        // ejected after the first failure and never retried
+        assertEquals(1, r1.attempts.get());
+    }
+
+    @Test
+    public void getConnection_FallbackToPrimary() throws SQLException {
+        FakeDataSource primary = new FakeDataSource("p");
+        FakeDataSource replica = new FakeDataSource("r");
+        replica.failing = true;
+
+        RoutingDataSource ds = new RoutingDataSource("test", primary.dataSource(), List.of(replica.dataSource()), 0);
+
+        try (Connection c = readOnlyConnection(ds)) {
+            assertEquals("p", c.getCatalog());
+        }
+    }
+
+    private static Connection readOnlyConnection(RoutingDataSource ds) throws SQLException {
+        Connection c = ds.getConnection();
+        c.setReadOnly(true);
+        return c;
+    }
+
+    static class FakeDataSource {
+
+        final String name;
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        volatile boolean failing;
+
+        FakeDataSource(String name) {
+            this.name = name;
+        }
+
+        DataSource dataSource() {
+            return (DataSource) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[]{DataSource.class},
+                    (p, m, a) -> {
+                        if (!m.getName().equals("getConnection")) {
+                            throw new UnsupportedOperationException(m.getName());
+                        }
+
+                        attempts.incrementAndGet();
+                        if (failing) {
+                            throw new SQLException("Replica is down");
+                        }
+
+                        opened.incrementAndGet();
+                        return connection();
+                    });
+        }
+
+        private Connection connection() {
+            boolean[] readOnly = new boolean[1];
+            return (Connection) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (p, m, a) -> switch (m.getName()) {
+                        case "getCatalog" -> name;
+                        case "setReadOnly" -> {
+                            readOnly[0] = (Boolean) a[0];
+                            yield null;
+                        }
+                        case "isReadOnly" -> readOnly[0];
+                        case "close" -> {
+                            closed.incrementAndGet();
+                            yield null;
+                        }
+                        default -> null;
+                    });
+        }
+    }
+}
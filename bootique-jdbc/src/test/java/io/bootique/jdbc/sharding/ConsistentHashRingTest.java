@@ -0,0 +1,85 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    @Test
+    public void shard_Distribution() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("s1", "s2", "s3", "s4"), 128);
+
+        int[] counts = new int[4];
+        for (int i = 0; i < 40_000; i++) {
+            counts[ring.shard("tenant" + i)]++;
+        }
+
+        for (int c : counts) {
+            assertTrue(c > 7_000 && c < 13_000, () -> "Uneven distribution: " + Arrays.toString(counts));
+        }
+    }
+
+    @Test
+    public void shard_IndependentOfOrder() {
+        List<String> names = List.of("s1", "s2", "s3");
+        List<String> reversed = List.of("s3", "s2", "s1");
+
+        ConsistentHashRing r1 = new ConsistentHashRing(names, 16);
+        ConsistentHashRing r2 = new ConsistentHashRing(reversed, 16);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(names.get(r1.shard(i)), reversed.get(r2.shard(i)));
+        }
+    }
+
+    @Test
+    public void shard_AddShard() {
+        List<String> three = List.of("s1", "s2", "s3");
+        List<String> four = List.of("s1", "s2", "s3", "s4");
+
+        ConsistentHashRing r3 = new ConsistentHashRing(three, 128);
+        ConsistentHashRing r4 = new ConsistentHashRing(four, 128);
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String before = three.get(r3.shard(i));
+            String after = four.get(r4.shard(i));
+            if (!before.equals(after)) {
+                assertEquals("s4", after);
+                moved++;
+            }
+        }
+
+        // about 1/4 of the keys should move, all of them to the new shard
+        assertTrue(moved > 1_500 && moved < 3_500, () -> "Unexpected number of moved keys");
+    }
+
+    @Test
+    public void hash_ShardKey() {
+        assertEquals(ConsistentHashRing.hash(42), ConsistentHashRing.hash(ShardKey.of(42)));
+        assertEquals(ConsistentHashRing.hash("42"), ConsistentHashRing.hash(42));
+        assertNotEquals(ConsistentHashRing.hash(ShardKey.of("a", "b")), ConsistentHashRing.hash(ShardKey.of("b", "a")));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to ObjectStyle LLC under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ObjectStyle LLC licenses
+ * this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.bootique.jdbc.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.ShardingKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedDataSourceTest {
+
+    private static final List<String> NAMES = List.of("s1", "s2", "s3");
+
+    private final ShardedDataSource dataSource = new ShardedDataSource(
+            "test",
+            NAMES,
+            NAMES.stream().map(ShardedDataSourceTest::shard).toList(),
+            32);
+
+    @Test
+    public void getConnection_NoKey() {
+        assertThrows(SQLException.class, dataSource::getConnection);
+    }
+
+    @Test
+    public void runWithShardKey() throws SQLException {
+        String expected = shardName(dataSource.getShard("tenant1"));
+
+        ShardedDataSource.runWithShardKey("tenant1", () -> {
+            try (Connection c = dataSource.getConnection()) {
+                assertEquals(expected, c.getCatalog());
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+    }
+
+    @Test
+    public void createConnectionBuilder() throws SQLException {
+        ShardingKey key = dataSource.createShardingKeyBuilder().subkey("tenant2", JDBCType.VARCHAR).build();
+        String expected = shardName(dataSource.getShard("tenant2"));
+
+        try (Connection c = dataSource.createConnectionBuilder().shardingKey(key).build()) {
+            assertEquals(expected, c.getCatalog());
+        }
+    }
+
+    @Test
+    public void customKeyExtractor() throws SQLException {
+        ShardedDataSource ds = new ShardedDataSource(
+                "test",
+                NAMES,
+                NAMES.stream().map(ShardedDataSourceTest::shard).toList(),
+                32,
+                () -> 5);
+
+        try (Connection c = ds.getConnection()) {
+            assertEquals(shardName(ds.getShard(5)), c.getCatalog());
+        }
+    }
+
+    private static String shardName(DataSource ds) {
+        return ds.toString();
+    }
+
+    private static DataSource shard(String name) {
+        Connection connection = (Connection) Proxy.newProxyInstance(
+                ShardedDataSourceTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (p, m, a) -> m.getName().equals("getCatalog") ? name : null);
+
+        return (DataSource) Proxy.newProxyInstance(
+                ShardedDataSourceTest.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (p, m, a) -> switch (m.getName()) {
+                    case "getConnection" -> connection;
+                    case "toString" -> name;
+                    default -> null;
+                });
+    }
+}